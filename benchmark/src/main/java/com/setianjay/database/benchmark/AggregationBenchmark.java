@@ -0,0 +1,81 @@
+package com.setianjay.database.benchmark;
+
+import com.setianjay.database.analytics.EmployeeAggregator;
+import com.setianjay.database.analytics.EmployeeSnapshot;
+import com.setianjay.database.analytics.EmployeeTable;
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.EmployeeColumn;
+import com.setianjay.database.enums.EmployeeGroup;
+import com.setianjay.database.excel.data.EmployeeDataGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure annual salary by department of {@link EmployeeAggregator} over every source against the sequential
+ * {@link EmployeeTable#summarizeBy(EmployeeColumn, EmployeeColumn)}, the speed up depends on the total cores.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class AggregationBenchmark {
+    private static final int TOTAL_ROW = 1_000_000;
+
+    private final EmployeeAggregator employeeAggregator = new EmployeeAggregator();
+    private List<Employee> employees;
+    private EmployeeTable employeeTable;
+    private Path snapshotPath;
+    private EmployeeSnapshot employeeSnapshot;
+
+    @Setup(Level.Trial)
+    public void generateEmployees() throws IOException {
+        employees = EmployeeDataGenerator.employees(TOTAL_ROW).toList();
+        employeeTable = EmployeeTable.from(employees.stream());
+
+        snapshotPath = Files.createTempFile("employee", ".snapshot");
+        EmployeeSnapshot.write(snapshotPath, employees.stream());
+        employeeSnapshot = EmployeeSnapshot.open(snapshotPath);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteSnapshot() throws IOException {
+        employeeSnapshot.close();
+        Files.deleteIfExists(snapshotPath);
+    }
+
+    @Benchmark
+    public Map<String, IntSummaryStatistics> sequentialTable() {
+        return employeeTable.summarizeBy(EmployeeColumn.DEPARTMENT, EmployeeColumn.ANNUAL_SALARY);
+    }
+
+    @Benchmark
+    public Map<String, IntSummaryStatistics> parallelTable() {
+        return employeeAggregator.aggregate(employeeTable, EmployeeGroup.DEPARTMENT, EmployeeColumn.ANNUAL_SALARY);
+    }
+
+    @Benchmark
+    public Map<String, IntSummaryStatistics> parallelSnapshot() {
+        return employeeAggregator.aggregate(employeeSnapshot, EmployeeGroup.DEPARTMENT,
+                EmployeeColumn.ANNUAL_SALARY);
+    }
+
+    @Benchmark
+    public Map<String, IntSummaryStatistics> parallelStream() {
+        return employeeAggregator.aggregate(employees.stream(), EmployeeGroup.DEPARTMENT,
+                EmployeeColumn.ANNUAL_SALARY);
+    }
+
+    @Benchmark
+    public Map<String, IntSummaryStatistics> parallelHireYearOfSnapshot() {
+        return employeeAggregator.aggregate(employeeSnapshot, EmployeeGroup.HIRE_YEAR, EmployeeColumn.AGE);
+    }
+}
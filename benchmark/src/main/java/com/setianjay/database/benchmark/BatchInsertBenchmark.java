@@ -0,0 +1,88 @@
+package com.setianjay.database.benchmark;
+
+import com.setianjay.database.datasource.DataSourceProvider;
+import com.setianjay.database.datasource.DataSourceRegistry;
+import com.setianjay.database.datasource.EmbeddedDataSourceProvider;
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.EmbeddedDatabase;
+import com.setianjay.database.enums.InsertMode;
+import com.setianjay.database.excel.data.EmployeeDataGenerator;
+import com.setianjay.database.importer.EmployeeImporter;
+import com.setianjay.database.importer.ImportConfig;
+import com.setianjay.database.importer.ImportResult;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure insert throughput of {@link EmployeeImporter} with different batch sizes against H2 in-memory database in
+ * MySQL mode. the numbers are only comparable with each other, the round trip to real MySQL server isn't measured.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchInsertBenchmark {
+    private static final int TOTAL_ROW = 10_000;
+
+    @Param({"1", "100", "1000", "5000"})
+    private int batchSize;
+
+    @Param({"JDBC_BATCH", "MULTI_ROW_VALUES"})
+    private InsertMode insertMode;
+
+    @Param({"1", "4"})
+    private int writerCount;
+
+    private DataSourceRegistry dataSourceRegistry;
+    private HikariDataSource dataSource;
+    private EmployeeImporter employeeImporter;
+    private List<Employee> employees;
+
+    @Setup(Level.Trial)
+    public void setupDatabase() throws SQLException {
+        DataSourceProvider dataSourceProvider = new EmbeddedDataSourceProvider(EmbeddedDatabase.H2, "benchmark");
+        dataSourceRegistry = new DataSourceRegistry(dataSourceProvider.createSettings()
+                .withProperty("maximumPoolSize", String.valueOf(writerCount)));
+        dataSource = dataSourceRegistry.getDataSource();
+        dataSourceProvider.initialize(dataSource);
+
+        employeeImporter = new EmployeeImporter(dataSource, new ImportConfig(batchSize, writerCount, 16,
+                insertMode));
+        employees = EmployeeDataGenerator.employees(TOTAL_ROW).toList();
+    }
+
+    /**
+     * employee id is the primary key, so the table is emptied before every invocation. one invocation insert
+     * {@value #TOTAL_ROW} rows, so the cost of the setup is small compared to it.
+     * */
+    @Setup(Level.Invocation)
+    public void truncateTable() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE employee");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() {
+        dataSourceRegistry.close();
+    }
+
+    /**
+     * one operation insert {@value #TOTAL_ROW} employees.
+     * */
+    @Benchmark
+    @OperationsPerInvocation(TOTAL_ROW)
+    public long importEmployees() throws SQLException {
+        ImportResult importResult = employeeImporter.importEmployees(employees.stream());
+        return importResult.totalRow();
+    }
+}
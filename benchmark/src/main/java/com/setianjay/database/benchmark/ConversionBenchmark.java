@@ -0,0 +1,55 @@
+package com.setianjay.database.benchmark;
+
+import com.setianjay.database.enums.Gender;
+import com.setianjay.database.util.MapUtil;
+import com.setianjay.database.util.StringInterner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the value conversions that are called for every cell of the employee sheet.
+ * */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+
+    @Param({"Male", "Female"})
+    private String gender;
+
+    private String age = "41.0";
+    private double salary = 141_604.0;
+    private String department = "Research & Development";
+    private StringInterner departments;
+
+    @Setup(Level.Trial)
+    public void createInterner() {
+        departments = new StringInterner();
+        departments.intern(department);
+    }
+
+    @Benchmark
+    public int mapStringToInt() {
+        return MapUtil.mapDoubleToInt(age);
+    }
+
+    @Benchmark
+    public int mapDoubleToInt() {
+        return MapUtil.mapDoubleToInt(salary);
+    }
+
+    @Benchmark
+    public Gender mapStringToGender() {
+        return Gender.mapStringToGender(gender);
+    }
+
+    @Benchmark
+    public String internString() {
+        // the cell value is a new copy for every cell, like the value from the workbook
+        return departments.intern(new String(department));
+    }
+}
@@ -0,0 +1,91 @@
+package com.setianjay.database.benchmark;
+
+import com.setianjay.database.analytics.EmployeeSnapshot;
+import com.setianjay.database.analytics.EmployeeTable;
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.EmployeeColumn;
+import com.setianjay.database.excel.data.EmployeeDataGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measure average annual salary by department over {@code List<Employee>}, over {@link EmployeeTable} and over
+ * memory mapped {@link EmployeeSnapshot}. run with
+ * "-prof gc" to compare the allocation, the retained heap of both can be compared with a heap dump of the setup.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class EmployeeTableBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int totalRow;
+
+    private List<Employee> employees;
+    private EmployeeTable employeeTable;
+    private Path snapshotPath;
+    private EmployeeSnapshot employeeSnapshot;
+
+    @Setup(Level.Trial)
+    public void generateEmployees() throws IOException {
+        employees = EmployeeDataGenerator.employees(totalRow).toList();
+        employeeTable = EmployeeTable.from(employees.stream());
+
+        snapshotPath = Files.createTempFile("employee", ".snapshot");
+        EmployeeSnapshot.write(snapshotPath, employees.stream());
+        employeeSnapshot = EmployeeSnapshot.open(snapshotPath);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteSnapshot() throws IOException {
+        employeeSnapshot.close();
+        Files.deleteIfExists(snapshotPath);
+    }
+
+    @Benchmark
+    public Map<String, Double> averageSalaryByDepartmentOfList() {
+        return employees.stream().collect(Collectors.groupingBy(Employee::getDepartment,
+                Collectors.averagingInt(Employee::getAnnualSalary)));
+    }
+
+    @Benchmark
+    public Map<String, IntSummaryStatistics> averageSalaryByDepartmentOfTable() {
+        return employeeTable.summarizeBy(EmployeeColumn.DEPARTMENT, EmployeeColumn.ANNUAL_SALARY);
+    }
+
+    @Benchmark
+    public Map<String, IntSummaryStatistics> averageSalaryByDepartmentOfSnapshot() {
+        // group by dictionary code, the department string is only decoded once per group
+        IntSummaryStatistics[] salaries = new IntSummaryStatistics[
+                employeeSnapshot.dictionarySize(EmployeeColumn.DEPARTMENT) + 1];
+        EmployeeSnapshot.Row row = employeeSnapshot.row();
+        for (int index = 0; index < employeeSnapshot.size(); index++) {
+            row.moveTo(index);
+            int group = row.getCode(EmployeeColumn.DEPARTMENT) + 1;
+            if (salaries[group] == null) {
+                salaries[group] = new IntSummaryStatistics();
+            }
+            salaries[group].accept(row.getAnnualSalary());
+        }
+
+        Map<String, IntSummaryStatistics> departmentSalaries = new HashMap<>();
+        for (int group = 0; group < salaries.length; group++) {
+            if (salaries[group] != null) {
+                departmentSalaries.put(employeeSnapshot.decode(EmployeeColumn.DEPARTMENT, group - 1), salaries[group]);
+            }
+        }
+        return departmentSalaries;
+    }
+}
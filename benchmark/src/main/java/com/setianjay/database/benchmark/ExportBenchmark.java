@@ -0,0 +1,70 @@
+package com.setianjay.database.benchmark;
+
+import com.setianjay.database.datasource.DataSourceProvider;
+import com.setianjay.database.datasource.DataSourceRegistry;
+import com.setianjay.database.datasource.EmbeddedDataSourceProvider;
+import com.setianjay.database.enums.EmbeddedDatabase;
+import com.setianjay.database.excel.data.EmployeeDataGenerator;
+import com.setianjay.database.exporter.EmployeeExporter;
+import com.setianjay.database.exporter.ExportConfig;
+import com.setianjay.database.exporter.ExportResult;
+import com.setianjay.database.importer.EmployeeImporter;
+import com.setianjay.database.importer.ImportConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure xlsx export of {@link EmployeeExporter} with different range counts against H2 in-memory database, the
+ * file is written to an output stream that drop the bytes so the disk isn't measured.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExportBenchmark {
+    private static final int TOTAL_ROW = 100_000;
+
+    @Param({"1", "4"})
+    private int rangeCount;
+
+    @Param({"true", "false"})
+    private boolean compressTempFiles;
+
+    private DataSourceRegistry dataSourceRegistry;
+    private EmployeeExporter employeeExporter;
+
+    @Setup(Level.Trial)
+    public void setupDatabase() throws SQLException {
+        DataSourceProvider dataSourceProvider = new EmbeddedDataSourceProvider(EmbeddedDatabase.H2,
+                "export_benchmark");
+        dataSourceRegistry = new DataSourceRegistry(dataSourceProvider.createSettings()
+                .withProperty("maximumPoolSize", String.valueOf(rangeCount + 1)));
+        HikariDataSource dataSource = dataSourceRegistry.getDataSource();
+        dataSourceProvider.initialize(dataSource);
+
+        new EmployeeImporter(dataSource, ImportConfig.defaultConfig())
+                .importEmployees(EmployeeDataGenerator.employees(TOTAL_ROW));
+        employeeExporter = new EmployeeExporter(dataSource, new ExportConfig(rangeCount, 1_000, 4, 1_000,
+                compressTempFiles));
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() {
+        dataSourceRegistry.close();
+    }
+
+    /**
+     * one operation export {@value #TOTAL_ROW} employees.
+     * */
+    @Benchmark
+    public ExportResult exportEmployees() throws SQLException, IOException {
+        return employeeExporter.exportEmployees(OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,72 @@
+package com.setianjay.database.benchmark;
+
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.ExcelType;
+import com.setianjay.database.excel.data.EmployeeDataGenerator;
+import com.setianjay.database.excel.data.EmployeeWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the cost of mapping one row of the whole workbook to {@link Employee} with
+ * {@link com.setianjay.database.excel.base.ExcelWorkbook#mapRowToCell(Row, Object)}.
+ * */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapRowBenchmark {
+    private static final int TOTAL_ROW = 1_000;
+
+    private RowMappingWorkbook workbook;
+    private int rowIndex;
+
+    @Setup(Level.Trial)
+    public void openWorkbook() throws IOException {
+        File excelFile = Files.createTempFile("employee-map-row-", ".xlsx").toFile();
+        try {
+            EmployeeDataGenerator.writeExcelFile(excelFile, ExcelType.xlsx, TOTAL_ROW);
+            byte[] excelBytes = Files.readAllBytes(excelFile.toPath());
+            workbook = new RowMappingWorkbook(new ByteArrayInputStream(excelBytes));
+        } finally {
+            Files.deleteIfExists(excelFile.toPath());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void closeWorkbook() throws IOException {
+        workbook.close();
+    }
+
+    @Benchmark
+    public Employee mapRowToCell() {
+        // go through every row, so the benchmark doesn't only measure one cached row
+        rowIndex = rowIndex % TOTAL_ROW + 1;
+        return workbook.mapRow(rowIndex);
+    }
+
+    /**
+     * open the mapping method of the workbook for the benchmark.
+     * */
+    private static class RowMappingWorkbook extends EmployeeWorkbook {
+
+        private RowMappingWorkbook(InputStream excelFileInputStream) throws IOException {
+            super(ExcelType.xlsx, excelFileInputStream);
+        }
+
+        private Employee mapRow(int rowIndex) {
+            Employee employee = new Employee();
+            mapRowToCell(workbook.getSheetAt(0).getRow(rowIndex), employee);
+            return employee;
+        }
+    }
+}
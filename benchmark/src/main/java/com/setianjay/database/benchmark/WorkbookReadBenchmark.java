@@ -0,0 +1,61 @@
+package com.setianjay.database.benchmark;
+
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.ExcelType;
+import com.setianjay.database.enums.ReadMode;
+import com.setianjay.database.excel.data.EmployeeDataGenerator;
+import com.setianjay.database.excel.data.EmployeeWorkbook;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measure how long {@link EmployeeWorkbook} read the whole sheet of generated xlsx file in every {@link ReadMode}.
+ * whole workbook mode of 1M rows need big heap, so the benchmark is forked with 4GB heap.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class WorkbookReadBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int totalRow;
+
+    @Param({"WORKBOOK", "STREAMING"})
+    private ReadMode readMode;
+
+    private File excelFile;
+
+    @Setup(Level.Trial)
+    public void createExcelFile() throws IOException {
+        excelFile = Files.createTempFile("employee-" + totalRow + "-", ".xlsx").toFile();
+        EmployeeDataGenerator.writeExcelFile(excelFile, ExcelType.xlsx, totalRow);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteExcelFile() throws IOException {
+        Files.deleteIfExists(excelFile.toPath());
+    }
+
+    @Benchmark
+    public long readDataInSingleSheet() throws IOException {
+        try (EmployeeWorkbook employeeWorkbook = new EmployeeWorkbook(excelFile, readMode)) {
+            return employeeWorkbook.readDataInSingleSheet().size();
+        }
+    }
+
+    @Benchmark
+    public long streamDataInSingleSheet() throws IOException {
+        try (EmployeeWorkbook employeeWorkbook = new EmployeeWorkbook(excelFile, readMode);
+             Stream<Employee> employees = employeeWorkbook.streamDataInSingleSheet()) {
+            return employees.count();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.setianjay.database.benchmark;
+
+import com.setianjay.database.enums.ExcelType;
+import com.setianjay.database.enums.ReadMode;
+import com.setianjay.database.excel.data.EmployeeDataGenerator;
+import com.setianjay.database.excel.data.EmployeeWorkbook;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure how long {@link EmployeeWorkbook} read the whole sheet of generated xls file. xls file is always read as
+ * the whole workbook and it can only hold {@value EmployeeDataGenerator#MAX_XLS_ROWS} rows per sheet.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class XlsWorkbookReadBenchmark {
+
+    @Param({"1000", "10000", "65535"})
+    private int totalRow;
+
+    private File excelFile;
+
+    @Setup(Level.Trial)
+    public void createExcelFile() throws IOException {
+        excelFile = Files.createTempFile("employee-" + totalRow + "-", ".xls").toFile();
+        EmployeeDataGenerator.writeExcelFile(excelFile, ExcelType.xls, totalRow);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteExcelFile() throws IOException {
+        Files.deleteIfExists(excelFile.toPath());
+    }
+
+    @Benchmark
+    public long readDataInSingleSheet() throws IOException {
+        try (EmployeeWorkbook employeeWorkbook = new EmployeeWorkbook(excelFile, ReadMode.WORKBOOK)) {
+            return employeeWorkbook.readDataInSingleSheet().size();
+        }
+    }
+}
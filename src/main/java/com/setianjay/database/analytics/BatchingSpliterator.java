@@ -0,0 +1,57 @@
+package com.setianjay.database.analytics;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator of iterator that can only be read one by one (workbook rows, result set), every split take the next
+ * fixed size batch into an array that can be processed by another thread. the iterator itself is only read by the
+ * thread that hold this spliterator.
+ * */
+final class BatchingSpliterator<T> implements Spliterator<T> {
+    private final Iterator<T> iterator;
+    private final int batchSize;
+
+    BatchingSpliterator(Iterator<T> iterator, int batchSize) {
+        this.iterator = iterator;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (!iterator.hasNext()) {
+            return false;
+        }
+
+        action.accept(iterator.next());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        iterator.forEachRemaining(action);
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        Object[] batch = new Object[batchSize];
+        int size = 0;
+        while (size < batchSize && iterator.hasNext()) {
+            batch[size++] = iterator.next();
+        }
+
+        return size == 0 ? null : Spliterators.spliterator(batch, 0, size, Spliterator.NONNULL);
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.NONNULL;
+    }
+}
@@ -0,0 +1,362 @@
+package com.setianjay.database.analytics;
+
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.EmployeeColumn;
+import com.setianjay.database.enums.EmployeeGroup;
+import com.setianjay.database.enums.Gender;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IntSummaryStatistics;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Aggregate count, sum, min and max (average) or {@link IntHistogram} of age or annual salary by {@link EmployeeGroup}
+ * with {@link ForkJoinPool}, so the aggregation use every core:
+ * <br />
+ * 1. {@link EmployeeTable} and {@link EmployeeSnapshot} are split by row range until the range is small enough, every
+ * range is aggregated to partial statistics indexed by dictionary code (no object per row), then the partials are
+ * merged.
+ * <br />
+ * 2. stream of {@link Employee} (from {@link com.setianjay.database.excel.data.EmployeeWorkbook} or
+ * {@link com.setianjay.database.repository.EmployeeRepository#streamAll()}) is read by one thread in batches, every
+ * batch is aggregated by another thread to partial map, then the partial maps are merged.
+ * <br />
+ * <br />
+ * Input with less rows than the sequential threshold is aggregated in the calling thread, because splitting it cost
+ * more than it saves. The result is sorted by the group name, null group (for example employee without department)
+ * is the first. hire year outside of 1900 until 2200 is grouped to {@value #OTHER_HIRE_YEAR}.
+ * */
+public class EmployeeAggregator {
+    public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 16_384;
+    /* group name of hire year outside of the years of EmployeeDates */
+    public static final String OTHER_HIRE_YEAR = "other";
+
+    private static final Comparator<String> GROUP_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private final ForkJoinPool forkJoinPool;
+    private final int sequentialThreshold;
+
+    public EmployeeAggregator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    /**
+     * @param sequentialThreshold maximum rows that are aggregated by one task without splitting, also the size of
+     *                            one batch of stream.
+     * */
+    public EmployeeAggregator(ForkJoinPool forkJoinPool, int sequentialThreshold) {
+        if (sequentialThreshold < 1) {
+            throw new IllegalArgumentException("Sequential threshold must be at least 1");
+        }
+
+        this.forkJoinPool = forkJoinPool;
+        this.sequentialThreshold = sequentialThreshold;
+    }
+
+    public Map<String, IntSummaryStatistics> aggregate(EmployeeTable employeeTable, EmployeeGroup group,
+                                                       EmployeeColumn valueColumn) {
+        GroupIndex groupIndex = groupIndex(employeeTable, group);
+        GroupStatistics statistics = aggregateTable(employeeTable, groupIndex, valueColumn,
+                () -> new GroupStatistics(groupIndex.groupCount()));
+        return toMap(statistics::putTo, groupIndex.groupName());
+    }
+
+    public Map<String, IntSummaryStatistics> aggregate(EmployeeSnapshot employeeSnapshot, EmployeeGroup group,
+                                                       EmployeeColumn valueColumn) {
+        RowGroupIndex groupIndex = groupIndex(employeeSnapshot, group);
+        GroupStatistics statistics = aggregateSnapshot(employeeSnapshot, groupIndex, valueColumn,
+                () -> new GroupStatistics(groupIndex.groupCount()));
+        return toMap(statistics::putTo, groupIndex.groupName());
+    }
+
+    /**
+     * aggregate the employees, the stream is consumed by this method but not closed. the stream is read by one
+     * thread at a time, so it can be a stream that hold connection or workbook.
+     * */
+    public Map<String, IntSummaryStatistics> aggregate(Stream<Employee> employees, EmployeeGroup group,
+                                                       EmployeeColumn valueColumn) {
+        return aggregateStream(employees, group, valueColumn, IntSummaryStatistics::new,
+                IntSummaryStatistics::accept, (first, second) -> {
+                    first.combine(second);
+                    return first;
+                });
+    }
+
+    /**
+     * @param bucketWidth width of every bucket of the histograms, at least 1.
+     * */
+    public Map<String, IntHistogram> histogram(EmployeeTable employeeTable, EmployeeGroup group,
+                                               EmployeeColumn valueColumn, int bucketWidth) {
+        checkBucketWidth(bucketWidth);
+        GroupIndex groupIndex = groupIndex(employeeTable, group);
+        GroupHistograms histograms = aggregateTable(employeeTable, groupIndex, valueColumn,
+                () -> new GroupHistograms(groupIndex.groupCount(), bucketWidth));
+        return toMap(histograms::putTo, groupIndex.groupName());
+    }
+
+    /**
+     * @param bucketWidth width of every bucket of the histograms, at least 1.
+     * */
+    public Map<String, IntHistogram> histogram(EmployeeSnapshot employeeSnapshot, EmployeeGroup group,
+                                               EmployeeColumn valueColumn, int bucketWidth) {
+        checkBucketWidth(bucketWidth);
+        RowGroupIndex groupIndex = groupIndex(employeeSnapshot, group);
+        GroupHistograms histograms = aggregateSnapshot(employeeSnapshot, groupIndex, valueColumn,
+                () -> new GroupHistograms(groupIndex.groupCount(), bucketWidth));
+        return toMap(histograms::putTo, groupIndex.groupName());
+    }
+
+    /**
+     * histogram of the employees, the stream is consumed like {@link #aggregate(Stream, EmployeeGroup,
+     * EmployeeColumn)}.
+     * @param bucketWidth width of every bucket of the histograms, at least 1.
+     * */
+    public Map<String, IntHistogram> histogram(Stream<Employee> employees, EmployeeGroup group,
+                                               EmployeeColumn valueColumn, int bucketWidth) {
+        checkBucketWidth(bucketWidth);
+        return aggregateStream(employees, group, valueColumn, () -> new IntHistogram(bucketWidth),
+                IntHistogram::accept, (first, second) -> {
+                    first.combine(second);
+                    return first;
+                });
+    }
+
+    private <P extends GroupPartial<P>> P aggregateTable(EmployeeTable employeeTable, GroupIndex groupIndex,
+                                                         EmployeeColumn valueColumn, Supplier<P> partialFactory) {
+        int[] values = employeeTable.values(checkValueColumn(valueColumn));
+        return aggregateRange(employeeTable.size(), partialFactory, (from, to, partial) -> {
+            for (int row = from; row < to; row++) {
+                partial.accept(groupIndex.groupOfRow().applyAsInt(row), values[row]);
+            }
+        });
+    }
+
+    private <P extends GroupPartial<P>> P aggregateSnapshot(EmployeeSnapshot employeeSnapshot,
+                                                            RowGroupIndex groupIndex, EmployeeColumn valueColumn,
+                                                            Supplier<P> partialFactory) {
+        ToIntFunction<EmployeeSnapshot.Row> value = checkValueColumn(valueColumn) == EmployeeColumn.AGE
+                ? EmployeeSnapshot.Row::getAge : EmployeeSnapshot.Row::getAnnualSalary;
+        return aggregateRange(employeeSnapshot.size(), partialFactory, (from, to, partial) -> {
+            // the flyweight isn't thread safe, every range has its own
+            EmployeeSnapshot.Row row = employeeSnapshot.row();
+            for (int index = from; index < to; index++) {
+                row.moveTo(index);
+                partial.accept(groupIndex.groupOfRow().applyAsInt(row), value.applyAsInt(row));
+            }
+        });
+    }
+
+    /**
+     * aggregate the values of every group to A, the first batch decide whether the stream is aggregated
+     * sequentially or in parallel.
+     * */
+    private <A> Map<String, A> aggregateStream(Stream<Employee> employees, EmployeeGroup group,
+                                               EmployeeColumn valueColumn, Supplier<A> groupFactory,
+                                               ObjIntConsumer<A> accumulator, BinaryOperator<A> combiner) {
+        ToIntFunction<Employee> value = checkValueColumn(valueColumn) == EmployeeColumn.AGE
+                ? Employee::getAge : Employee::getAnnualSalary;
+        Collector<Employee, Map<String, A>, Map<String, A>> collector = Collector.of(HashMap::new,
+                (partial, employee) -> accumulator.accept(partial.computeIfAbsent(groupName(employee, group),
+                        key -> groupFactory.get()), value.applyAsInt(employee)),
+                (first, second) -> {
+                    second.forEach((key, groupValue) -> first.merge(key, groupValue, combiner));
+                    return first;
+                });
+
+        // read the first batch, if the stream end before it's full the employees are aggregated sequentially
+        Iterator<Employee> employeeIterator = employees.iterator();
+        List<Employee> firstBatch = new ArrayList<>();
+        while (firstBatch.size() < sequentialThreshold && employeeIterator.hasNext()) {
+            firstBatch.add(employeeIterator.next());
+        }
+
+        Map<String, A> groups;
+        if (!employeeIterator.hasNext()) {
+            groups = firstBatch.stream().collect(collector);
+        } else {
+            Iterator<Employee> allEmployees = Stream.concat(firstBatch.stream(),
+                    StreamSupport.stream(Spliterators.spliteratorUnknownSize(employeeIterator, 0), false))
+                    .iterator();
+            Stream<Employee> parallelEmployees = StreamSupport.stream(
+                    new BatchingSpliterator<>(allEmployees, sequentialThreshold), true);
+            // the parallel stream run its tasks in the pool of the thread that start it
+            groups = forkJoinPool.submit(() -> parallelEmployees.collect(collector)).join();
+        }
+
+        Map<String, A> sortedGroups = new TreeMap<>(GROUP_ORDER);
+        sortedGroups.putAll(groups);
+        return sortedGroups;
+    }
+
+    private <P extends GroupPartial<P>> P aggregateRange(int size, Supplier<P> partialFactory,
+                                                         RangeAggregator<P> rangeAggregator) {
+        RangeTask<P> rangeTask = new RangeTask<>(0, size, partialFactory, rangeAggregator);
+        if (size <= sequentialThreshold) {
+            return rangeTask.compute();
+        }
+
+        return forkJoinPool.invoke(rangeTask);
+    }
+
+    private static GroupIndex groupIndex(EmployeeTable employeeTable, EmployeeGroup group) {
+        return switch (group) {
+            case GENDER -> new GroupIndex(3, row -> genderGroup(employeeTable.getGender(row)),
+                    EmployeeAggregator::genderName);
+            case HIRE_YEAR -> new GroupIndex(yearGroupCount(),
+                    row -> yearGroup(employeeTable.getHireEpochDay(row)), EmployeeAggregator::yearName);
+            default -> {
+                EmployeeColumn column = EmployeeColumn.valueOf(group.name());
+                int[] codes = employeeTable.codes(column);
+                yield new GroupIndex(employeeTable.dictionarySize(column) + 1, row -> codes[row] + 1,
+                        groupCode -> employeeTable.decode(column, groupCode - 1));
+            }
+        };
+    }
+
+    private static RowGroupIndex groupIndex(EmployeeSnapshot employeeSnapshot, EmployeeGroup group) {
+        return switch (group) {
+            case GENDER -> new RowGroupIndex(3, row -> genderGroup(row.getGender()),
+                    EmployeeAggregator::genderName);
+            case HIRE_YEAR -> new RowGroupIndex(yearGroupCount(), row -> yearGroup(row.getHireEpochDay()),
+                    EmployeeAggregator::yearName);
+            default -> {
+                EmployeeColumn column = EmployeeColumn.valueOf(group.name());
+                yield new RowGroupIndex(employeeSnapshot.dictionarySize(column) + 1, row -> row.getCode(column) + 1,
+                        groupCode -> employeeSnapshot.decode(column, groupCode - 1));
+            }
+        };
+    }
+
+    private static <V> Map<String, V> toMap(BiConsumer<Map<String, V>, IntFunction<String>> partial,
+                                            IntFunction<String> groupName) {
+        Map<String, V> sortedGroups = new TreeMap<>(GROUP_ORDER);
+        partial.accept(sortedGroups, groupName);
+        return sortedGroups;
+    }
+
+    private static String groupName(Employee employee, EmployeeGroup group) {
+        return switch (group) {
+            case JOB_TITLE -> employee.getJobTitle();
+            case DEPARTMENT -> employee.getDepartment();
+            case BUSINESS_UNIT -> employee.getBusinessUnit();
+            case GENDER -> employee.getGender() != null ? employee.getGender().getValue() : null;
+            case ETHNICITY -> employee.getEthnicity();
+            case COUNTRY -> employee.getCountry();
+            case CITY -> employee.getCity();
+            case HIRE_YEAR -> yearName(yearGroup(EmployeeDates.toEpochDay(employee.getHireDate())));
+        };
+    }
+
+    private static EmployeeColumn checkValueColumn(EmployeeColumn valueColumn) {
+        if (valueColumn != EmployeeColumn.AGE && valueColumn != EmployeeColumn.ANNUAL_SALARY) {
+            throw new IllegalArgumentException("Column " + valueColumn + " can't be aggregated");
+        }
+
+        return valueColumn;
+    }
+
+    private static void checkBucketWidth(int bucketWidth) {
+        if (bucketWidth < 1) {
+            throw new IllegalArgumentException("Bucket width must be at least 1");
+        }
+    }
+
+    /* group 0 is null, 1 is male and 2 is female */
+    private static int genderGroup(Gender gender) {
+        return gender == null ? 0 : gender.ordinal() + 1;
+    }
+
+    private static String genderName(int group) {
+        return group == 0 ? null : Gender.values()[group - 1].getValue();
+    }
+
+    /* group 0 is null, 1 is other year, group n is year MIN_YEAR + n - 2 */
+    private static int yearGroupCount() {
+        return EmployeeDates.MAX_YEAR - EmployeeDates.MIN_YEAR + 3;
+    }
+
+    private static int yearGroup(int epochDay) {
+        if (epochDay == EmployeeDates.NULL_DATE) {
+            return 0;
+        }
+
+        int year = EmployeeDates.yearOf(epochDay);
+        return year < EmployeeDates.MIN_YEAR || year > EmployeeDates.MAX_YEAR
+                ? 1 : year - EmployeeDates.MIN_YEAR + 2;
+    }
+
+    private static String yearName(int group) {
+        return switch (group) {
+            case 0 -> null;
+            case 1 -> OTHER_HIRE_YEAR;
+            default -> String.valueOf(EmployeeDates.MIN_YEAR + group - 2);
+        };
+    }
+
+    /**
+     * aggregate the rows from (inclusive) until to (exclusive) to the partial.
+     * */
+    @FunctionalInterface
+    private interface RangeAggregator<P> {
+        void aggregate(int from, int to, P partial);
+    }
+
+    private record GroupIndex(int groupCount, IntUnaryOperator groupOfRow,
+                              IntFunction<String> groupName) {
+    }
+
+    private record RowGroupIndex(int groupCount, ToIntFunction<EmployeeSnapshot.Row> groupOfRow,
+                                 IntFunction<String> groupName) {
+    }
+
+    private final class RangeTask<P extends GroupPartial<P>> extends RecursiveTask<P> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        /* the task is never serialized, it only runs in the pool */
+        private final transient Supplier<P> partialFactory;
+        private final transient RangeAggregator<P> rangeAggregator;
+
+        private RangeTask(int from, int to, Supplier<P> partialFactory, RangeAggregator<P> rangeAggregator) {
+            this.from = from;
+            this.to = to;
+            this.partialFactory = partialFactory;
+            this.rangeAggregator = rangeAggregator;
+        }
+
+        @Override
+        protected P compute() {
+            if (to - from <= sequentialThreshold) {
+                P partial = partialFactory.get();
+                rangeAggregator.aggregate(from, to, partial);
+                return partial;
+            }
+
+            int middle = (from + to) >>> 1;
+            RangeTask<P> left = new RangeTask<>(from, middle, partialFactory, rangeAggregator);
+            RangeTask<P> right = new RangeTask<>(middle, to, partialFactory, rangeAggregator);
+            left.fork();
+            P rightPartial = right.compute();
+            return left.join().merge(rightPartial);
+        }
+    }
+}
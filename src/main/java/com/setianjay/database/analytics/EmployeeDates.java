@@ -0,0 +1,74 @@
+package com.setianjay.database.analytics;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * convert date text of employee to epoch day and back, so the date column is stored as int.
+ * */
+final class EmployeeDates {
+    static final int NULL_DATE = Integer.MIN_VALUE;
+
+    static final int MIN_YEAR = 1900;
+    static final int MAX_YEAR = 2200;
+
+    /* epoch day of the first day of every year from MIN_YEAR until MAX_YEAR + 1 */
+    private static final int[] FIRST_DAYS_OF_YEAR = new int[MAX_YEAR - MIN_YEAR + 2];
+
+    static {
+        for (int i = 0; i < FIRST_DAYS_OF_YEAR.length; i++) {
+            FIRST_DAYS_OF_YEAR[i] = (int) LocalDate.of(MIN_YEAR + i, 1, 1).toEpochDay();
+        }
+    }
+
+    /* date format of date text in the employee excel file, date cell is read as yyyy-MM-dd */
+    private static final DateTimeFormatter SHEET_DATE_FORMATTER = DateTimeFormatter.ofPattern("M/d/yyyy");
+
+    private EmployeeDates() {
+
+    }
+
+    /**
+     * @return epoch day of yyyy-MM-dd or M/d/yyyy date, {@value #NULL_DATE} for null or blank date.
+     * @throws DateTimeParseException if the date has other format.
+     * */
+    static int toEpochDay(String date) {
+        if (date == null || date.isBlank()) {
+            return NULL_DATE;
+        }
+
+        try {
+            return (int) LocalDate.parse(date.trim()).toEpochDay();
+        } catch (DateTimeParseException exception) {
+            return (int) LocalDate.parse(date.trim(), SHEET_DATE_FORMATTER).toEpochDay();
+        }
+    }
+
+    /**
+     * @return year of the epoch day, without creating {@link LocalDate} if the year is between {@value #MIN_YEAR}
+     * and {@value #MAX_YEAR}.
+     * */
+    static int yearOf(int epochDay) {
+        int index = Arrays.binarySearch(FIRST_DAYS_OF_YEAR, epochDay);
+        // not found return -(insertion point) - 1, the year is the one before the insertion point
+        int yearIndex = index >= 0 ? index : -index - 2;
+        if (yearIndex < 0 || yearIndex >= FIRST_DAYS_OF_YEAR.length - 1) {
+            return LocalDate.ofEpochDay(epochDay).getYear();
+        }
+
+        return MIN_YEAR + yearIndex;
+    }
+
+    static LocalDate toLocalDate(int epochDay) {
+        return epochDay == NULL_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * @return yyyy-MM-dd date, null for {@value #NULL_DATE}.
+     * */
+    static String format(int epochDay) {
+        return epochDay == NULL_DATE ? null : LocalDate.ofEpochDay(epochDay).toString();
+    }
+}
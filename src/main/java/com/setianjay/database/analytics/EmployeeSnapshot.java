@@ -0,0 +1,458 @@
+package com.setianjay.database.analytics;
+
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.EmployeeColumn;
+import com.setianjay.database.enums.Gender;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Read only binary snapshot of employees that is opened with {@link FileChannel#map} and read in place, so opening
+ * multi million rows snapshot doesn't parse anything and doesn't create object per row.
+ * <br />
+ * <br />
+ * The file is little endian and has four sections:
+ * <br />
+ * 1. header (32 bytes): magic "EMPS", version, total rows, reserved, offset of strings section and offset of
+ * dictionaries section.
+ * <br />
+ * 2. rows: fixed {@value #ROW_BYTES} bytes per row, the string of id and full name is a reference to strings
+ * section, job title, department, business unit, ethnicity, bonus, country and city are dictionary codes, age and
+ * annual salary are int, hire date and exit date are epoch day and gender is one byte.
+ * <br />
+ * 3. strings: every string is int length and UTF-8 bytes, null string has reference -1.
+ * <br />
+ * 4. dictionaries: for every dictionary column, int size and the references of its strings.
+ * <br />
+ * <br />
+ * The rows are read with {@link Row} flyweight that is moved from row to row, only the dictionaries (one string per
+ * distinct value) are read into the heap when the snapshot is opened. The snapshot is limited to 2GB because
+ * {@link MappedByteBuffer} is indexed by int. the mapping is released by the garbage collector after
+ * {@link #close()}, so don't overwrite the file while it's still mapped.
+ * */
+public class EmployeeSnapshot implements Closeable {
+    private static final int MAGIC = 0x53504D45; // "EMPS" in little endian
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int ROW_BYTES = 56;
+    private static final int NULL_REFERENCE = -1;
+    private static final EmployeeColumn[] DICTIONARY_COLUMNS = {EmployeeColumn.JOB_TITLE, EmployeeColumn.DEPARTMENT,
+            EmployeeColumn.BUSINESS_UNIT, EmployeeColumn.ETHNICITY, EmployeeColumn.BONUS, EmployeeColumn.COUNTRY,
+            EmployeeColumn.CITY};
+    /* position in DICTIONARY_COLUMNS by ordinal of the column, -1 for column that isn't dictionary column */
+    private static final int[] DICTIONARY_INDEXES = new int[EmployeeColumn.values().length];
+
+    static {
+        Arrays.fill(DICTIONARY_INDEXES, -1);
+        for (int i = 0; i < DICTIONARY_COLUMNS.length; i++) {
+            DICTIONARY_INDEXES[DICTIONARY_COLUMNS[i].ordinal()] = i;
+        }
+    }
+
+    /* offset of the fields in the row */
+    private static final int ID_OFFSET = 0;
+    private static final int FULL_NAME_OFFSET = 4;
+    private static final int CODES_OFFSET = 8;
+    private static final int AGE_OFFSET = 36;
+    private static final int ANNUAL_SALARY_OFFSET = 40;
+    private static final int HIRE_DATE_OFFSET = 44;
+    private static final int EXIT_DATE_OFFSET = 48;
+    private static final int GENDER_OFFSET = 52;
+
+    private static final byte GENDER_NULL = 0;
+    private static final byte GENDER_MALE = 1;
+    private static final byte GENDER_FEMALE = 2;
+
+    private final FileChannel fileChannel;
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int stringsOffset;
+    /* indexed by position in DICTIONARY_COLUMNS */
+    private final String[][] dictionaries;
+
+    private EmployeeSnapshot(FileChannel fileChannel, ByteBuffer buffer) {
+        this.fileChannel = fileChannel;
+        this.buffer = buffer;
+
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("File isn't employee snapshot");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported employee snapshot version: " + buffer.getInt(4));
+        }
+
+        this.size = buffer.getInt(8);
+        this.stringsOffset = (int) buffer.getLong(16);
+        int dictionaryOffset = (int) buffer.getLong(24);
+
+        this.dictionaries = new String[DICTIONARY_COLUMNS.length][];
+        for (int i = 0; i < DICTIONARY_COLUMNS.length; i++) {
+            int dictionarySize = buffer.getInt(dictionaryOffset);
+            dictionaryOffset += 4;
+
+            String[] dictionary = new String[dictionarySize];
+            for (int code = 0; code < dictionarySize; code++) {
+                dictionary[code] = readString(buffer.getInt(dictionaryOffset));
+                dictionaryOffset += 4;
+            }
+            dictionaries[i] = dictionary;
+        }
+    }
+
+    /**
+     * map the snapshot file, the file is read in place until the snapshot is closed.
+     * */
+    public static EmployeeSnapshot open(Path path) throws IOException {
+        FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (fileChannel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Employee snapshot is bigger than 2GB");
+            }
+
+            MappedByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+            return new EmployeeSnapshot(fileChannel, buffer.order(ByteOrder.LITTLE_ENDIAN));
+        } catch (IOException | RuntimeException exception) {
+            fileChannel.close();
+            throw exception;
+        }
+    }
+
+    /**
+     * write the employees to new snapshot file, the stream is consumed by this method but not closed. the strings
+     * are written to temporary file next to the snapshot first, so only the dictionaries are kept in the heap.
+     *
+     * @return total written rows.
+     * */
+    public static int write(Path path, Stream<Employee> employees) throws IOException {
+        StringDictionary[] dictionaries = new StringDictionary[DICTIONARY_COLUMNS.length];
+        for (int i = 0; i < dictionaries.length; i++) {
+            dictionaries[i] = new StringDictionary();
+        }
+
+        Path stringsPath = Files.createTempFile(path.toAbsolutePath().getParent(), "employee", ".strings");
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             FileChannel stringsChannel = FileChannel.open(stringsPath, StandardOpenOption.READ,
+                     StandardOpenOption.WRITE)) {
+            ChannelOutput output = new ChannelOutput(fileChannel, HEADER_BYTES);
+            ChannelOutput stringsOutput = new ChannelOutput(stringsChannel, 0);
+            int size = 0;
+
+            Iterator<Employee> employeeIterator = employees.iterator();
+            while (employeeIterator.hasNext()) {
+                Employee employee = employeeIterator.next();
+                output.putInt(stringsOutput.putString(employee.getId()));
+                output.putInt(stringsOutput.putString(employee.getFullName()));
+                output.putInt(dictionaries[0].encode(employee.getJobTitle()));
+                output.putInt(dictionaries[1].encode(employee.getDepartment()));
+                output.putInt(dictionaries[2].encode(employee.getBusinessUnit()));
+                output.putInt(dictionaries[3].encode(employee.getEthnicity()));
+                output.putInt(dictionaries[4].encode(employee.getBonus()));
+                output.putInt(dictionaries[5].encode(employee.getCountry()));
+                output.putInt(dictionaries[6].encode(employee.getCity()));
+                output.putInt(employee.getAge());
+                output.putInt(employee.getAnnualSalary());
+                output.putInt(EmployeeDates.toEpochDay(employee.getHireDate()));
+                output.putInt(EmployeeDates.toEpochDay(employee.getExitDate()));
+                output.putByte(employee.getGender() == null ? GENDER_NULL
+                        : employee.getGender() == Gender.MALE ? GENDER_MALE : GENDER_FEMALE);
+                output.putByte((byte) 0);
+                output.putByte((byte) 0);
+                output.putByte((byte) 0);
+                size++;
+            }
+
+            // the dictionaries are small, put their strings at the end of strings section
+            int[][] dictionaryReferences = new int[dictionaries.length][];
+            for (int i = 0; i < dictionaries.length; i++) {
+                dictionaryReferences[i] = new int[dictionaries[i].size()];
+                for (int code = 0; code < dictionaries[i].size(); code++) {
+                    dictionaryReferences[i][code] = stringsOutput.putString(dictionaries[i].decode(code));
+                }
+            }
+            stringsOutput.flush();
+
+            long stringsOffset = output.position();
+            output.flush();
+            // the outputs write at absolute position, so both channels are still at position 0
+            for (long transferred = 0; transferred < stringsChannel.size(); ) {
+                transferred += fileChannel.transferFrom(stringsChannel, stringsOffset + transferred,
+                        stringsChannel.size() - transferred);
+            }
+
+            output = new ChannelOutput(fileChannel, stringsOffset + stringsChannel.size());
+            long dictionaryOffset = output.position();
+            for (int[] references : dictionaryReferences) {
+                output.putInt(references.length);
+                for (int reference : references) {
+                    output.putInt(reference);
+                }
+            }
+            output.flush();
+            if (output.position() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Employee snapshot is bigger than 2GB");
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(size)
+                    .putInt(0)
+                    .putLong(stringsOffset)
+                    .putLong(dictionaryOffset)
+                    .flip();
+            fileChannel.write(header, 0);
+            return size;
+        } finally {
+            Files.deleteIfExists(stringsPath);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return new flyweight at the first row, move it with {@link Row#moveTo(int)}. every thread needs its own row.
+     * */
+    public Row row() {
+        return new Row();
+    }
+
+    /**
+     * @return stream of new employee for every row, it creates objects per row so use it for import or export, not
+     * for scanning.
+     * */
+    public Stream<Employee> stream() {
+        return IntStream.range(0, size).mapToObj(index -> new Row().moveTo(index).toEmployee());
+    }
+
+    /**
+     * @return total distinct values of the dictionary column, the codes are 0 until this size (exclusive).
+     * */
+    public int dictionarySize(EmployeeColumn column) {
+        return dictionaries[dictionaryIndex(column)].length;
+    }
+
+    /**
+     * @return string of the dictionary code from {@link Row#getCode(EmployeeColumn)}.
+     * */
+    public String decode(EmployeeColumn column, int code) {
+        return code == StringDictionary.NULL_CODE ? null : dictionaries[dictionaryIndex(column)][code];
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileChannel.close();
+    }
+
+    private String readString(int reference) {
+        if (reference == NULL_REFERENCE) {
+            return null;
+        }
+
+        int offset = stringsOffset + reference;
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        buffer.get(offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int dictionaryIndex(EmployeeColumn column) {
+        int dictionaryIndex = DICTIONARY_INDEXES[column.ordinal()];
+        if (dictionaryIndex < 0) {
+            throw new IllegalArgumentException("Column " + column + " isn't dictionary column");
+        }
+
+        return dictionaryIndex;
+    }
+
+    /**
+     * Flyweight accessor of one row, the values are read from the mapped file when they are asked. only id and full
+     * name create new string, dictionary column return the shared string.
+     * */
+    public class Row {
+        private int offset = HEADER_BYTES;
+        private int index;
+
+        public Row moveTo(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Row " + index + " is out of bounds for size " + size);
+            }
+
+            this.index = index;
+            this.offset = HEADER_BYTES + index * ROW_BYTES;
+            return this;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getId() {
+            return readString(buffer.getInt(offset + ID_OFFSET));
+        }
+
+        public String getFullName() {
+            return readString(buffer.getInt(offset + FULL_NAME_OFFSET));
+        }
+
+        /**
+         * @return value of id, full name or dictionary column.
+         * */
+        public String getString(EmployeeColumn column) {
+            return switch (column) {
+                case ID -> getId();
+                case FULL_NAME -> getFullName();
+                default -> decode(dictionaryIndex(column));
+            };
+        }
+
+        /**
+         * @return dictionary code of the column, the same value has the same code in the whole snapshot so it can be
+         * compared without decoding the string. -1 for null.
+         * */
+        public int getCode(EmployeeColumn column) {
+            return buffer.getInt(offset + CODES_OFFSET + 4 * dictionaryIndex(column));
+        }
+
+        public int getAge() {
+            return buffer.getInt(offset + AGE_OFFSET);
+        }
+
+        public int getAnnualSalary() {
+            return buffer.getInt(offset + ANNUAL_SALARY_OFFSET);
+        }
+
+        public Gender getGender() {
+            return switch (buffer.get(offset + GENDER_OFFSET)) {
+                case GENDER_MALE -> Gender.MALE;
+                case GENDER_FEMALE -> Gender.FEMALE;
+                default -> null;
+            };
+        }
+
+        /**
+         * @return hire date as epoch day, {@link Integer#MIN_VALUE} if it's null.
+         * */
+        int getHireEpochDay() {
+            return buffer.getInt(offset + HIRE_DATE_OFFSET);
+        }
+
+        public LocalDate getHireDate() {
+            return EmployeeDates.toLocalDate(buffer.getInt(offset + HIRE_DATE_OFFSET));
+        }
+
+        public LocalDate getExitDate() {
+            return EmployeeDates.toLocalDate(buffer.getInt(offset + EXIT_DATE_OFFSET));
+        }
+
+        /**
+         * @return new employee with the values of this row, the dates are formatted as yyyy-MM-dd.
+         * */
+        public Employee toEmployee() {
+            Employee employee = new Employee();
+            employee.setId(getId());
+            employee.setFullName(getFullName());
+            employee.setJobTitle(decode(0));
+            employee.setDepartment(decode(1));
+            employee.setBusinessUnit(decode(2));
+            employee.setGender(getGender());
+            employee.setEthnicity(decode(3));
+            employee.setAge(getAge());
+            employee.setHireDate(EmployeeDates.format(buffer.getInt(offset + HIRE_DATE_OFFSET)));
+            employee.setAnnualSalary(getAnnualSalary());
+            employee.setBonus(decode(4));
+            employee.setCountry(decode(5));
+            employee.setCity(decode(6));
+            employee.setExitDate(EmployeeDates.format(buffer.getInt(offset + EXIT_DATE_OFFSET)));
+
+            return employee;
+        }
+
+        private String decode(int dictionaryIndex) {
+            int code = buffer.getInt(offset + CODES_OFFSET + 4 * dictionaryIndex);
+            return code == StringDictionary.NULL_CODE ? null : dictionaries[dictionaryIndex][code];
+        }
+    }
+
+    /**
+     * buffered writer of little endian values to the channel from the position.
+     * */
+    private static final class ChannelOutput {
+        private final FileChannel fileChannel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        private ChannelOutput(FileChannel fileChannel, long position) {
+            this.fileChannel = fileChannel;
+            this.position = position;
+        }
+
+        private long position() {
+            return position + buffer.position();
+        }
+
+        private void putInt(int value) throws IOException {
+            ensureRemaining(4);
+            buffer.putInt(value);
+        }
+
+        private void putByte(byte value) throws IOException {
+            ensureRemaining(1);
+            buffer.put(value);
+        }
+
+        /**
+         * @return reference (position) of the string, {@value #NULL_REFERENCE} for null.
+         * */
+        private int putString(String value) throws IOException {
+            if (value == null) {
+                return NULL_REFERENCE;
+            }
+
+            long reference = position();
+            if (reference > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Employee snapshot is bigger than 2GB");
+            }
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            for (int written = 0; written < bytes.length; ) {
+                ensureRemaining(1);
+                int length = Math.min(buffer.remaining(), bytes.length - written);
+                buffer.put(bytes, written, length);
+                written += length;
+            }
+
+            return (int) reference;
+        }
+
+        private void ensureRemaining(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += fileChannel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+    }
+}
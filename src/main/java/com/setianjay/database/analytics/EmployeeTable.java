@@ -0,0 +1,387 @@
+package com.setianjay.database.analytics;
+
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.EmployeeColumn;
+import com.setianjay.database.enums.Gender;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IntSummaryStatistics;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+
+/**
+ * Column oriented {@link Employee} table for analytics, every column is stored in its own array instead of one object
+ * per row:
+ * <br />
+ * 1. id and full name are {@code String[]}, they are (almost) unique per row.
+ * <br />
+ * 2. job title, department, business unit, ethnicity, bonus, country and city are dictionary encoded, one
+ * {@code int[]} code per row and one string per distinct value.
+ * <br />
+ * 3. age and annual salary are {@code int[]}, hire date and exit date are {@code int[]} of epoch day.
+ * <br />
+ * 4. gender is two bit sets (has gender and is female).
+ * <br />
+ * <br />
+ * The table can be filled from anything that produce employees one by one without holding all of them, for example
+ * {@code employeeWorkbook.readDataInSheet(0, employeeTable::add)} or
+ * {@code employeeRepository.streamAll().forEach(employeeTable::add)}. Filter return the selected rows as
+ * {@link BitSet} (they can be combined with {@link BitSet#and(BitSet)}), then the selected rows are aggregated with
+ * {@link #summarizeBy(EmployeeColumn, EmployeeColumn, BitSet)}.
+ * <br />
+ * <br />
+ * Note: this class is not thread safe while it's filled, after that it can be read from many threads.
+ * */
+public class EmployeeTable {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final EmployeeColumn[] DICTIONARY_COLUMNS = {EmployeeColumn.JOB_TITLE, EmployeeColumn.DEPARTMENT,
+            EmployeeColumn.BUSINESS_UNIT, EmployeeColumn.ETHNICITY, EmployeeColumn.BONUS, EmployeeColumn.COUNTRY,
+            EmployeeColumn.CITY};
+
+    private int size;
+    private String[] ids;
+    private String[] fullNames;
+    /* indexed by ordinal of the column, only dictionary columns are not null */
+    private final StringDictionary[] dictionaries = new StringDictionary[EmployeeColumn.values().length];
+    private final int[][] codes = new int[EmployeeColumn.values().length][];
+    private int[] ages;
+    private int[] annualSalaries;
+    private int[] hireDates;
+    private int[] exitDates;
+    private final BitSet hasGender = new BitSet();
+    private final BitSet isFemale = new BitSet();
+
+    public EmployeeTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public EmployeeTable(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        ids = new String[capacity];
+        fullNames = new String[capacity];
+        for (EmployeeColumn column : DICTIONARY_COLUMNS) {
+            dictionaries[column.ordinal()] = new StringDictionary();
+            codes[column.ordinal()] = new int[capacity];
+        }
+        ages = new int[capacity];
+        annualSalaries = new int[capacity];
+        hireDates = new int[capacity];
+        exitDates = new int[capacity];
+    }
+
+    /**
+     * fill new table from the stream, the stream is consumed by this method but not closed.
+     * */
+    public static EmployeeTable from(Stream<Employee> employees) {
+        EmployeeTable employeeTable = new EmployeeTable();
+        Iterator<Employee> employeeIterator = employees.iterator();
+        while (employeeIterator.hasNext()) {
+            employeeTable.add(employeeIterator.next());
+        }
+
+        return employeeTable;
+    }
+
+    /**
+     * add the employee as the last row, the employee isn't kept by the table.
+     *
+     * @throws DateTimeParseException if hire date or exit date isn't yyyy-MM-dd or M/d/yyyy.
+     * */
+    public void add(Employee employee) {
+        if (size == ids.length) {
+            grow();
+        }
+
+        int row = size;
+        ids[row] = employee.getId();
+        fullNames[row] = employee.getFullName();
+        codes[EmployeeColumn.JOB_TITLE.ordinal()][row] = encode(EmployeeColumn.JOB_TITLE, employee.getJobTitle());
+        codes[EmployeeColumn.DEPARTMENT.ordinal()][row] = encode(EmployeeColumn.DEPARTMENT,
+                employee.getDepartment());
+        codes[EmployeeColumn.BUSINESS_UNIT.ordinal()][row] = encode(EmployeeColumn.BUSINESS_UNIT,
+                employee.getBusinessUnit());
+        codes[EmployeeColumn.ETHNICITY.ordinal()][row] = encode(EmployeeColumn.ETHNICITY, employee.getEthnicity());
+        codes[EmployeeColumn.BONUS.ordinal()][row] = encode(EmployeeColumn.BONUS, employee.getBonus());
+        codes[EmployeeColumn.COUNTRY.ordinal()][row] = encode(EmployeeColumn.COUNTRY, employee.getCountry());
+        codes[EmployeeColumn.CITY.ordinal()][row] = encode(EmployeeColumn.CITY, employee.getCity());
+        ages[row] = employee.getAge();
+        annualSalaries[row] = employee.getAnnualSalary();
+        hireDates[row] = EmployeeDates.toEpochDay(employee.getHireDate());
+        exitDates[row] = EmployeeDates.toEpochDay(employee.getExitDate());
+        if (employee.getGender() != null) {
+            hasGender.set(row);
+            isFemale.set(row, employee.getGender() == Gender.FEMALE);
+        }
+
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return new employee with the values of the row, the dates are formatted as yyyy-MM-dd.
+     * */
+    public Employee getEmployee(int row) {
+        checkRow(row);
+
+        Employee employee = new Employee();
+        employee.setId(ids[row]);
+        employee.setFullName(fullNames[row]);
+        employee.setJobTitle(getString(EmployeeColumn.JOB_TITLE, row));
+        employee.setDepartment(getString(EmployeeColumn.DEPARTMENT, row));
+        employee.setBusinessUnit(getString(EmployeeColumn.BUSINESS_UNIT, row));
+        employee.setGender(getGender(row));
+        employee.setEthnicity(getString(EmployeeColumn.ETHNICITY, row));
+        employee.setAge(ages[row]);
+        employee.setHireDate(EmployeeDates.format(hireDates[row]));
+        employee.setAnnualSalary(annualSalaries[row]);
+        employee.setBonus(getString(EmployeeColumn.BONUS, row));
+        employee.setCountry(getString(EmployeeColumn.COUNTRY, row));
+        employee.setCity(getString(EmployeeColumn.CITY, row));
+        employee.setExitDate(EmployeeDates.format(exitDates[row]));
+
+        return employee;
+    }
+
+    /**
+     * @return value of id, full name or dictionary column.
+     * */
+    public String getString(EmployeeColumn column, int row) {
+        checkRow(row);
+        return switch (column) {
+            case ID -> ids[row];
+            case FULL_NAME -> fullNames[row];
+            default -> dictionary(column).decode(codes[column.ordinal()][row]);
+        };
+    }
+
+    /**
+     * @return dictionary code of the column, the same value has the same code in the whole table so it can be
+     * compared without decoding the string. -1 for null.
+     * */
+    public int getCode(EmployeeColumn column, int row) {
+        checkRow(row);
+        return codes[dictionaryIndex(column)][row];
+    }
+
+    /**
+     * @return total distinct values of the dictionary column, the codes are 0 until this size (exclusive).
+     * */
+    public int dictionarySize(EmployeeColumn column) {
+        return dictionary(column).size();
+    }
+
+    /**
+     * @return string of the dictionary code from {@link #getCode(EmployeeColumn, int)}.
+     * */
+    public String decode(EmployeeColumn column, int code) {
+        return dictionary(column).decode(code);
+    }
+
+    public int getAge(int row) {
+        checkRow(row);
+        return ages[row];
+    }
+
+    public int getAnnualSalary(int row) {
+        checkRow(row);
+        return annualSalaries[row];
+    }
+
+    public Gender getGender(int row) {
+        checkRow(row);
+        if (!hasGender.get(row)) {
+            return null;
+        }
+
+        return isFemale.get(row) ? Gender.FEMALE : Gender.MALE;
+    }
+
+    public LocalDate getHireDate(int row) {
+        checkRow(row);
+        return EmployeeDates.toLocalDate(hireDates[row]);
+    }
+
+    /**
+     * @return hire date as epoch day, {@link Integer#MIN_VALUE} if it's null.
+     * */
+    int getHireEpochDay(int row) {
+        return hireDates[row];
+    }
+
+    public LocalDate getExitDate(int row) {
+        checkRow(row);
+        return EmployeeDates.toLocalDate(exitDates[row]);
+    }
+
+    /**
+     * @return every row of the table.
+     * */
+    public BitSet all() {
+        BitSet rows = new BitSet(size);
+        rows.set(0, size);
+        return rows;
+    }
+
+    /**
+     * @return rows where the dictionary column is equal to the value, the value is looked up in the dictionary once
+     * then only the int codes are compared.
+     * */
+    public BitSet whereEquals(EmployeeColumn column, String value) {
+        int code = dictionary(column).codeOf(value);
+        BitSet rows = new BitSet(size);
+        if (code == StringDictionary.MISSING_CODE) {
+            return rows;
+        }
+
+        int[] columnCodes = codes[column.ordinal()];
+        for (int row = 0; row < size; row++) {
+            if (columnCodes[row] == code) {
+                rows.set(row);
+            }
+        }
+
+        return rows;
+    }
+
+    public BitSet whereGender(Gender gender) {
+        BitSet rows = (BitSet) hasGender.clone();
+        if (gender == Gender.FEMALE) {
+            rows.and(isFemale);
+        } else {
+            rows.andNot(isFemale);
+        }
+
+        return rows;
+    }
+
+    /**
+     * @return rows that match the predicate, the predicate receive the row index, for example
+     * {@code table.where(row -> table.getAge(row) >= 40)}.
+     * */
+    public BitSet where(IntPredicate rowPredicate) {
+        BitSet rows = new BitSet(size);
+        for (int row = 0; row < size; row++) {
+            if (rowPredicate.test(row)) {
+                rows.set(row);
+            }
+        }
+
+        return rows;
+    }
+
+    /**
+     * @see #summarizeBy(EmployeeColumn, EmployeeColumn, BitSet)
+     * */
+    public Map<String, IntSummaryStatistics> summarizeBy(EmployeeColumn groupColumn, EmployeeColumn valueColumn) {
+        return summarizeBy(groupColumn, valueColumn, null);
+    }
+
+    /**
+     * group the rows by dictionary column and summarize age or annual salary of every group, for example average
+     * annual salary by department is {@code summarizeBy(DEPARTMENT, ANNUAL_SALARY).get("IT").getAverage()}.
+     *
+     * @param rows selected rows, null for every row.
+     * @return statistics of every group (null value is a group too) in the order the value is first added.
+     * */
+    public Map<String, IntSummaryStatistics> summarizeBy(EmployeeColumn groupColumn, EmployeeColumn valueColumn,
+                                                         BitSet rows) {
+        StringDictionary dictionary = dictionary(groupColumn);
+        int[] groupCodes = codes[groupColumn.ordinal()];
+        int[] values = values(valueColumn);
+
+        // group 0 is null, group n is code n - 1
+        int groupCount = dictionary.size() + 1;
+        long[] sums = new long[groupCount];
+        long[] counts = new long[groupCount];
+        int[] minimums = new int[groupCount];
+        int[] maximums = new int[groupCount];
+        Arrays.fill(minimums, Integer.MAX_VALUE);
+        Arrays.fill(maximums, Integer.MIN_VALUE);
+
+        int row = rows == null ? 0 : rows.nextSetBit(0);
+        while (row >= 0 && row < size) {
+            int group = groupCodes[row] + 1;
+            int value = values[row];
+            sums[group] += value;
+            counts[group]++;
+            minimums[group] = Math.min(minimums[group], value);
+            maximums[group] = Math.max(maximums[group], value);
+
+            row = rows == null ? row + 1 : rows.nextSetBit(row + 1);
+        }
+
+        Map<String, IntSummaryStatistics> statistics = new LinkedHashMap<>();
+        for (int group = 0; group < groupCount; group++) {
+            if (counts[group] > 0) {
+                statistics.put(dictionary.decode(group - 1), new IntSummaryStatistics(counts[group],
+                        minimums[group], maximums[group], sums[group]));
+            }
+        }
+
+        return statistics;
+    }
+
+    private int encode(EmployeeColumn column, String value) {
+        return dictionaries[column.ordinal()].encode(value);
+    }
+
+    /**
+     * @return the column array of age or annual salary, it's longer than the size of the table.
+     * */
+    int[] values(EmployeeColumn valueColumn) {
+        return switch (valueColumn) {
+            case AGE -> ages;
+            case ANNUAL_SALARY -> annualSalaries;
+            default -> throw new IllegalArgumentException("Column " + valueColumn + " can't be summarized");
+        };
+    }
+
+    /**
+     * @return the code array of dictionary column, it's longer than the size of the table.
+     * */
+    int[] codes(EmployeeColumn column) {
+        return codes[dictionaryIndex(column)];
+    }
+
+    private int dictionaryIndex(EmployeeColumn column) {
+        dictionary(column);
+        return column.ordinal();
+    }
+
+    private StringDictionary dictionary(EmployeeColumn column) {
+        StringDictionary dictionary = dictionaries[column.ordinal()];
+        if (dictionary == null) {
+            throw new IllegalArgumentException("Column " + column + " isn't dictionary column");
+        }
+
+        return dictionary;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " is out of bounds for size " + size);
+        }
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        fullNames = Arrays.copyOf(fullNames, capacity);
+        for (EmployeeColumn column : DICTIONARY_COLUMNS) {
+            codes[column.ordinal()] = Arrays.copyOf(codes[column.ordinal()], capacity);
+        }
+        ages = Arrays.copyOf(ages, capacity);
+        annualSalaries = Arrays.copyOf(annualSalaries, capacity);
+        hireDates = Arrays.copyOf(hireDates, capacity);
+        exitDates = Arrays.copyOf(exitDates, capacity);
+    }
+}
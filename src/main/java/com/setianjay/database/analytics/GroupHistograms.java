@@ -0,0 +1,57 @@
+package com.setianjay.database.analytics;
+
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Partial {@link IntHistogram} for every group, the histogram of a group is created by its first row.
+ * <br />
+ * <br />
+ * Note: this class is not thread safe.
+ * */
+final class GroupHistograms implements GroupPartial<GroupHistograms> {
+    private final IntHistogram[] histograms;
+    private final int bucketWidth;
+
+    GroupHistograms(int groupCount, int bucketWidth) {
+        this.histograms = new IntHistogram[groupCount];
+        this.bucketWidth = bucketWidth;
+    }
+
+    @Override
+    public void accept(int group, int value) {
+        if (histograms[group] == null) {
+            histograms[group] = new IntHistogram(bucketWidth);
+        }
+        histograms[group].accept(value);
+    }
+
+    @Override
+    public GroupHistograms merge(GroupHistograms other) {
+        for (int group = 0; group < histograms.length; group++) {
+            if (other.histograms[group] == null) {
+                continue;
+            }
+
+            if (histograms[group] == null) {
+                // the other partial isn't used after it's merged, so its histogram can be taken
+                histograms[group] = other.histograms[group];
+            } else {
+                histograms[group].combine(other.histograms[group]);
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * put the histogram of every group that has at least one row to the map.
+     * */
+    void putTo(Map<String, IntHistogram> histogramMap, IntFunction<String> groupName) {
+        for (int group = 0; group < histograms.length; group++) {
+            if (histograms[group] != null) {
+                histogramMap.put(groupName.apply(group), histograms[group]);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.setianjay.database.analytics;
+
+/**
+ * partial result of int value for every group, the group is index 0 until group count (exclusive). every thread
+ * aggregate the rows of its range to its own partial, then the partials are merged.
+ * */
+interface GroupPartial<P extends GroupPartial<P>> {
+
+    void accept(int group, int value);
+
+    /**
+     * add other partial to this partial.
+     * @return this partial.
+     * */
+    P merge(P other);
+}
@@ -0,0 +1,65 @@
+package com.setianjay.database.analytics;
+
+import java.util.Arrays;
+import java.util.IntSummaryStatistics;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Partial count, sum, min and max of int value for every group, the group is index 0 until group count (exclusive)
+ * so no object is created per row. every thread aggregate its own partial statistics, then they are merged.
+ * <br />
+ * <br />
+ * Note: this class is not thread safe.
+ * */
+final class GroupStatistics implements GroupPartial<GroupStatistics> {
+    private final long[] counts;
+    private final long[] sums;
+    private final int[] minimums;
+    private final int[] maximums;
+
+    GroupStatistics(int groupCount) {
+        counts = new long[groupCount];
+        sums = new long[groupCount];
+        minimums = new int[groupCount];
+        maximums = new int[groupCount];
+        Arrays.fill(minimums, Integer.MAX_VALUE);
+        Arrays.fill(maximums, Integer.MIN_VALUE);
+    }
+
+    @Override
+    public void accept(int group, int value) {
+        counts[group]++;
+        sums[group] += value;
+        if (value < minimums[group]) {
+            minimums[group] = value;
+        }
+        if (value > maximums[group]) {
+            maximums[group] = value;
+        }
+    }
+
+    @Override
+    public GroupStatistics merge(GroupStatistics other) {
+        for (int group = 0; group < counts.length; group++) {
+            counts[group] += other.counts[group];
+            sums[group] += other.sums[group];
+            minimums[group] = Math.min(minimums[group], other.minimums[group]);
+            maximums[group] = Math.max(maximums[group], other.maximums[group]);
+        }
+
+        return this;
+    }
+
+    /**
+     * put the statistics of every group that has at least one row to the map.
+     * */
+    void putTo(Map<String, IntSummaryStatistics> statistics, IntFunction<String> groupName) {
+        for (int group = 0; group < counts.length; group++) {
+            if (counts[group] > 0) {
+                statistics.put(groupName.apply(group), new IntSummaryStatistics(counts[group], minimums[group],
+                        maximums[group], sums[group]));
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.setianjay.database.analytics;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Count of int values in buckets of the same width, bucket n contains the values from n * width (inclusive) until
+ * (n + 1) * width (exclusive). like {@link java.util.IntSummaryStatistics} it accepts the values one by one and the
+ * histograms of the same width can be combined, so every thread can fill its own histogram.
+ * <br />
+ * <br />
+ * The buckets are stored in one array from the lowest until the highest bucket, so the width should keep the range of
+ * the values in a reasonable number of buckets (for example 10_000 for annual salary, 5 for age).
+ * <br />
+ * <br />
+ * Note: this class is not thread safe.
+ * */
+public final class IntHistogram {
+    private final int bucketWidth;
+    private final int minimumBucket;
+    private final int maximumBucket;
+
+    /* count of bucket firstBucket + index */
+    private long[] counts = new long[0];
+    private int firstBucket;
+    private long count;
+
+    public IntHistogram(int bucketWidth) {
+        if (bucketWidth < 1) {
+            throw new IllegalArgumentException("Bucket width must be at least 1");
+        }
+
+        this.bucketWidth = bucketWidth;
+        this.minimumBucket = bucketOf(Integer.MIN_VALUE);
+        this.maximumBucket = bucketOf(Integer.MAX_VALUE);
+    }
+
+    public void accept(int value) {
+        // the counts can be replaced when it grows, so the index is found before the counts is read
+        int index = indexOf(bucketOf(value));
+        counts[index]++;
+        count++;
+    }
+
+    /**
+     * add the counts of other histogram to this histogram.
+     * @throws IllegalArgumentException if the other histogram has different bucket width.
+     * */
+    public void combine(IntHistogram other) {
+        if (other.bucketWidth != bucketWidth) {
+            throw new IllegalArgumentException("Can't combine histogram of bucket width " + other.bucketWidth +
+                    " with bucket width " + bucketWidth);
+        }
+
+        for (int otherIndex = other.counts.length - 1; otherIndex >= 0; otherIndex--) {
+            if (other.counts[otherIndex] > 0) {
+                int index = indexOf(other.firstBucket + otherIndex);
+                counts[index] += other.counts[otherIndex];
+            }
+        }
+        count += other.count;
+    }
+
+    public int getBucketWidth() {
+        return bucketWidth;
+    }
+
+    /**
+     * @return count of every value.
+     * */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return count of the bucket that contains the value.
+     * */
+    public long getCount(int value) {
+        int index = bucketOf(value) - firstBucket;
+        return index >= 0 && index < counts.length ? counts[index] : 0;
+    }
+
+    /**
+     * @return count of every bucket that has at least one value by the lowest value of the bucket, sorted from the
+     * lowest bucket.
+     * */
+    public Map<Integer, Long> getBuckets() {
+        Map<Integer, Long> buckets = new TreeMap<>();
+        for (int index = 0; index < counts.length; index++) {
+            if (counts[index] > 0) {
+                // the lowest bucket can start below Integer.MIN_VALUE
+                long lowestValue = Math.max((long) (firstBucket + index) * bucketWidth, Integer.MIN_VALUE);
+                buckets.put((int) lowestValue, counts[index]);
+            }
+        }
+
+        return buckets;
+    }
+
+    private int bucketOf(int value) {
+        return Math.floorDiv(value, bucketWidth);
+    }
+
+    /**
+     * @return index of the bucket in the counts, the counts grow at least twice when the bucket is outside of it.
+     * */
+    private int indexOf(int bucket) {
+        if (counts.length == 0) {
+            counts = new long[1];
+            firstBucket = bucket;
+        } else if (bucket < firstBucket) {
+            long lastBucket = (long) firstBucket + counts.length - 1;
+            int newFirstBucket = (int) Math.max(Math.min(bucket, lastBucket - 2L * counts.length + 1), minimumBucket);
+            long[] newCounts = new long[Math.toIntExact(lastBucket - newFirstBucket + 1)];
+            System.arraycopy(counts, 0, newCounts, firstBucket - newFirstBucket, counts.length);
+            counts = newCounts;
+            firstBucket = newFirstBucket;
+        } else if ((long) bucket - firstBucket >= counts.length) {
+            long newLastBucket = Math.min(Math.max(bucket, (long) firstBucket + 2L * counts.length - 1),
+                    maximumBucket);
+            counts = Arrays.copyOf(counts, Math.toIntExact(newLastBucket - firstBucket + 1));
+        }
+
+        return bucket - firstBucket;
+    }
+
+    @Override
+    public String toString() {
+        return "IntHistogram{" +
+                "bucketWidth=" + bucketWidth +
+                ", count=" + count +
+                ", buckets=" + getBuckets() +
+                '}';
+    }
+}
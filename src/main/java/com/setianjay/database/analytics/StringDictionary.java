@@ -0,0 +1,53 @@
+package com.setianjay.database.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary that encode every distinct string to small int code (0, 1, 2, ... in the order the string is first
+ * added), so the column store one int per row and one string per distinct value. null is encoded as
+ * {@value #NULL_CODE}.
+ * <br />
+ * <br />
+ * Note: this class is not thread safe.
+ * */
+final class StringDictionary {
+    static final int NULL_CODE = -1;
+    /* code of the string that isn't in the dictionary, no row has this code */
+    static final int MISSING_CODE = -2;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+
+        return code;
+    }
+
+    /**
+     * @return code of the string without adding it, {@value #MISSING_CODE} if it isn't in the dictionary.
+     * */
+    int codeOf(String value) {
+        return value == null ? NULL_CODE : codes.getOrDefault(value, MISSING_CODE);
+    }
+
+    String decode(int code) {
+        return code == NULL_CODE ? null : values.get(code);
+    }
+
+    int size() {
+        return values.size();
+    }
+}
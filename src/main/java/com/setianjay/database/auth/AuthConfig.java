@@ -0,0 +1,30 @@
+package com.setianjay.database.auth;
+
+import java.time.Duration;
+
+/**
+ * configuration for {@link AuthService}.
+ *
+ * @param maxFailedAttempts maximum failed login in a row before the username is locked.
+ * @param lockoutDuration   how long the username is locked, login is rejected without reading the database.
+ * @param verifiedCacheSize maximum users that are remembered after successful login.
+ * @param verifiedCacheTtl  how long successful login is remembered, the next login in this time with the same
+ *                          password doesn't read the database and doesn't compute PBKDF2 again.
+ * */
+public record AuthConfig(int maxFailedAttempts, Duration lockoutDuration, int verifiedCacheSize,
+                         Duration verifiedCacheTtl) {
+
+    public AuthConfig {
+        if (maxFailedAttempts < 1 || verifiedCacheSize < 0) {
+            throw new IllegalArgumentException("Max failed attempts must be at least 1 and cache size can't be " +
+                    "negative");
+        }
+        if (lockoutDuration == null || verifiedCacheTtl == null) {
+            throw new IllegalArgumentException("Lockout duration and verified cache ttl must not be null");
+        }
+    }
+
+    public static AuthConfig defaultConfig() {
+        return new AuthConfig(5, Duration.ofMinutes(15), 1_000, Duration.ofMinutes(5));
+    }
+}
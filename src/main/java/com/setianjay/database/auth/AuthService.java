@@ -0,0 +1,172 @@
+package com.setianjay.database.auth;
+
+import com.setianjay.database.entity.User;
+import com.setianjay.database.enums.LoginStatus;
+import com.setianjay.database.repository.UserRepository;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Login {@link User} by reading the user with its username only, then verify the password hash of
+ * {@link PasswordHasher} in the application instead of comparing the password in the query.
+ * <br />
+ * <br />
+ * To keep login storm away from the connection pool:
+ * <br />
+ * 1. username that failed to login several times in a row is locked for a while, login to locked username is
+ * rejected without reading the database.
+ * <br />
+ * 2. successful login is remembered for a while with HMAC of the password (the key is random for every instance), so
+ * the next login with the same password doesn't read the database and doesn't compute PBKDF2 again.
+ * */
+public class AuthService {
+    /* maximum usernames with failed login that are tracked, the unlocked ones are removed above it */
+    private static final int MAX_TRACKED_USERNAMES = 100_000;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final UserRepository userRepository;
+    private final PasswordHasher passwordHasher;
+    private final AuthConfig authConfig;
+    private final Map<String, FailedAttempts> failedAttempts = new ConcurrentHashMap<>();
+    private final Map<String, VerifiedUser> verifiedUsers;
+    private final SecretKeySpec verifiedKey;
+    /* hash that is verified for unknown username, so the response time doesn't tell whether the username exists */
+    private final String unknownUserHash;
+
+    public AuthService() {
+        this(new UserRepository(), new PasswordHasher(), AuthConfig.defaultConfig());
+    }
+
+    public AuthService(UserRepository userRepository, PasswordHasher passwordHasher, AuthConfig authConfig) {
+        this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.authConfig = authConfig;
+        this.verifiedUsers = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedUser> eldest) {
+                return size() > authConfig.verifiedCacheSize();
+            }
+        });
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.verifiedKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.unknownUserHash = passwordHasher.hash(Long.toHexString(new SecureRandom().nextLong()));
+    }
+
+    /**
+     * save new user with hashed password.
+     * */
+    public User register(String username, String password) throws SQLException {
+        User user = new User(username, passwordHasher.hash(password));
+        userRepository.save(user);
+
+        return user;
+    }
+
+    public LoginStatus login(String username, String password) throws SQLException {
+        long now = System.nanoTime();
+        if (isLocked(username, now)) {
+            return LoginStatus.LOCKED;
+        }
+
+        byte[] passwordDigest = digest(password);
+        VerifiedUser verifiedUser = verifiedUsers.get(username);
+        if (verifiedUser != null && now - verifiedUser.expiresAt() < 0 &&
+                MessageDigest.isEqual(verifiedUser.passwordDigest(), passwordDigest)) {
+            failedAttempts.remove(username);
+            return LoginStatus.SUCCESS;
+        }
+
+        Optional<User> user = userRepository.findById(username);
+        boolean isVerified = passwordHasher.verify(password, user.map(User::password).orElse(unknownUserHash));
+
+        if (isVerified && user.isPresent()) {
+            failedAttempts.remove(username);
+            if (authConfig.verifiedCacheSize() > 0) {
+                verifiedUsers.put(username, new VerifiedUser(passwordDigest,
+                        now + authConfig.verifiedCacheTtl().toNanos()));
+            }
+            return LoginStatus.SUCCESS;
+        }
+
+        verifiedUsers.remove(username);
+        recordFailedAttempt(username, now);
+        return LoginStatus.INVALID_CREDENTIALS;
+    }
+
+    /**
+     * save new password of the user, the remembered login of the user is forgotten.
+     * */
+    public int changePassword(String username, String newPassword) throws SQLException {
+        int rowAffected = userRepository.updatePassword(username, passwordHasher.hash(newPassword));
+        verifiedUsers.remove(username);
+
+        return rowAffected;
+    }
+
+    public void unlock(String username) {
+        failedAttempts.remove(username);
+    }
+
+    private boolean isLocked(String username, long now) {
+        FailedAttempts attempts = failedAttempts.get(username);
+        if (attempts == null || attempts.lockedUntil() == 0) {
+            return false;
+        }
+
+        if (now - attempts.lockedUntil() < 0) {
+            return true;
+        }
+
+        // the lock is over, start counting from zero again
+        failedAttempts.remove(username, attempts);
+        return false;
+    }
+
+    private void recordFailedAttempt(String username, long now) {
+        if (failedAttempts.size() >= MAX_TRACKED_USERNAMES) {
+            failedAttempts.values().removeIf(attempts -> attempts.lockedUntil() == 0 ||
+                    now - attempts.lockedUntil() >= 0);
+        }
+
+        failedAttempts.compute(username, (key, attempts) -> {
+            int count = attempts == null ? 1 : attempts.count() + 1;
+            long lockedUntil = count >= authConfig.maxFailedAttempts()
+                    ? now + authConfig.lockoutDuration().toNanos() : 0;
+
+            return new FailedAttempts(count, lockedUntil);
+        });
+    }
+
+    private byte[] digest(String password) {
+        try {
+            // Mac isn't thread safe, so create new one for every login
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(verifiedKey);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException exception) {
+            throw new IllegalStateException("HMAC SHA-256 isn't supported by this JVM", exception);
+        }
+    }
+
+    /**
+     * @param lockedUntil time (System.nanoTime) until the username is locked, 0 if it isn't locked.
+     * */
+    private record FailedAttempts(int count, long lockedUntil) {
+    }
+
+    private record VerifiedUser(byte[] passwordDigest, long expiresAt) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.setianjay.database.auth;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Hash password with PBKDF2 (HMAC SHA-256) and random salt. the hash is stored as one string
+ * "pbkdf2-sha256$iterations$salt$hash" (salt and hash in base64), so the iterations can be raised later without
+ * breaking the stored hash.
+ * */
+public class PasswordHasher {
+    public static final int DEFAULT_ITERATIONS = 310_000;
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+
+    private final int iterations;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public PasswordHasher() {
+        this(DEFAULT_ITERATIONS);
+    }
+
+    public PasswordHasher(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Iterations must be at least 1");
+        }
+
+        this.iterations = iterations;
+    }
+
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_LENGTH];
+        secureRandom.nextBytes(salt);
+
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" +
+                encoder.encodeToString(pbkdf2(password, salt, iterations));
+    }
+
+    /**
+     * @return true if the password match the stored hash, false if it doesn't match or the hash isn't created by
+     * this class.
+     * */
+    public boolean verify(String password, String storedHash) {
+        if (storedHash == null) {
+            return false;
+        }
+
+        String[] parts = storedHash.split("\\$");
+        if (parts.length != 4 || !parts[0].equals(PREFIX)) {
+            return false;
+        }
+
+        try {
+            int hashIterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expectedHash = Base64.getDecoder().decode(parts[3]);
+
+            // compare in constant time, so the time doesn't tell how many bytes are matched
+            return MessageDigest.isEqual(expectedHash, pbkdf2(password, salt, hashIterations));
+        } catch (IllegalArgumentException exception) {
+            return false;
+        }
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec keySpec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_LENGTH * 8);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(keySpec).getEncoded();
+        } catch (GeneralSecurityException exception) {
+            throw new IllegalStateException("PBKDF2 isn't supported by this JVM", exception);
+        } finally {
+            keySpec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.setianjay.database.batch;
+
+import java.time.Duration;
+
+/**
+ * configuration for {@link AdaptiveBatchController}.
+ *
+ * @param minBatchSize     the batch size never goes below it.
+ * @param maxBatchSize     the batch size never goes above it.
+ * @param initialBatchSize batch size of the first batches.
+ * @param additiveIncrease rows added to the batch size after batch that is fast enough.
+ * @param decreaseFactor   the batch size is multiplied by it after batch that is too slow or failed, between 0 and 1.
+ * @param targetLatency    batch that take longer than it is too slow, for example because of lock contention.
+ * */
+public record AdaptiveBatchConfig(int minBatchSize, int maxBatchSize, int initialBatchSize, int additiveIncrease,
+                                  double decreaseFactor, Duration targetLatency) {
+
+    public AdaptiveBatchConfig {
+        if (minBatchSize < 1 || maxBatchSize < minBatchSize) {
+            throw new IllegalArgumentException("Batch size limits must be 1 <= min <= max");
+        }
+        if (initialBatchSize < minBatchSize || initialBatchSize > maxBatchSize) {
+            throw new IllegalArgumentException("Initial batch size must be between min and max batch size");
+        }
+        if (additiveIncrease < 0 || decreaseFactor <= 0 || decreaseFactor > 1) {
+            throw new IllegalArgumentException("Additive increase must not be negative and decrease factor must " +
+                    "be in (0, 1]");
+        }
+        if (targetLatency == null || targetLatency.isNegative() || targetLatency.isZero()) {
+            throw new IllegalArgumentException("Target latency must be positive");
+        }
+    }
+
+    /**
+     * @return configuration that always use the batch size.
+     * */
+    public static AdaptiveBatchConfig fixed(int batchSize) {
+        return new AdaptiveBatchConfig(batchSize, batchSize, batchSize, 0, 1, Duration.ofDays(1));
+    }
+
+    public static AdaptiveBatchConfig defaultConfig() {
+        return new AdaptiveBatchConfig(100, 10_000, 1_000, 250, 0.5, Duration.ofMillis(500));
+    }
+}
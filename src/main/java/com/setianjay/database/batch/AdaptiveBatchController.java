@@ -0,0 +1,110 @@
+package com.setianjay.database.batch;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Choose the size of the next JDBC batch from the latency and throughput of the executed batches, like AIMD of TCP
+ * congestion control:
+ * <br />
+ * 1. batch that is faster than the target latency and whose throughput isn't much lower than the moving average
+ * increase the batch size by {@link AdaptiveBatchConfig#additiveIncrease()}, so the size slowly grows while bigger
+ * batch is still better.
+ * <br />
+ * 2. batch that is slower than the target latency, whose throughput drop far below the moving average, or that is
+ * failed multiply the batch size by {@link AdaptiveBatchConfig#decreaseFactor()}, so the size quickly shrinks when
+ * the server is busy (for example lock contention).
+ * <br />
+ * <br />
+ * Batch that is much smaller than the current batch size (the rest of data, or batch that is created before the size
+ * is changed) only update the statistics. The controller is shared by every writer of one import, it's thread safe
+ * and locks only once per batch.
+ * */
+public class AdaptiveBatchController {
+    /* weight of the newest batch in the moving average of throughput */
+    private static final double THROUGHPUT_SMOOTHING = 0.3;
+    /* throughput below this fraction of the moving average is a congestion signal */
+    private static final double THROUGHPUT_DROP_RATIO = 0.7;
+
+    private final AdaptiveBatchConfig batchConfig;
+    private final long targetLatencyNanos;
+    private volatile int batchSize;
+    private double rowsPerSecond;
+    private long lastLatencyNanos;
+    private long totalBatches;
+    private long totalRows;
+    private long decreaseCount;
+
+    public AdaptiveBatchController(AdaptiveBatchConfig batchConfig) {
+        this.batchConfig = batchConfig;
+        this.targetLatencyNanos = batchConfig.targetLatency().toNanos();
+        this.batchSize = batchConfig.initialBatchSize();
+    }
+
+    /**
+     * @return controller that always use the batch size, it still measures the batches.
+     * */
+    public static AdaptiveBatchController fixed(int batchSize) {
+        return new AdaptiveBatchController(AdaptiveBatchConfig.fixed(batchSize));
+    }
+
+    /**
+     * @return the batch size for the next batch.
+     * */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return batchConfig.maxBatchSize();
+    }
+
+    /**
+     * record the executed batch and adjust the batch size.
+     *
+     * @param rows         rows in the batch.
+     * @param elapsedNanos time of executeBatch (or the multi row statement).
+     * */
+    public synchronized void recordBatch(int rows, long elapsedNanos) {
+        long latencyNanos = Math.max(elapsedNanos, 1);
+        double batchRowsPerSecond = rows * (double) TimeUnit.SECONDS.toNanos(1) / latencyNanos;
+        double averageRowsPerSecond = rowsPerSecond;
+
+        rowsPerSecond = totalBatches == 0 ? batchRowsPerSecond
+                : averageRowsPerSecond + THROUGHPUT_SMOOTHING * (batchRowsPerSecond - averageRowsPerSecond);
+        lastLatencyNanos = latencyNanos;
+        totalBatches++;
+        totalRows += rows;
+
+        int currentBatchSize = batchSize;
+        if (rows * 2 < currentBatchSize) {
+            return;
+        }
+
+        if (latencyNanos > targetLatencyNanos ||
+                (averageRowsPerSecond > 0 && batchRowsPerSecond < averageRowsPerSecond * THROUGHPUT_DROP_RATIO)) {
+            decrease(currentBatchSize);
+        } else {
+            batchSize = Math.min(batchConfig.maxBatchSize(), currentBatchSize + batchConfig.additiveIncrease());
+        }
+    }
+
+    /**
+     * record the batch that is failed, the batch size is decreased.
+     * */
+    public synchronized void recordFailure() {
+        decrease(batchSize);
+    }
+
+    public synchronized BatchStats getStats() {
+        return new BatchStats(batchSize, rowsPerSecond, lastLatencyNanos, totalBatches, totalRows, decreaseCount);
+    }
+
+    private void decrease(int currentBatchSize) {
+        int newBatchSize = Math.max(batchConfig.minBatchSize(),
+                (int) (currentBatchSize * batchConfig.decreaseFactor()));
+        if (newBatchSize < currentBatchSize) {
+            decreaseCount++;
+        }
+        batchSize = newBatchSize;
+    }
+}
@@ -0,0 +1,13 @@
+package com.setianjay.database.batch;
+
+/**
+ * state of {@link AdaptiveBatchController} at one time.
+ *
+ * @param batchSize        the batch size for the next batch.
+ * @param rowsPerSecond    moving average of the throughput of the latest batches.
+ * @param lastLatencyNanos time of the last batch.
+ * @param decreaseCount    how many times the batch size is decreased because the batch is too slow or failed.
+ * */
+public record BatchStats(int batchSize, double rowsPerSecond, long lastLatencyNanos, long totalBatches,
+                         long totalRows, long decreaseCount) {
+}
@@ -0,0 +1,96 @@
+package com.setianjay.database.batch;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Set of 64 bit fingerprints of the rows that are already stored in a table, so the import can skip the row that
+ * isn't changed without comparing it with the stored row column by column.
+ * <br />
+ * <br />
+ * The fingerprint is computed from the parameters of {@link TableMapping#mapToParameters(Object)} (key columns
+ * included), so the stored row and the imported row must be mapped by the same mapping. The fingerprints are kept in a
+ * sorted long array (8 bytes per row, 1M rows is 8MB) and searched with binary search, the set is immutable so it's
+ * safe to read from many threads.
+ * */
+public final class FingerprintSet {
+    private static final long NULL_HASH = 0x9E3779B97F4A7C15L;
+
+    /* sorted */
+    private final long[] fingerprints;
+
+    private FingerprintSet(long[] fingerprints) {
+        this.fingerprints = fingerprints;
+    }
+
+    /**
+     * read the rows in one pass and keep only their fingerprints, the stream is consumed but not closed.
+     * */
+    public static <T> FingerprintSet of(TableMapping<T> tableMapping, Stream<T> rows) {
+        long[] fingerprints = new long[1024];
+        int size = 0;
+
+        Iterator<T> rowIterator = rows.iterator();
+        while (rowIterator.hasNext()) {
+            if (size == fingerprints.length) {
+                fingerprints = Arrays.copyOf(fingerprints, size * 2);
+            }
+            fingerprints[size++] = fingerprint(tableMapping.mapToParameters(rowIterator.next()));
+        }
+
+        fingerprints = Arrays.copyOf(fingerprints, size);
+        Arrays.sort(fingerprints);
+        return new FingerprintSet(fingerprints);
+    }
+
+    /**
+     * @return true if the row with exactly the same parameters is in this set.
+     * */
+    public boolean contains(Object[] parameters) {
+        return Arrays.binarySearch(fingerprints, fingerprint(parameters)) >= 0;
+    }
+
+    public int size() {
+        return fingerprints.length;
+    }
+
+    /**
+     * @return fingerprint of the row, the parameter is compared with its string value and the position of the
+     * parameter is part of the fingerprint.
+     * */
+    public static long fingerprint(Object[] parameters) {
+        long hash = mix(parameters.length);
+        for (Object parameter : parameters) {
+            long parameterHash = parameter == null ? NULL_HASH : hashString(parameter.toString());
+            hash = mix(Long.rotateLeft(hash, 27) ^ parameterHash);
+        }
+
+        return hash;
+    }
+
+    /**
+     * FNV-1a over the characters, then mixed with the length.
+     * */
+    private static long hashString(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+
+        return mix(hash ^ value.length());
+    }
+
+    /**
+     * finalizer of MurmurHash3, spread every bit of the input to every bit of the output.
+     * */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,47 @@
+package com.setianjay.database.batch;
+
+import com.mysql.cj.jdbc.JdbcStatement;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+
+/**
+ * Load data to a table with MySQL "LOAD DATA LOCAL INFILE". the rows are encoded by {@link TsvInputStream} and given
+ * to the driver with {@link JdbcStatement#setLocalInfileInputStream(java.io.InputStream)}, so no temporary file is
+ * written to disk.
+ * <br />
+ * <br />
+ * Note: the connection must be created with allowLoadLocalInfile=true (see
+ * {@link com.setianjay.database.util.ConnectionUtil#setAllowLoadLocalInfile(boolean)}) and local_infile must be
+ * turned on in the MySQL server.
+ * */
+public class LocalInfileLoader<T> {
+    private final TableMapping<T> tableMapping;
+    private final String queryLoadData;
+
+    public LocalInfileLoader(TableMapping<T> tableMapping) {
+        this.tableMapping = tableMapping;
+        // the file name is ignored by the driver because the input stream is used instead
+        this.queryLoadData = "LOAD DATA LOCAL INFILE 'stream' INTO TABLE " + tableMapping.tableName() +
+                " CHARACTER SET utf8mb4" +
+                " FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\'" +
+                " LINES TERMINATED BY '\\n'" +
+                " (" + String.join(", ", tableMapping.columnNames()) + ")";
+    }
+
+    /**
+     * load all data from the iterator in one statement.
+     *
+     * @return total row affected.
+     * */
+    public long load(Connection connection, Iterator<T> dataIterator) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            TsvInputStream<T> tsvInputStream = new TsvInputStream<>(dataIterator, tableMapping);
+            statement.unwrap(JdbcStatement.class).setLocalInfileInputStream(tsvInputStream);
+
+            return statement.executeLargeUpdate(queryLoadData);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.setianjay.database.batch;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Write data with multi row insert statement like "INSERT INTO table (...) VALUES (...), (...), (...)", so many rows
+ * are sent to the database in one round trip.
+ * <br />
+ * <br />
+ * Rows are buffered until adding the next row would exceed the maximum rows per statement or the maximum statement
+ * size (it must stay under max_allowed_packet of MySQL server), then the buffered rows are flushed as one statement.
+ * <br />
+ * <br />
+ * Note: this class is not thread safe, use one writer per connection.
+ * */
+public class MultiRowInsertWriter<T> implements AutoCloseable {
+    /* maximum placeholders in one prepared statement of MySQL */
+    private static final int MAX_PLACEHOLDERS = 65_535;
+    /* maximum prepared statements (with different total rows) kept open by this writer */
+    private static final int MAX_CACHED_STATEMENTS = 4;
+    /* keep some space in the packet for protocol header */
+    private static final double PACKET_SAFETY_FACTOR = 0.9;
+    private static final long DEFAULT_MAX_ALLOWED_PACKET = 4L * 1024 * 1024;
+
+    private final Connection connection;
+    private final TableMapping<T> tableMapping;
+    private final int maxRowsPerStatement;
+    private final long maxStatementBytes;
+    private final String insertPrefix;
+    private final String valuesRow;
+    /* appended after the values, for example "ON DUPLICATE KEY UPDATE ..." */
+    private final String querySuffix;
+    private final List<Object[]> pendingRows = new ArrayList<>();
+    private final Map<Integer, PreparedStatement> cachedStatements = new LinkedHashMap<>(8, 0.75f, true);
+    private long pendingBytes;
+    private long totalRoundTrip;
+
+    public MultiRowInsertWriter(Connection connection, TableMapping<T> tableMapping, int maxRowsPerStatement,
+                                long maxStatementBytes) {
+        this(connection, tableMapping, maxRowsPerStatement, maxStatementBytes, "");
+    }
+
+    public MultiRowInsertWriter(Connection connection, TableMapping<T> tableMapping, int maxRowsPerStatement,
+                                long maxStatementBytes, String querySuffix) {
+        this.connection = connection;
+        this.tableMapping = tableMapping;
+        this.maxRowsPerStatement = Math.max(1, Math.min(maxRowsPerStatement,
+                MAX_PLACEHOLDERS / tableMapping.columnCount()));
+        this.maxStatementBytes = maxStatementBytes;
+        this.insertPrefix = "INSERT INTO " + tableMapping.tableName() + " (" +
+                String.join(", ", tableMapping.columnNames()) + ") VALUES ";
+        this.valuesRow = "(" + "?, ".repeat(tableMapping.columnCount() - 1) + "?)";
+        this.querySuffix = querySuffix;
+        this.pendingBytes = insertPrefix.length() + querySuffix.length();
+    }
+
+    /**
+     * create writer that sized its statement to stay under max_allowed_packet of the connected server.
+     * */
+    public static <T> MultiRowInsertWriter<T> open(Connection connection, TableMapping<T> tableMapping,
+                                                   int maxRowsPerStatement) throws SQLException {
+        long maxStatementBytes = (long) (getMaxAllowedPacket(connection) * PACKET_SAFETY_FACTOR);
+        return new MultiRowInsertWriter<>(connection, tableMapping, maxRowsPerStatement, maxStatementBytes);
+    }
+
+    /**
+     * create writer like {@link #open(Connection, TableMapping, int)} where the row with the same key is updated
+     * instead of failing the statement, see {@link TableMapping#onDuplicateKeyUpdate(Connection, String...)}.
+     * */
+    public static <T> MultiRowInsertWriter<T> openUpsert(Connection connection, TableMapping<T> tableMapping,
+                                                         int maxRowsPerStatement, String... keyColumns)
+            throws SQLException {
+        long maxStatementBytes = (long) (getMaxAllowedPacket(connection) * PACKET_SAFETY_FACTOR);
+        return new MultiRowInsertWriter<>(connection, tableMapping, maxRowsPerStatement, maxStatementBytes,
+                tableMapping.onDuplicateKeyUpdate(connection, keyColumns));
+    }
+
+    /**
+     * read max_allowed_packet of the connected server, if the server doesn't know it, use 4MB (default of MySQL
+     * 5.7).
+     * */
+    public static long getMaxAllowedPacket(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT @@max_allowed_packet")) {
+            return resultSet.next() ? resultSet.getLong(1) : DEFAULT_MAX_ALLOWED_PACKET;
+        } catch (SQLException exception) {
+            if (connection.isClosed()) {
+                throw exception;
+            }
+            return DEFAULT_MAX_ALLOWED_PACKET;
+        }
+    }
+
+    /**
+     * buffer one row, the buffered rows are flushed first if this row doesn't fit in the current statement.
+     * */
+    public void add(T data) throws SQLException {
+        addParameters(tableMapping.mapToParameters(data));
+    }
+
+    /**
+     * buffer one row that is already mapped with {@link TableMapping#mapToParameters(Object)}.
+     * */
+    public void addParameters(Object[] parameters) throws SQLException {
+        long rowBytes = estimateRowBytes(parameters);
+
+        if (!pendingRows.isEmpty() && (pendingRows.size() == maxRowsPerStatement ||
+                pendingBytes + rowBytes > maxStatementBytes)) {
+            flush();
+        }
+
+        pendingRows.add(parameters);
+        pendingBytes += rowBytes;
+    }
+
+    public void addAll(Iterable<T> data) throws SQLException {
+        for (T row : data) {
+            add(row);
+        }
+    }
+
+    /**
+     * send all buffered rows to the database.
+     *
+     * @return total row affected.
+     * */
+    public int flush() throws SQLException {
+        if (pendingRows.isEmpty()) {
+            return 0;
+        }
+
+        PreparedStatement statement = getStatement(pendingRows.size());
+        int parameterIndex = 1;
+        for (Object[] parameters : pendingRows) {
+            for (Object parameter : parameters) {
+                statement.setObject(parameterIndex++, parameter);
+            }
+        }
+
+        int rowAffected = statement.executeUpdate();
+        totalRoundTrip++;
+        pendingRows.clear();
+        pendingBytes = insertPrefix.length() + querySuffix.length();
+        return rowAffected;
+    }
+
+    /**
+     * @return total statements that are sent to the database.
+     * */
+    public long getTotalRoundTrip() {
+        return totalRoundTrip;
+    }
+
+    private PreparedStatement getStatement(int totalRow) throws SQLException {
+        PreparedStatement statement = cachedStatements.get(totalRow);
+        if (statement == null) {
+            statement = connection.prepareStatement(buildInsertQuery(totalRow));
+            cachedStatements.put(totalRow, statement);
+            evictStatements();
+        }
+
+        return statement;
+    }
+
+    private void evictStatements() throws SQLException {
+        Iterator<PreparedStatement> statements = cachedStatements.values().iterator();
+        while (cachedStatements.size() > MAX_CACHED_STATEMENTS) {
+            // the first statement is the least recently used
+            statements.next().close();
+            statements.remove();
+        }
+    }
+
+    private String buildInsertQuery(int totalRow) {
+        StringBuilder query = new StringBuilder(insertPrefix.length() + totalRow * (valuesRow.length() + 2) +
+                querySuffix.length());
+        query.append(insertPrefix);
+        for (int i = 0; i < totalRow; i++) {
+            if (i > 0) {
+                query.append(", ");
+            }
+            query.append(valuesRow);
+        }
+        query.append(querySuffix);
+
+        return query.toString();
+    }
+
+    /**
+     * estimate size of one row in the statement that is sent to the server. string is counted twice because of
+     * escaping and multibyte characters.
+     * */
+    private long estimateRowBytes(Object[] parameters) {
+        long rowBytes = 4; // "(", ")" and ", "
+        for (Object parameter : parameters) {
+            if (parameter == null) {
+                rowBytes += 6;
+            } else if (parameter instanceof CharSequence text) {
+                rowBytes += 2L * text.length() + 4;
+            } else {
+                rowBytes += 26;
+            }
+        }
+
+        return rowBytes;
+    }
+
+    /**
+     * flush the rest of buffered rows and close the prepared statements, the connection is not closed.
+     * */
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+        } finally {
+            for (PreparedStatement statement : cachedStatements.values()) {
+                statement.close();
+            }
+            cachedStatements.clear();
+        }
+    }
+}
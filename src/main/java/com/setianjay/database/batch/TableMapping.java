@@ -0,0 +1,78 @@
+package com.setianjay.database.batch;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * describe how data is stored in a table: the table name, the columns in table order and how to map the data to
+ * parameters in the same order as the columns.
+ * */
+public record TableMapping<T>(String tableName, List<String> columnNames, Function<T, Object[]> parameterMapper) {
+    /* alias of the inserted row in ON DUPLICATE KEY UPDATE clause */
+    private static final String ROW_ALIAS = "new";
+    /* the first MySQL version that support row alias, VALUES(column) is deprecated since this version */
+    private static final int[] ROW_ALIAS_MYSQL_VERSION = {8, 0, 19};
+
+    public TableMapping {
+        columnNames = List.copyOf(columnNames);
+    }
+
+    public int columnCount() {
+        return columnNames.size();
+    }
+
+    public Object[] mapToParameters(T data) {
+        return parameterMapper.apply(data);
+    }
+
+    /**
+     * @return clause of {@link #onDuplicateKeyUpdate(boolean, String...)} with row alias if the connected database
+     * support it.
+     * */
+    public String onDuplicateKeyUpdate(Connection connection, String... keyColumns) throws SQLException {
+        return onDuplicateKeyUpdate(supportsRowAlias(connection.getMetaData()), keyColumns);
+    }
+
+    /**
+     * @return MySQL clause "AS new ON DUPLICATE KEY UPDATE column = new.column, ..." for every column except the key
+     * columns, it's appended to the insert statement so existing row is updated with the new values. without row
+     * alias the clause is "ON DUPLICATE KEY UPDATE column = VALUES(column), ...", it's deprecated by MySQL 8.0.19 but
+     * it's the only form that is supported by older MySQL server and embedded database in MySQL mode.
+     * */
+    public String onDuplicateKeyUpdate(boolean rowAlias, String... keyColumns) {
+        Set<String> keyColumnNames = Set.of(keyColumns);
+        return columnNames.stream()
+                .filter(columnName -> !keyColumnNames.contains(columnName))
+                .map(columnName -> columnName + " = " + (rowAlias ? ROW_ALIAS + "." + columnName
+                        : "VALUES(" + columnName + ")"))
+                .collect(Collectors.joining(", ", rowAlias ? " AS " + ROW_ALIAS + " ON DUPLICATE KEY UPDATE "
+                        : " ON DUPLICATE KEY UPDATE ", ""));
+    }
+
+    /**
+     * @return true if the database is MySQL {@code 8.0.19} or newer. the version of MariaDB through MySQL driver start
+     * with 5.5.5, so it's false like the embedded database.
+     * */
+    public static boolean supportsRowAlias(DatabaseMetaData metaData) throws SQLException {
+        if (!"MySQL".equals(metaData.getDatabaseProductName())) {
+            return false;
+        }
+
+        // for example 8.0.35 or 8.0.35-0ubuntu0.22.04.1
+        String[] versionParts = metaData.getDatabaseProductVersion().split("\\D+");
+        for (int i = 0; i < ROW_ALIAS_MYSQL_VERSION.length; i++) {
+            int versionPart = i < versionParts.length && !versionParts[i].isEmpty()
+                    ? Integer.parseInt(versionParts[i]) : 0;
+            if (versionPart != ROW_ALIAS_MYSQL_VERSION[i]) {
+                return versionPart > ROW_ALIAS_MYSQL_VERSION[i];
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,66 @@
+package com.setianjay.database.batch;
+
+import com.setianjay.database.entity.Customer;
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.entity.ImportCheckpoint;
+import com.setianjay.database.entity.QuarantinedRow;
+import com.setianjay.database.entity.User;
+
+import java.util.List;
+
+/**
+ * {@link TableMapping} for every entity in this project.
+ * */
+public class TableMappings {
+
+    private TableMappings() {
+
+    }
+
+    public static final TableMapping<Customer> CUSTOMER = new TableMapping<>(
+            "customer",
+            List.of("id", "name", "email"),
+            customer -> new Object[]{customer.id(), customer.name(), customer.email()}
+    );
+
+    public static final TableMapping<User> USER = new TableMapping<>(
+            "user",
+            List.of("username", "password"),
+            user -> new Object[]{user.username(), user.password()}
+    );
+
+    /* the columns order is the same as the columns order in the employee excel file */
+    public static final TableMapping<Employee> EMPLOYEE = new TableMapping<>(
+            "employee",
+            List.of("id", "full_name", "job_title", "department", "business_unit", "gender", "ethnicity", "age",
+                    "hire_date", "annual_salary", "bonus", "country", "city", "exit_date"),
+            employee -> new Object[]{
+                    employee.getId(),
+                    employee.getFullName(),
+                    employee.getJobTitle(),
+                    employee.getDepartment(),
+                    employee.getBusinessUnit(),
+                    employee.getGender() != null ? employee.getGender().getValue() : null,
+                    employee.getEthnicity(),
+                    String.valueOf(employee.getAge()),
+                    employee.getHireDate(),
+                    String.valueOf(employee.getAnnualSalary()),
+                    employee.getBonus(),
+                    employee.getCountry(),
+                    employee.getCity(),
+                    employee.getExitDate()
+            }
+    );
+
+    public static final TableMapping<ImportCheckpoint> IMPORT_CHECKPOINT = new TableMapping<>(
+            "import_checkpoint",
+            List.of("source_key", "committed_row", "quarantined_row"),
+            checkpoint -> new Object[]{checkpoint.sourceKey(), checkpoint.committedRow(), checkpoint.quarantinedRow()}
+    );
+
+    public static final TableMapping<QuarantinedRow> IMPORT_QUARANTINE = new TableMapping<>(
+            "import_quarantine",
+            List.of("source_key", "row_index", "employee_id", "error_message"),
+            row -> new Object[]{row.sourceKey(), row.rowIndex(), row.employeeId(), row.errorMessage()}
+    );
+}
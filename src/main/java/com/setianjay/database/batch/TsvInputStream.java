@@ -0,0 +1,106 @@
+package com.setianjay.database.batch;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * {@link InputStream} that encode data to tab separated values row by row only when the stream is read, so the
+ * whole data never lands in memory or on disk. the format is the default format of MySQL "LOAD DATA": fields are
+ * terminated by tab, lines are terminated by new line, special characters are escaped with backslash and null is
+ * written as \N.
+ * */
+public class TsvInputStream<T> extends InputStream {
+    private final Iterator<T> dataIterator;
+    private final TableMapping<T> tableMapping;
+    private final StringBuilder rowBuilder = new StringBuilder(256);
+    private byte[] currentRow = new byte[0];
+    private int position;
+    private long totalRow;
+
+    public TsvInputStream(Iterator<T> dataIterator, TableMapping<T> tableMapping) {
+        this.dataIterator = dataIterator;
+        this.tableMapping = tableMapping;
+    }
+
+    @Override
+    public int read() {
+        if (!ensureRowAvailable()) {
+            return -1;
+        }
+
+        return currentRow[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+
+        int totalRead = 0;
+        while (totalRead < length && ensureRowAvailable()) {
+            int size = Math.min(length - totalRead, currentRow.length - position);
+            System.arraycopy(currentRow, position, bytes, offset + totalRead, size);
+            position += size;
+            totalRead += size;
+        }
+
+        return totalRead == 0 ? -1 : totalRead;
+    }
+
+    /**
+     * @return total rows that are already encoded.
+     * */
+    public long getTotalRow() {
+        return totalRow;
+    }
+
+    private boolean ensureRowAvailable() {
+        if (position < currentRow.length) {
+            return true;
+        }
+
+        if (!dataIterator.hasNext()) {
+            return false;
+        }
+
+        encodeRow(tableMapping.mapToParameters(dataIterator.next()));
+        return true;
+    }
+
+    private void encodeRow(Object[] parameters) {
+        rowBuilder.setLength(0);
+        for (int i = 0; i < parameters.length; i++) {
+            if (i > 0) {
+                rowBuilder.append('\t');
+            }
+            appendField(parameters[i]);
+        }
+        rowBuilder.append('\n');
+
+        currentRow = rowBuilder.toString().getBytes(StandardCharsets.UTF_8);
+        position = 0;
+        totalRow++;
+    }
+
+    private void appendField(Object parameter) {
+        if (parameter == null) {
+            rowBuilder.append("\\N");
+            return;
+        }
+
+        String value = parameter.toString();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\t' -> rowBuilder.append("\\t");
+                case '\n' -> rowBuilder.append("\\n");
+                case '\r' -> rowBuilder.append("\\r");
+                case '\\' -> rowBuilder.append("\\\\");
+                case '\0' -> rowBuilder.append("\\0");
+                default -> rowBuilder.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.setianjay.database.cache;
+
+import java.time.Duration;
+
+/**
+ * configuration for {@link ReadThroughCache}.
+ *
+ * @param maximumSize  maximum entries in the cache, the oldest entries are evicted when the cache is full.
+ * @param timeToLive   how long the loaded value is kept in the cache.
+ * @param missToLive   how long the missing value (loader return null) is kept in the cache, so lookup of unknown key
+ *                     doesn't always go to the database.
+ * */
+public record CacheConfig(int maximumSize, Duration timeToLive, Duration missToLive) {
+
+    public CacheConfig {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be at least 1");
+        }
+        if (timeToLive == null || timeToLive.isNegative() || missToLive == null || missToLive.isNegative()) {
+            throw new IllegalArgumentException("Time to live must not be null or negative");
+        }
+    }
+
+    public static CacheConfig defaultConfig() {
+        return new CacheConfig(10_000, Duration.ofMinutes(5), Duration.ofSeconds(30));
+    }
+}
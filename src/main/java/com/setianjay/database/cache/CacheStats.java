@@ -0,0 +1,12 @@
+package com.setianjay.database.cache;
+
+/**
+ * counters of {@link ReadThroughCache} since it's created.
+ * */
+public record CacheStats(long hitCount, long missCount, long evictionCount, long size) {
+
+    public double hitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+    }
+}
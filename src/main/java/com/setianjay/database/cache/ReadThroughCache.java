@@ -0,0 +1,184 @@
+package com.setianjay.database.cache;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache in front of slow lookup like select by id. the value is loaded by {@link Loader} when it's not in the
+ * cache, and it's kept until its time to live is over or it's evicted because the cache is full (oldest entry first).
+ * Missing value (the loader return null) is cached too with its own time to live.
+ * <br />
+ * <br />
+ * The entries are stored in {@link ConcurrentHashMap}, so reading the cached value doesn't lock. Only one thread load
+ * the same key at one time, the other threads wait for its result. {@link #invalidate(Object)} remove the entry and
+ * also the result of the loading that is running, so value that is read before the write is never cached after it.
+ * */
+public class ReadThroughCache<K, V> {
+    private final Loader<K, V> loader;
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+    private final long missToLiveNanos;
+    private final Map<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    /* entries in insertion order, the entry that is already removed from the map is skipped */
+    private final Queue<Entry<K, V>> insertionOrder = new ConcurrentLinkedQueue<>();
+    /*
+     * total entries added to the insertion order queue, it only grows so it can't drift like a size counter that is
+     * updated apart from the queue. the stale entries are dropped every maximum size insertions
+     * */
+    private final AtomicLong insertionCount = new AtomicLong();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public ReadThroughCache(Loader<K, V> loader, CacheConfig cacheConfig) {
+        this.loader = loader;
+        this.maximumSize = cacheConfig.maximumSize();
+        this.timeToLiveNanos = cacheConfig.timeToLive().toNanos();
+        this.missToLiveNanos = cacheConfig.missToLive().toNanos();
+    }
+
+    /**
+     * @return the cached value, or load it if it's not in the cache. null if the value doesn't exist.
+     * */
+    public V get(K key) throws SQLException {
+        while (true) {
+            Entry<K, V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.loading != null) {
+                    hitCount.increment();
+                    return waitLoading(entry);
+                }
+
+                if (System.nanoTime() - entry.expiresAt < 0) {
+                    hitCount.increment();
+                    return entry.value;
+                }
+
+                if (entries.remove(key, entry)) {
+                    evictionCount.increment();
+                }
+            }
+
+            Entry<K, V> loadingEntry = new Entry<>(key, new CompletableFuture<>());
+            if (entries.putIfAbsent(key, loadingEntry) == null) {
+                missCount.increment();
+                return load(loadingEntry);
+            }
+            // another thread start loading the key first, read its entry
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+        insertionOrder.clear();
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum(), entries.size());
+    }
+
+    private V load(Entry<K, V> loadingEntry) throws SQLException {
+        V value;
+        try {
+            value = loader.load(loadingEntry.key);
+        } catch (SQLException | RuntimeException exception) {
+            // failure isn't cached, the next lookup try to load again
+            entries.remove(loadingEntry.key, loadingEntry);
+            loadingEntry.loading.completeExceptionally(exception);
+            throw exception;
+        }
+
+        long timeToLive = value != null ? timeToLiveNanos : missToLiveNanos;
+        Entry<K, V> loadedEntry = new Entry<>(loadingEntry.key, value, System.nanoTime() + timeToLive);
+        // it isn't replaced if the key is invalidated while loading
+        if (entries.replace(loadingEntry.key, loadingEntry, loadedEntry)) {
+            insertionOrder.add(loadedEntry);
+            evictOldestEntries(insertionCount.incrementAndGet());
+        }
+
+        loadingEntry.loading.complete(value);
+        return value;
+    }
+
+    private V waitLoading(Entry<K, V> entry) throws SQLException {
+        try {
+            return entry.loading.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * evict the oldest entries while the map is bigger than the maximum size. the queue hold at most the entries of
+     * the map after the last cleanup plus maximum size insertions, so it stays around twice the maximum size.
+     * */
+    private void evictOldestEntries(long insertionNumber) {
+        while (entries.size() > maximumSize) {
+            Entry<K, V> oldestEntry = insertionOrder.poll();
+            if (oldestEntry == null) {
+                return;
+            }
+
+            if (entries.remove(oldestEntry.key, oldestEntry)) {
+                evictionCount.increment();
+            }
+        }
+
+        // drop the entries that are already invalidated, expired or reloaded, so the queue doesn't grow forever
+        if (insertionNumber % maximumSize == 0) {
+            insertionOrder.removeIf(entry -> entries.get(entry.key) != entry);
+        }
+    }
+
+    /**
+     * load the value of the key, return null if the value doesn't exist.
+     * */
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        V load(K key) throws SQLException;
+    }
+
+    private static final class Entry<K, V> {
+        private final K key;
+        private final V value;
+        private final long expiresAt;
+        /* not null while the value is loaded */
+        private final CompletableFuture<V> loading;
+
+        private Entry(K key, CompletableFuture<V> loading) {
+            this.key = key;
+            this.value = null;
+            this.expiresAt = 0;
+            this.loading = loading;
+        }
+
+        private Entry(K key, V value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.loading = null;
+        }
+    }
+}
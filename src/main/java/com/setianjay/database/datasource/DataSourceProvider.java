@@ -0,0 +1,52 @@
+package com.setianjay.database.datasource;
+
+import com.setianjay.database.enums.EmbeddedDatabase;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Provide the database behind {@link com.setianjay.database.util.ConnectionUtil}, so the same code can run against
+ * MySQL server or embedded database.
+ * */
+public interface DataSourceProvider {
+    /* system property (or environment variable DB_PROVIDER) to choose the provider: mysql, h2 or hsqldb */
+    String PROVIDER_PROPERTY = "db.provider";
+
+    /**
+     * @return settings of every connection pool.
+     * */
+    DataSourceSettings createSettings();
+
+    /**
+     * @return true if the database is MySQL, so MySQL driver properties like rewriteBatchedStatements can be set.
+     * */
+    default boolean isMySql() {
+        return false;
+    }
+
+    /**
+     * prepare the database before it's used, for example create the tables.
+     * */
+    default void initialize(DataSource dataSource) throws SQLException {
+    }
+
+    /**
+     * @return provider that is chosen by system property {@value #PROVIDER_PROPERTY} or environment variable
+     * DB_PROVIDER, MySQL if both aren't set.
+     * */
+    static DataSourceProvider fromEnvironment() {
+        String providerName = System.getProperty(PROVIDER_PROPERTY, System.getenv("DB_PROVIDER"));
+        if (providerName == null || providerName.isBlank()) {
+            return new MySqlDataSourceProvider();
+        }
+
+        return switch (providerName.trim().toLowerCase(Locale.ROOT)) {
+            case "mysql" -> new MySqlDataSourceProvider();
+            case "h2" -> new EmbeddedDataSourceProvider(EmbeddedDatabase.H2);
+            case "hsqldb" -> new EmbeddedDataSourceProvider(EmbeddedDatabase.HSQLDB);
+            default -> throw new IllegalArgumentException("Unknown data source provider: " + providerName);
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.setianjay.database.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hold one {@link HikariDataSource} for every named pool in {@link DataSourceSettings}, for example a big pool for
+ * bulk import and a small pool for short query. the pool is started when it's used the first time, and it's safe to
+ * get the pool from many threads, every pool is only started once.
+ * */
+public class DataSourceRegistry implements Closeable {
+    private final DataSourceSettings settings;
+    private final PoolMetrics poolMetrics;
+    private final Map<String, HikariDataSource> dataSources = new ConcurrentHashMap<>();
+
+    public DataSourceRegistry(DataSourceSettings settings) {
+        this(settings, PoolMetrics.NONE);
+    }
+
+    public DataSourceRegistry(DataSourceSettings settings, PoolMetrics poolMetrics) {
+        this.settings = settings;
+        this.poolMetrics = poolMetrics;
+    }
+
+    public HikariDataSource getDataSource() {
+        return getDataSource(DataSourceSettings.DEFAULT_POOL);
+    }
+
+    public HikariDataSource getDataSource(String poolName) {
+        return dataSources.computeIfAbsent(poolName, this::createDataSource);
+    }
+
+    /**
+     * @return the current state of the pool, or null if the pool isn't started yet.
+     * */
+    public PoolSnapshot getPoolSnapshot(String poolName) {
+        HikariDataSource dataSource = dataSources.get(poolName);
+        if (dataSource == null) {
+            return null;
+        }
+
+        HikariPoolMXBean poolBean = dataSource.getHikariPoolMXBean();
+        if (poolBean == null) {
+            return null;
+        }
+
+        return new PoolSnapshot(poolName, poolBean.getActiveConnections(), poolBean.getIdleConnections(),
+                poolBean.getThreadsAwaitingConnection(), poolBean.getTotalConnections(),
+                dataSource.getMaximumPoolSize());
+    }
+
+    private HikariDataSource createDataSource(String poolName) {
+        HikariConfig hConfig = settings.createHikariConfig(poolName);
+        if (poolMetrics != PoolMetrics.NONE) {
+            hConfig.setMetricsTrackerFactory(new HikariPoolMetricsFactory(poolMetrics));
+        }
+
+        return new HikariDataSource(hConfig);
+    }
+
+    public void close(String poolName) {
+        HikariDataSource dataSource = dataSources.remove(poolName);
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    /**
+     * Close every started pool
+     * */
+    @Override
+    public void close() {
+        for (String poolName : dataSources.keySet()) {
+            close(poolName);
+        }
+    }
+}
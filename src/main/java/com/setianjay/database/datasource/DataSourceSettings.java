@@ -0,0 +1,206 @@
+package com.setianjay.database.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Settings of every named connection pool, loaded from properties file and overridden by environment variables.
+ * <br />
+ * <br />
+ * The property name is the same as the property name in {@link HikariConfig}, property that start with "dataSource."
+ * is passed to the MySQL driver. Property without prefix is shared by every pool, property with prefix
+ * "pool.{poolName}." is only for that pool and override the shared one, for example:
+ * <br />
+ * <br />
+ * {@code jdbcUrl=jdbc:mysql://localhost:3306/belajar_java_database}
+ * <br />
+ * {@code pool.bulk.maximumPoolSize=20}
+ * <br />
+ * <br />
+ * Environment variable override the properties, the name is "DB_" + property name in upper snake case for shared
+ * property (DB_JDBC_URL) or "DB_" + pool name + "_" + property name for pool property (DB_BULK_MAXIMUM_POOL_SIZE).
+ * Pool "default" always exists.
+ * */
+public final class DataSourceSettings {
+    public static final String DEFAULT_POOL = "default";
+    public static final String RESOURCE_NAME = "datasource.properties";
+
+    private static final String POOL_PREFIX = "pool.";
+    private static final String ENV_PREFIX = "DB_";
+
+    /* properties that can be set from environment variable although they are not in the properties file */
+    private static final List<String> ENV_PROPERTY_NAMES = List.of("jdbcUrl", "username", "password",
+            "maximumPoolSize", "minimumIdle", "connectionTimeout", "idleTimeout", "maxLifetime");
+
+    /* performance properties of MySQL driver, every property can be overridden by the settings */
+    private static final Map<String, String> DEFAULT_PROPERTIES = Map.of(
+            // cache the prepared statements per connection, so the same query isn't parsed again
+            "dataSource.cachePrepStmts", "true",
+            "dataSource.prepStmtCacheSize", "250",
+            "dataSource.prepStmtCacheSqlLimit", "2048",
+            // prepare the statement in the server, so only the parameters are sent for every execution
+            "dataSource.useServerPrepStmts", "true",
+            // track autocommit and isolation level in the client instead of asking the server
+            "dataSource.useLocalSessionState", "true",
+            "dataSource.cacheResultSetMetadata", "true",
+            "dataSource.cacheServerConfiguration", "true",
+            "dataSource.elideSetAutoCommits", "true",
+            "dataSource.maintainTimeStats", "false"
+    );
+
+    private final Properties sharedProperties;
+    private final Map<String, Properties> poolProperties;
+
+    private DataSourceSettings(Properties sharedProperties, Map<String, Properties> poolProperties) {
+        this.sharedProperties = sharedProperties;
+        this.poolProperties = poolProperties;
+    }
+
+    /**
+     * load settings from {@value #RESOURCE_NAME} in the classpath and the environment variables.
+     * */
+    public static DataSourceSettings load() {
+        Properties properties = new Properties();
+
+        try (InputStream inputStream = DataSourceSettings.class.getClassLoader()
+                .getResourceAsStream(RESOURCE_NAME)) {
+            if (inputStream != null) {
+                properties.load(inputStream);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        return from(properties, System.getenv());
+    }
+
+    /**
+     * create settings from the properties with MySQL driver performance properties turned on, then override them
+     * with the environment variables.
+     * */
+    public static DataSourceSettings from(Properties properties, Map<String, String> environment) {
+        return create(properties, environment, DEFAULT_PROPERTIES);
+    }
+
+    /**
+     * create settings exactly like the properties, without MySQL driver properties and environment variables. it's
+     * used for database with other driver that reject unknown properties, like embedded database.
+     * */
+    public static DataSourceSettings of(Properties properties) {
+        return create(properties, Map.of(), Map.of());
+    }
+
+    private static DataSourceSettings create(Properties properties, Map<String, String> environment,
+                                             Map<String, String> defaultProperties) {
+        Properties sharedProperties = new Properties();
+        sharedProperties.putAll(defaultProperties);
+        Map<String, Properties> poolProperties = new TreeMap<>();
+        poolProperties.put(DEFAULT_POOL, new Properties());
+
+        for (String name : properties.stringPropertyNames()) {
+            String value = properties.getProperty(name);
+            if (!name.startsWith(POOL_PREFIX)) {
+                sharedProperties.setProperty(name, value);
+                continue;
+            }
+
+            int separatorIndex = name.indexOf('.', POOL_PREFIX.length());
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException("Invalid pool property: " + name);
+            }
+
+            String poolName = name.substring(POOL_PREFIX.length(), separatorIndex);
+            poolProperties.computeIfAbsent(poolName, key -> new Properties())
+                    .setProperty(name.substring(separatorIndex + 1), value);
+        }
+
+        Set<String> propertyNames = new HashSet<>(ENV_PROPERTY_NAMES);
+        propertyNames.addAll(sharedProperties.stringPropertyNames());
+        poolProperties.values().forEach(pool -> propertyNames.addAll(pool.stringPropertyNames()));
+
+        for (String name : propertyNames) {
+            String sharedValue = environment.get(ENV_PREFIX + toEnvironmentName(name));
+            if (sharedValue != null) {
+                sharedProperties.setProperty(name, sharedValue);
+            }
+
+            for (Map.Entry<String, Properties> pool : poolProperties.entrySet()) {
+                String poolValue = environment.get(ENV_PREFIX + toEnvironmentName(pool.getKey()) + "_" +
+                        toEnvironmentName(name));
+                if (poolValue != null) {
+                    pool.getValue().setProperty(name, poolValue);
+                }
+            }
+        }
+
+        return new DataSourceSettings(sharedProperties, poolProperties);
+    }
+
+    /**
+     * @return new settings where the property is set for every pool, it overrides the property from properties file
+     * and environment variables.
+     * */
+    public DataSourceSettings withProperty(String name, String value) {
+        Properties newSharedProperties = new Properties();
+        newSharedProperties.putAll(sharedProperties);
+        newSharedProperties.setProperty(name, value);
+
+        Map<String, Properties> newPoolProperties = new TreeMap<>();
+        for (Map.Entry<String, Properties> pool : poolProperties.entrySet()) {
+            Properties properties = new Properties();
+            properties.putAll(pool.getValue());
+            properties.remove(name);
+            newPoolProperties.put(pool.getKey(), properties);
+        }
+
+        return new DataSourceSettings(newSharedProperties, newPoolProperties);
+    }
+
+    public Set<String> getPoolNames() {
+        return Collections.unmodifiableSet(poolProperties.keySet());
+    }
+
+    /**
+     * @return the merged properties of the pool, shared properties are overridden by the pool properties.
+     * */
+    public Properties getProperties(String poolName) {
+        Properties pool = poolProperties.get(poolName);
+        if (pool == null) {
+            throw new IllegalArgumentException("Unknown connection pool: " + poolName);
+        }
+
+        Properties properties = new Properties();
+        properties.putAll(sharedProperties);
+        properties.putAll(pool);
+        return properties;
+    }
+
+    public HikariConfig createHikariConfig(String poolName) {
+        HikariConfig hConfig = new HikariConfig(getProperties(poolName));
+        hConfig.setPoolName(poolName);
+        return hConfig;
+    }
+
+    /**
+     * map property name like "dataSource.cachePrepStmts" to "DATA_SOURCE_CACHE_PREP_STMTS".
+     * */
+    private static String toEnvironmentName(String name) {
+        StringBuilder environmentName = new StringBuilder(name.length() + 8);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '.' || c == '-') {
+                environmentName.append('_');
+            } else if (Character.isUpperCase(c) && i > 0 && Character.isLowerCase(name.charAt(i - 1))) {
+                environmentName.append('_').append(c);
+            } else {
+                environmentName.append(Character.toUpperCase(c));
+            }
+        }
+
+        return environmentName.toString();
+    }
+}
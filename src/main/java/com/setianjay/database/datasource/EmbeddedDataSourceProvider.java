@@ -0,0 +1,89 @@
+package com.setianjay.database.datasource;
+
+import com.setianjay.database.enums.EmbeddedDatabase;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * In memory {@link EmbeddedDatabase} with the same pools as {@value DataSourceSettings#RESOURCE_NAME}, the tables of
+ * this project are created from {@value #SCHEMA_RESOURCE_NAME} when the database is initialized. the driver of the
+ * embedded database must be in the classpath (it's test dependency of this project).
+ * <br />
+ * <br />
+ * Note: "LOAD DATA LOCAL INFILE" and "SELECT @@max_allowed_packet" are MySQL only, so
+ * {@link com.setianjay.database.batch.LocalInfileLoader} doesn't work with embedded database.
+ * */
+public class EmbeddedDataSourceProvider implements DataSourceProvider {
+    public static final String SCHEMA_RESOURCE_NAME = "embedded-schema.sql";
+    private static final String DEFAULT_DATABASE_NAME = "belajar_java_database";
+
+    private final EmbeddedDatabase embeddedDatabase;
+    private final String databaseName;
+
+    public EmbeddedDataSourceProvider(EmbeddedDatabase embeddedDatabase) {
+        this(embeddedDatabase, DEFAULT_DATABASE_NAME);
+    }
+
+    /**
+     * @param databaseName name of the in memory database, every name is a separated database.
+     * */
+    public EmbeddedDataSourceProvider(EmbeddedDatabase embeddedDatabase, String databaseName) {
+        this.embeddedDatabase = embeddedDatabase;
+        this.databaseName = databaseName;
+    }
+
+    @Override
+    public DataSourceSettings createSettings() {
+        Properties properties = new Properties();
+        properties.setProperty("driverClassName", embeddedDatabase.getDriverClassName());
+        properties.setProperty("jdbcUrl", embeddedDatabase.getJdbcUrl(databaseName));
+        properties.setProperty("username", "sa");
+        properties.setProperty("password", "");
+        properties.setProperty("maximumPoolSize", "10");
+        properties.setProperty("minimumIdle", "1");
+        properties.setProperty("connectionTimeout", "30000");
+        // the same pools as MySQL, all of them use the same in memory database
+        properties.setProperty("pool.bulk.maximumPoolSize", "20");
+        properties.setProperty("pool.oltp.maximumPoolSize", "4");
+        properties.setProperty("pool.stream.maximumPoolSize", "4");
+
+        return DataSourceSettings.of(properties);
+    }
+
+    /**
+     * create the tables with {@value #SCHEMA_RESOURCE_NAME}, the tables that already exist are kept.
+     * */
+    @Override
+    public void initialize(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String query : readSchema().split(";")) {
+                if (!query.isBlank()) {
+                    statement.execute(query);
+                }
+            }
+        }
+    }
+
+    private String readSchema() {
+        try (InputStream inputStream = EmbeddedDataSourceProvider.class.getClassLoader()
+                .getResourceAsStream(SCHEMA_RESOURCE_NAME)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("Schema " + SCHEMA_RESOURCE_NAME + " isn't found in the classpath");
+            }
+
+            // drop the comment lines, so the schema can be split by semicolon
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).replaceAll("(?m)^\\s*--.*$", "");
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.setianjay.database.datasource;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * adapter from metrics tracker of HikariCP to {@link PoolMetrics}.
+ * */
+class HikariPoolMetricsFactory implements MetricsTrackerFactory {
+    private final PoolMetrics poolMetrics;
+
+    HikariPoolMetricsFactory(PoolMetrics poolMetrics) {
+        this.poolMetrics = poolMetrics;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        poolMetrics.onPoolStarted(poolName, () -> new PoolSnapshot(poolName, poolStats.getActiveConnections(),
+                poolStats.getIdleConnections(), poolStats.getPendingThreads(), poolStats.getTotalConnections(),
+                poolStats.getMaxConnections()));
+
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                poolMetrics.recordConnectionCreated(poolName, connectionCreatedMillis);
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                poolMetrics.recordConnectionAcquired(poolName, elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                poolMetrics.recordConnectionUsage(poolName, elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                poolMetrics.recordConnectionTimeout(poolName);
+            }
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.setianjay.database.datasource;
+
+/**
+ * MySQL server from {@value DataSourceSettings#RESOURCE_NAME} and the environment variables, the tables must already
+ * exist.
+ * */
+public class MySqlDataSourceProvider implements DataSourceProvider {
+
+    @Override
+    public DataSourceSettings createSettings() {
+        return DataSourceSettings.load();
+    }
+
+    @Override
+    public boolean isMySql() {
+        return true;
+    }
+}
@@ -0,0 +1,38 @@
+package com.setianjay.database.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Receive the metrics of connection pools that are created by {@link DataSourceRegistry}. implement it to send the
+ * metrics to any monitoring system, every method is called from the thread that use the pool, so it must be thread
+ * safe and fast.
+ * */
+public interface PoolMetrics {
+    /* metrics that ignore everything */
+    PoolMetrics NONE = new PoolMetrics() {
+    };
+
+    /**
+     * called once when the pool is started, {@code poolSnapshot} give the current state of the pool.
+     * */
+    default void onPoolStarted(String poolName, Supplier<PoolSnapshot> poolSnapshot) {
+    }
+
+    /**
+     * @param elapsedNanos time to wait for the connection from the pool.
+     * */
+    default void recordConnectionAcquired(String poolName, long elapsedNanos) {
+    }
+
+    /**
+     * @param elapsedMillis time from the connection is borrowed until it's returned to the pool.
+     * */
+    default void recordConnectionUsage(String poolName, long elapsedMillis) {
+    }
+
+    default void recordConnectionCreated(String poolName, long elapsedMillis) {
+    }
+
+    default void recordConnectionTimeout(String poolName) {
+    }
+}
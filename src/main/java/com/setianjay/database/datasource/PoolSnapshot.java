@@ -0,0 +1,8 @@
+package com.setianjay.database.datasource;
+
+/**
+ * state of connection pool at one time.
+ * */
+public record PoolSnapshot(String poolName, int activeConnections, int idleConnections, int pendingThreads,
+                           int totalConnections, int maxConnections) {
+}
@@ -0,0 +1,12 @@
+package com.setianjay.database.entity;
+
+/**
+ * progress of import from one source, saved in the same transaction as the imported rows.
+ *
+ * @param sourceKey      key of the source, for example SHA-256 of the excel file.
+ * @param committedRow   total rows of the source that are committed (imported or quarantined), the next import
+ *                       start from this row index.
+ * @param quarantinedRow total rows that are quarantined instead of imported.
+ * */
+public record ImportCheckpoint(String sourceKey, long committedRow, long quarantinedRow) {
+}
@@ -0,0 +1,10 @@
+package com.setianjay.database.entity;
+
+/**
+ * row of import source that can't be imported, for example its value is too long for the column.
+ *
+ * @param rowIndex     index of the row in the source (0 is the first data row).
+ * @param errorMessage message of the exception that reject the row.
+ * */
+public record QuarantinedRow(String sourceKey, long rowIndex, String employeeId, String errorMessage) {
+}
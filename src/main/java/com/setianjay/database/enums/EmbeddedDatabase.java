@@ -0,0 +1,26 @@
+package com.setianjay.database.enums;
+
+/**
+ * enum class for embedded database that can replace MySQL in the tests and benchmarks, both run in memory with MySQL
+ * compatibility mode.
+ * */
+public enum EmbeddedDatabase {
+    H2("org.h2.Driver", "jdbc:h2:mem:%s;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1"),
+    HSQLDB("org.hsqldb.jdbc.JDBCDriver", "jdbc:hsqldb:mem:%s;sql.syntax_mys=true");
+
+    private final String driverClassName;
+    private final String jdbcUrlFormat;
+
+    EmbeddedDatabase(String driverClassName, String jdbcUrlFormat) {
+        this.driverClassName = driverClassName;
+        this.jdbcUrlFormat = jdbcUrlFormat;
+    }
+
+    public String getDriverClassName() {
+        return driverClassName;
+    }
+
+    public String getJdbcUrl(String databaseName) {
+        return String.format(jdbcUrlFormat, databaseName);
+    }
+}
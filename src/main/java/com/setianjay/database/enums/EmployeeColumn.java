@@ -0,0 +1,21 @@
+package com.setianjay.database.enums;
+
+/**
+ * enum class for columns of employee, in the same order as the columns in the employee excel file and table.
+ * */
+public enum EmployeeColumn {
+    ID,
+    FULL_NAME,
+    JOB_TITLE,
+    DEPARTMENT,
+    BUSINESS_UNIT,
+    GENDER,
+    ETHNICITY,
+    AGE,
+    HIRE_DATE,
+    ANNUAL_SALARY,
+    BONUS,
+    COUNTRY,
+    CITY,
+    EXIT_DATE
+}
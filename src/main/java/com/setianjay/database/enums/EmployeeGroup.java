@@ -0,0 +1,15 @@
+package com.setianjay.database.enums;
+
+/**
+ * enum class to choose how employees are grouped by {@link com.setianjay.database.analytics.EmployeeAggregator}.
+ * */
+public enum EmployeeGroup {
+    JOB_TITLE,
+    DEPARTMENT,
+    BUSINESS_UNIT,
+    GENDER,
+    ETHNICITY,
+    COUNTRY,
+    CITY,
+    HIRE_YEAR
+}
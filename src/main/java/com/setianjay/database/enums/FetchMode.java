@@ -0,0 +1,19 @@
+package com.setianjay.database.enums;
+
+/**
+ * enum class to choose how MySQL driver fetch the rows of a query.
+ * <br />
+ * <br />
+ * {@link #BUFFERED} read the whole result set into memory before the first row is returned (default of MySQL driver).
+ * <br />
+ * {@link #ROW_STREAMING} stream the rows one by one (fetch size {@link Integer#MIN_VALUE}), the connection can't run
+ * another query until the result set is closed. database other than MySQL use the fetch size instead.
+ * <br />
+ * {@link #CURSOR} read the rows from server side cursor with the fetch size per round trip, the connection must be
+ * opened with useCursorFetch=true.
+ * */
+public enum FetchMode {
+    BUFFERED,
+    ROW_STREAMING,
+    CURSOR
+}
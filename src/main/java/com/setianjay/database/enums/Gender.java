@@ -1,9 +1,14 @@
 package com.setianjay.database.enums;
 
+import java.util.Map;
+
 public enum Gender {
     MALE("Male"),
     FEMALE("Female");
 
+    /* gender by its value, built once so mapping every cell is one lookup */
+    private static final Map<String, Gender> GENDER_BY_VALUE = Map.of(MALE.value, MALE, FEMALE.value, FEMALE);
+
     private final String value;
 
     Gender(String value){
@@ -14,11 +19,10 @@ public enum Gender {
         return this.value;
     }
 
+    /**
+     * @return gender with the value, unknown value is mapped to {@link #FEMALE}.
+     * */
     public static Gender mapStringToGender(String gender){
-        if (gender.equals(Gender.MALE.getValue())) {
-            return Gender.MALE;
-        }
-
-        return Gender.FEMALE;
+        return GENDER_BY_VALUE.getOrDefault(gender, Gender.FEMALE);
     }
 }
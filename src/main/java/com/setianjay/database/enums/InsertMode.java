@@ -0,0 +1,15 @@
+package com.setianjay.database.enums;
+
+/**
+ * enum class to choose how batch of rows is sent to the database.
+ * <br />
+ * <br />
+ * {@link #JDBC_BATCH} add every row to JDBC batch then executeBatch, it's only one round trip when
+ * rewriteBatchedStatements of MySQL driver is turned on.
+ * <br />
+ * {@link #MULTI_ROW_VALUES} build one "INSERT ... VALUES (...), (...)" statement for the whole batch.
+ * */
+public enum InsertMode {
+    JDBC_BATCH,
+    MULTI_ROW_VALUES
+}
@@ -0,0 +1,10 @@
+package com.setianjay.database.enums;
+
+/**
+ * enum class for the result of login in {@link com.setianjay.database.auth.AuthService}.
+ * */
+public enum LoginStatus {
+    SUCCESS,
+    INVALID_CREDENTIALS,
+    LOCKED
+}
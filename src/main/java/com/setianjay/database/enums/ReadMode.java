@@ -0,0 +1,16 @@
+package com.setianjay.database.enums;
+
+/**
+ * enum class to choose how excel file is read.
+ * <br />
+ * <br />
+ * {@link #WORKBOOK} load the whole workbook into memory, it's work for xls and xlsx extension.
+ * <br />
+ * {@link #STREAMING} parse the sheet row by row with SAX, so memory stays flat no matter how big the file is. it's
+ * only work for xlsx extension. the workbook that is read from input stream copies the stream to a temporary file
+ * first, so it needs free space in the temporary directory as big as the file.
+ * */
+public enum ReadMode {
+    WORKBOOK,
+    STREAMING
+}
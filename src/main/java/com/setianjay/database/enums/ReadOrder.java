@@ -0,0 +1,14 @@
+package com.setianjay.database.enums;
+
+/**
+ * enum class to choose the order of data that is read from several sheets or files in parallel.
+ * <br />
+ * <br />
+ * {@link #SOURCE_ORDER} keep the order of the files, then the sheets, then the rows.
+ * <br />
+ * {@link #UNORDERED} pass the data as soon as it's read, so the slow sheet doesn't hold back the others.
+ * */
+public enum ReadOrder {
+    SOURCE_ORDER,
+    UNORDERED
+}
@@ -1,22 +1,110 @@
 package com.setianjay.database.excel.base;
 
 import com.setianjay.database.enums.ExcelType;
+import com.setianjay.database.enums.ReadMode;
+import com.setianjay.database.util.FileUtil;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.List;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public abstract class ExcelWorkbook<T> {
+public abstract class ExcelWorkbook<T> implements Closeable {
+    /* maximum parsed rows waiting to be consumed by the stream in ReadMode.STREAMING */
+    private static final int STREAMING_QUEUE_CAPACITY = 64;
+    /* default format sql for date, DateTimeFormatter is immutable and thread safe so it's shared */
+    protected static final DateTimeFormatter DEFAULT_DATE_FORMATTER = RowMapper.DEFAULT_DATE_FORMATTER;
+
+    /* whole workbook, only available in ReadMode.WORKBOOK */
     protected final Workbook workbook;
+    /* xlsx package that parsed sheet by sheet, only available in ReadMode.STREAMING */
+    private final OPCPackage opcPackage;
+    /* temporary copy of the input stream that is opened as the package, it's deleted when the workbook is closed */
+    private final Path spooledFile;
 
     protected ExcelWorkbook(ExcelType excelType, InputStream excelFileInputStream) throws IOException {
-        this.workbook = createWorkbook(excelType, excelFileInputStream);
+        this(excelType, excelFileInputStream, ReadMode.WORKBOOK);
+    }
+
+    /**
+     * read the excel file from the input stream, the stream is read until the end but not closed. in
+     * {@link ReadMode#STREAMING} the stream is copied to a temporary file first and the file is read part by part
+     * like {@link #ExcelWorkbook(File, ReadMode)}, because opening the package from a stream load the whole zip into
+     * memory. the temporary file is deleted when the workbook is closed.
+     * */
+    protected ExcelWorkbook(ExcelType excelType, InputStream excelFileInputStream, ReadMode readMode)
+            throws IOException {
+        if (readMode == ReadMode.STREAMING) {
+            if (!isExtensionXlsx(excelType)) {
+                throw new IllegalArgumentException("Streaming read mode only support xlsx extension");
+            }
+
+            this.workbook = null;
+            this.spooledFile = Files.createTempFile("excel-workbook", ".xlsx");
+            try {
+                Files.copy(excelFileInputStream, spooledFile, StandardCopyOption.REPLACE_EXISTING);
+                this.opcPackage = createPackage(spooledFile.toFile());
+            } catch (IOException | RuntimeException exception) {
+                Files.deleteIfExists(spooledFile);
+                throw exception;
+            }
+        } else {
+            this.workbook = createWorkbook(excelType, excelFileInputStream);
+            this.opcPackage = null;
+            this.spooledFile = null;
+        }
+    }
+
+    /**
+     * open the excel file directly, the extension is taken from the file name. in {@link ReadMode#STREAMING} the
+     * file is read part by part, so the file is never loaded into memory as a whole.
+     * */
+    protected ExcelWorkbook(File excelFile, ReadMode readMode) throws IOException {
+        ExcelType excelType = ExcelType.valueOf(FileUtil.getExtensionFile(excelFile.getName()));
+
+        if (readMode == ReadMode.STREAMING) {
+            if (!isExtensionXlsx(excelType)) {
+                throw new IllegalArgumentException("Streaming read mode only support xlsx extension");
+            }
+
+            this.workbook = null;
+            this.opcPackage = createPackage(excelFile);
+        } else {
+            try (FileInputStream excelFileInputStream = new FileInputStream(excelFile)) {
+                this.workbook = createWorkbook(excelType, excelFileInputStream);
+            }
+            this.opcPackage = null;
+        }
+        this.spooledFile = null;
     }
 
     private boolean isExtensionXlsx(ExcelType excelType) {
@@ -28,51 +116,506 @@ public abstract class ExcelWorkbook<T> {
                 : new HSSFWorkbook(inputStream);
     }
 
+    private OPCPackage createPackage(File excelFile) throws IOException {
+        try {
+            return OPCPackage.open(excelFile, PackageAccess.READ);
+        } catch (OpenXML4JException exception) {
+            throw new IOException(exception);
+        }
+    }
+
     protected CellType getCellType(Cell cell) {
         return cell.getCellType().equals(CellType.FORMULA) ? cell.getCachedFormulaResultType() :
                 cell.getCellType();
     }
 
-    private void mapStringCell(T data, int cellIndex, Cell cell) {
-        Supplier<String> cellData = cell::getStringCellValue;
-        mapCellToData(data, cellIndex, cellData);
+    protected void mapRowToCell (Row row, T data) {
+        mapRowToCell(row, data, new DataRowMapper(null));
     }
 
-    private void mapNumericCell(T data, int cellIndex, Cell cell) {
-        Supplier<String> cellData = null;
+    private <R> void mapRowToCell(Row row, R data, RowMapper<R> rowMapper) {
+        for (int cellIndex = row.getFirstCellNum(); cellIndex < row.getLastCellNum(); cellIndex++) {
+            Cell cell = row.getCell(cellIndex, Row.MissingCellPolicy.RETURN_BLANK_AS_NULL);
+            if (cell == null) {
+                rowMapper.onBlank(data, cellIndex);
+                continue;
+            }
 
-        if (DateUtil.isCellDateFormatted(cell)) {
-            // get string date and format to default format sql for date
-            Date cellValueDate = cell.getDateCellValue();
-            if (cellValueDate != null) {
-                SimpleDateFormat defaultDateFormat = new SimpleDateFormat("yyyy-MM-dd");
-                cellData = () -> defaultDateFormat.format(cellValueDate);
+            CellType cellType = getCellType(cell);
+            if (cellType == CellType.STRING) {
+                rowMapper.onString(data, cellIndex, cell.getStringCellValue());
+            } else if (cellType == CellType.NUMERIC) {
+                if (DateUtil.isCellDateFormatted(cell)) {
+                    LocalDateTime cellValueDate = cell.getLocalDateTimeCellValue();
+                    if (cellValueDate != null) {
+                        rowMapper.onDate(data, cellIndex, cellValueDate.toLocalDate());
+                    }
+                } else {
+                    rowMapper.onNumeric(data, cellIndex, cell.getNumericCellValue());
+                }
             }
-        } else {
-            cellData = () -> Double.toString(cell.getNumericCellValue());
         }
+    }
 
-        if (cellData != null){
-            mapCellToData(data, cellIndex, cellData);
+    private <R> void mapHeaderRow(Row row, RowMapper<R> rowMapper) {
+        for (Cell cell : row) {
+            CellType cellType = getCellType(cell);
+            if (cellType == CellType.STRING) {
+                rowMapper.onHeader(cell.getColumnIndex(), cell.getStringCellValue());
+            } else if (cellType == CellType.NUMERIC) {
+                rowMapper.onHeader(cell.getColumnIndex(), Double.toString(cell.getNumericCellValue()));
+            }
         }
     }
 
-    protected void mapRowToCell (Row row, T data) {
-        for (int cellIndex = row.getFirstCellNum(); cellIndex < row.getLastCellNum(); cellIndex++) {
-            Cell cell = row.getCell(cellIndex, Row.MissingCellPolicy.CREATE_NULL_AS_BLANK);
-            CellType cellType = getCellType(cell);
+    /**
+     * @return total sheets in the workbook.
+     * */
+    public int getNumberOfSheets() {
+        if (workbook != null) {
+            return workbook.getNumberOfSheets();
+        }
+
+        try {
+            int numberOfSheets = 0;
+            Iterator<InputStream> sheets = new XSSFReader(opcPackage).getSheetsData();
+            while (sheets.hasNext()) {
+                sheets.next().close();
+                numberOfSheets++;
+            }
+
+            return numberOfSheets;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } catch (OpenXML4JException exception) {
+            throw new UncheckedIOException(new IOException(exception));
+        }
+    }
+
+    /**
+     * read data rows in the first sheet (the first row is header, so it's skipped). every row is mapped to new data
+     * created by {@code dataFactory} then passed to {@code rowConsumer}.
+     * <br />
+     * <br />
+     * In {@link ReadMode#STREAMING} the sheet is parsed with SAX, so only one row is held in memory at a time.
+     * */
+    protected void readRowsInSingleSheet(Supplier<T> dataFactory, Consumer<T> rowConsumer) {
+        readRowsInSheet(0, dataFactory, rowConsumer);
+    }
+
+    /**
+     * the same as {@link #readRowsInSingleSheet(Supplier, Consumer)} but for the sheet at {@code sheetIndex}.
+     * */
+    protected void readRowsInSheet(int sheetIndex, Supplier<T> dataFactory, Consumer<T> rowConsumer) {
+        readRowsInSheet(sheetIndex, new DataRowMapper(dataFactory), rowConsumer);
+    }
 
-            if (cellType.equals(CellType.STRING)) {
-                mapStringCell(data, cellIndex, cell);
+    /**
+     * read the sheet at {@code sheetIndex} with {@link RowMapper}, the first row is passed as header then every data
+     * row is mapped and passed to {@code rowConsumer}.
+     * */
+    protected <R> void readRowsInSheet(int sheetIndex, RowMapper<R> rowMapper, Consumer<R> rowConsumer) {
+        if (opcPackage != null) {
+            readRowsInStreamingSheet(sheetIndex, rowMapper, rowConsumer);
+            return;
+        }
+
+        Sheet excelSheet = this.workbook.getSheetAt(sheetIndex);
+        int firstRow = excelSheet.getFirstRowNum();
+        int lastRow = excelSheet.getLastRowNum();
+
+        Row headerRow = excelSheet.getRow(firstRow);
+        if (headerRow != null) {
+            mapHeaderRow(headerRow, rowMapper);
+        }
+
+        for (int rowIndex = firstRow + 1; rowIndex <= lastRow; rowIndex++) {
+            Row row = excelSheet.getRow(rowIndex);
+            if (row != null) {
+                R data = rowMapper.newRow();
+                this.mapRowToCell(row, data, rowMapper);
+                rowConsumer.accept(data);
+            }
+        }
+    }
+
+    /**
+     * lazy variant of {@link #readRowsInSingleSheet(Supplier, Consumer)}, every row is mapped only when the stream
+     * pull it. the workbook is closed when the stream is closed, so use it in try-with-resources.
+     * <br />
+     * <br />
+     * In {@link ReadMode#STREAMING} the sheet is parsed by background thread and handed over through small bounded
+     * queue, so the consumer can start processing the first row while the rest is still being parsed.
+     * */
+    protected Stream<T> streamRowsInSingleSheet(Supplier<T> dataFactory) {
+        return streamRowsInSheet(0, new DataRowMapper(dataFactory));
+    }
+
+    /**
+     * lazy variant of {@link #readRowsInSheet(int, RowMapper, Consumer)}, see
+     * {@link #streamRowsInSingleSheet(Supplier)}.
+     * */
+    protected <R> Stream<R> streamRowsInSheet(int sheetIndex, RowMapper<R> rowMapper) {
+        RowIterator<R> rowIterator = opcPackage != null ? new StreamingRowIterator<>(sheetIndex, rowMapper)
+                : new WorkbookRowIterator<>(sheetIndex, rowMapper);
+        Spliterator<R> rowSpliterator = Spliterators.spliteratorUnknownSize(rowIterator,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+
+        return StreamSupport.stream(rowSpliterator, false).onClose(() -> {
+            try {
+                rowIterator.close();
+                this.close();
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        });
+    }
+
+    private <R> void readRowsInStreamingSheet(int sheetIndex, RowMapper<R> rowMapper, Consumer<R> rowConsumer) {
+        try {
+            XSSFReader xssfReader = new XSSFReader(opcPackage);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(opcPackage, false);
+            StylesTable stylesTable = xssfReader.getStylesTable();
+
+            Iterator<InputStream> sheets = xssfReader.getSheetsData();
+            for (int i = 0; i < sheetIndex; i++) {
+                sheets.next().close();
             }
 
-            if (cellType.equals(CellType.NUMERIC)) {
-                mapNumericCell(data, cellIndex, cell);
+            try (InputStream sheetInputStream = sheets.next()) {
+                XMLReader xmlReader = XMLHelper.newXMLReader();
+                xmlReader.setContentHandler(new SheetStreamHandler(sharedStrings, stylesTable,
+                        new StreamingRowHandler<>(rowMapper, rowConsumer)));
+                xmlReader.parse(new InputSource(sheetInputStream));
             }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException exception) {
+            throw new UncheckedIOException(new IOException(exception));
+        }
+    }
+
+    /**
+     * Close the workbook and release the file it hold.
+     * */
+    @Override
+    public void close() throws IOException {
+        if (workbook != null) {
+            workbook.close();
+        }
+
+        if (opcPackage != null) {
+            // revert instead of close, because the package is only read and must not be saved
+            opcPackage.revert();
+        }
+
+        if (spooledFile != null) {
+            Files.deleteIfExists(spooledFile);
         }
     }
 
     public abstract List<T> readDataInSingleSheet();
 
-    protected abstract void mapCellToData(T data, int cellIndex, Supplier<String> cellData);
+    /**
+     * read every data in the sheet at {@code sheetIndex} and pass it to {@code dataConsumer}.
+     * */
+    public abstract void readDataInSheet(int sheetIndex, Consumer<T> dataConsumer);
+
+    public abstract Stream<T> streamDataInSingleSheet();
+
+    /**
+     * map string cell to the data, by default it's ignored. workbook that map the cells with its own
+     * {@link RowMapper} doesn't need to override it.
+     * */
+    protected void onString(T data, int cellIndex, String value) {
+    }
+
+    /**
+     * map numeric cell to the data. by default the value is mapped as double string (for example "42.0") with
+     * {@link #onString(Object, int, String)}, override it to use the value without converting it to string.
+     * */
+    protected void onNumeric(T data, int cellIndex, double value) {
+        onString(data, cellIndex, Double.toString(value));
+    }
+
+    /**
+     * map date formatted cell to the data. by default the value is mapped as default format sql for date
+     * (yyyy-MM-dd) with {@link #onString(Object, int, String)}.
+     * */
+    protected void onDate(T data, int cellIndex, LocalDate value) {
+        onString(data, cellIndex, DEFAULT_DATE_FORMATTER.format(value));
+    }
+
+    /**
+     * map blank or missing cell to the data, by default it's ignored.
+     * */
+    protected void onBlank(T data, int cellIndex) {
+    }
+
+    /**
+     * {@link RowMapper} that map the row to data created by {@code dataFactory} with the cell methods of this
+     * workbook.
+     * */
+    private class DataRowMapper implements RowMapper<T> {
+        private final Supplier<T> dataFactory;
+
+        private DataRowMapper(Supplier<T> dataFactory) {
+            this.dataFactory = dataFactory;
+        }
+
+        @Override
+        public T newRow() {
+            return dataFactory.get();
+        }
+
+        @Override
+        public void onString(T data, int cellIndex, String value) {
+            ExcelWorkbook.this.onString(data, cellIndex, value);
+        }
+
+        @Override
+        public void onNumeric(T data, int cellIndex, double value) {
+            ExcelWorkbook.this.onNumeric(data, cellIndex, value);
+        }
+
+        @Override
+        public void onDate(T data, int cellIndex, LocalDate value) {
+            ExcelWorkbook.this.onDate(data, cellIndex, value);
+        }
+
+        @Override
+        public void onBlank(T data, int cellIndex) {
+            ExcelWorkbook.this.onBlank(data, cellIndex);
+        }
+    }
+
+    private static class StreamingRowHandler<R> implements SheetStreamHandler.SheetRowHandler {
+        private final RowMapper<R> rowMapper;
+        private final Consumer<R> rowConsumer;
+        private boolean isHeaderRow = true;
+        private R data;
+
+        private StreamingRowHandler(RowMapper<R> rowMapper, Consumer<R> rowConsumer) {
+            this.rowMapper = rowMapper;
+            this.rowConsumer = rowConsumer;
+        }
+
+        @Override
+        public void startRow(int rowIndex) {
+            data = isHeaderRow ? null : rowMapper.newRow();
+        }
+
+        @Override
+        public void stringCell(int cellIndex, String value) {
+            if (data != null) {
+                rowMapper.onString(data, cellIndex, value);
+            } else if (isHeaderRow) {
+                rowMapper.onHeader(cellIndex, value);
+            }
+        }
+
+        @Override
+        public void numericCell(int cellIndex, double value) {
+            if (data != null) {
+                rowMapper.onNumeric(data, cellIndex, value);
+            } else if (isHeaderRow) {
+                rowMapper.onHeader(cellIndex, Double.toString(value));
+            }
+        }
+
+        @Override
+        public void dateCell(int cellIndex, LocalDate value) {
+            if (data != null) {
+                rowMapper.onDate(data, cellIndex, value);
+            }
+        }
+
+        @Override
+        public void blankCell(int cellIndex) {
+            if (data != null) {
+                rowMapper.onBlank(data, cellIndex);
+            }
+        }
+
+        @Override
+        public void endRow(int rowIndex) {
+            if (data != null) {
+                rowConsumer.accept(data);
+                data = null;
+            }
+            isHeaderRow = false;
+        }
+    }
+
+    private interface RowIterator<E> extends Iterator<E>, Closeable {
+        @Override
+        void close();
+    }
+
+    private class WorkbookRowIterator<R> implements RowIterator<R> {
+        private final RowMapper<R> rowMapper;
+        private final Sheet excelSheet;
+        private final int lastRow;
+        private int rowIndex;
+
+        private WorkbookRowIterator(int sheetIndex, RowMapper<R> rowMapper) {
+            this.rowMapper = rowMapper;
+            this.excelSheet = workbook.getSheetAt(sheetIndex);
+            this.lastRow = excelSheet.getLastRowNum();
+            this.rowIndex = excelSheet.getFirstRowNum() + 1;
+
+            Row headerRow = excelSheet.getRow(excelSheet.getFirstRowNum());
+            if (headerRow != null) {
+                mapHeaderRow(headerRow, rowMapper);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            // skip empty row, the same as readRowsInSheet do
+            while (rowIndex <= lastRow && excelSheet.getRow(rowIndex) == null) {
+                rowIndex++;
+            }
+
+            return rowIndex <= lastRow;
+        }
+
+        @Override
+        public R next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            R data = rowMapper.newRow();
+            mapRowToCell(excelSheet.getRow(rowIndex++), data, rowMapper);
+            return data;
+        }
+
+        @Override
+        public void close() {
+            rowIndex = lastRow + 1;
+        }
+    }
+
+    private class StreamingRowIterator<R> implements RowIterator<R> {
+        /* marker that tell the consumer there is no more row */
+        private static final Object END_OF_SHEET = new Object();
+
+        private final int sheetIndex;
+        private final RowMapper<R> rowMapper;
+        private final BlockingQueue<Object> rowQueue = new ArrayBlockingQueue<>(STREAMING_QUEUE_CAPACITY);
+        private Thread readerThread;
+        private Object nextRow;
+        private volatile boolean isClosed;
+
+        private StreamingRowIterator(int sheetIndex, RowMapper<R> rowMapper) {
+            this.sheetIndex = sheetIndex;
+            this.rowMapper = rowMapper;
+        }
+
+        private void startReader() {
+            readerThread = new Thread(() -> {
+                Object lastItem = END_OF_SHEET;
+                try {
+                    readRowsInStreamingSheet(sheetIndex, rowMapper, this::putRow);
+                } catch (StopReadingException ignored) {
+                    // the stream is closed before the whole sheet is read
+                    return;
+                } catch (RuntimeException exception) {
+                    lastItem = exception;
+                }
+
+                try {
+                    putItem(lastItem);
+                } catch (StopReadingException ignored) {
+                    // the stream is closed, nobody wait for the last item anymore
+                }
+            }, "excel-sheet-reader");
+            readerThread.setDaemon(true);
+            readerThread.start();
+        }
+
+        private void putRow(R data) {
+            putItem(data);
+        }
+
+        private void putItem(Object item) {
+            if (isClosed) {
+                throw new StopReadingException();
+            }
+
+            try {
+                rowQueue.put(item);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new StopReadingException();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextRow == null) {
+                if (isClosed) {
+                    return false;
+                }
+
+                if (readerThread == null) {
+                    startReader();
+                }
+
+                try {
+                    nextRow = rowQueue.take();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the next row", exception);
+                }
+
+                if (nextRow instanceof RuntimeException exception) {
+                    nextRow = END_OF_SHEET;
+                    throw exception;
+                }
+            }
+
+            return nextRow != END_OF_SHEET;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public R next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            R data = (R) nextRow;
+            nextRow = null;
+            return data;
+        }
+
+        @Override
+        public void close() {
+            isClosed = true;
+            nextRow = END_OF_SHEET;
+
+            if (readerThread != null) {
+                readerThread.interrupt();
+                rowQueue.clear();
+                try {
+                    readerThread.join();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * thrown from row consumer to stop SAX parsing when the stream is closed.
+     * */
+    private static class StopReadingException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private StopReadingException() {
+            super(null, null, false, false);
+        }
+    }
 }
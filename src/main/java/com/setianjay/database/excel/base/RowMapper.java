@@ -0,0 +1,35 @@
+package com.setianjay.database.excel.base;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * map the cells of one row in the sheet to the row data {@code R}. it's the low level contract that is used by
+ * {@link ExcelWorkbook} to read the sheet, the header row (the first row) is passed to
+ * {@link #onHeader(int, String)} and every data row is mapped to new row data created by {@link #newRow()}.
+ * */
+public interface RowMapper<R> {
+    /* default format sql for date, DateTimeFormatter is immutable and thread safe so it's shared */
+    DateTimeFormatter DEFAULT_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    /**
+     * receive the cell of header row, by default it's ignored.
+     * */
+    default void onHeader(int cellIndex, String name) {
+    }
+
+    R newRow();
+
+    void onString(R row, int cellIndex, String value);
+
+    default void onNumeric(R row, int cellIndex, double value) {
+        onString(row, cellIndex, Double.toString(value));
+    }
+
+    default void onDate(R row, int cellIndex, LocalDate value) {
+        onString(row, cellIndex, DEFAULT_DATE_FORMATTER.format(value));
+    }
+
+    default void onBlank(R row, int cellIndex) {
+    }
+}
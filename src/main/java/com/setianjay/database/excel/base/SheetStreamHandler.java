@@ -0,0 +1,162 @@
+package com.setianjay.database.excel.base;
+
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SAX handler for sheet xml in xlsx file. every parsed cell is passed to {@link SheetRowHandler} with the same type
+ * like {@link ExcelWorkbook} read it from the whole workbook (string, numeric or date cell).
+ * */
+class SheetStreamHandler extends DefaultHandler {
+    private final SharedStrings sharedStrings;
+    private final StylesTable stylesTable;
+    private final SheetRowHandler rowHandler;
+    private final StringBuilder cellValue = new StringBuilder();
+    /* whether the cell style (by its index) is date format, so the style is only resolved once */
+    private final Map<String, Boolean> dateFormattedStyles = new HashMap<>();
+
+    private int rowIndex = -1;
+    private int cellIndex = -1;
+    private String cellType;
+    private String cellStyle;
+    private boolean isCollectingValue;
+
+    SheetStreamHandler(SharedStrings sharedStrings, StylesTable stylesTable, SheetRowHandler rowHandler) {
+        this.sharedStrings = sharedStrings;
+        this.stylesTable = stylesTable;
+        this.rowHandler = rowHandler;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        switch (localName) {
+            case "row" -> {
+                String rowReference = attributes.getValue("r");
+                rowIndex = rowReference != null ? Integer.parseInt(rowReference) - 1 : rowIndex + 1;
+                cellIndex = -1;
+                rowHandler.startRow(rowIndex);
+            }
+            case "c" -> {
+                String cellReference = attributes.getValue("r");
+                cellIndex = cellReference != null ? mapReferenceToColumnIndex(cellReference) : cellIndex + 1;
+                cellType = attributes.getValue("t");
+                cellStyle = attributes.getValue("s");
+                cellValue.setLength(0);
+            }
+            // "v" hold the cell value, "t" hold the text of inline string cell
+            case "v", "t" -> isCollectingValue = true;
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (isCollectingValue) {
+            cellValue.append(ch, start, length);
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        switch (localName) {
+            case "v", "t" -> isCollectingValue = false;
+            case "c" -> mapCellValue();
+            case "row" -> rowHandler.endRow(rowIndex);
+            default -> {
+            }
+        }
+    }
+
+    private void mapCellValue() {
+        if (cellValue.isEmpty()) {
+            rowHandler.blankCell(cellIndex);
+            return;
+        }
+
+        if (cellType == null || cellType.equals("n")) {
+            double numericValue = Double.parseDouble(cellValue.toString());
+            if (isDateFormatted(numericValue)) {
+                rowHandler.dateCell(cellIndex, DateUtil.getLocalDateTime(numericValue).toLocalDate());
+            } else {
+                rowHandler.numericCell(cellIndex, numericValue);
+            }
+        } else if (cellType.equals("s")) {
+            int sharedStringIndex = Integer.parseInt(cellValue, 0, cellValue.length(), 10);
+            rowHandler.stringCell(cellIndex, sharedStrings.getItemAt(sharedStringIndex).getString());
+        } else if (cellType.equals("inlineStr") || cellType.equals("str")) {
+            rowHandler.stringCell(cellIndex, cellValue.toString());
+        }
+    }
+
+    private boolean isDateFormatted(double numericValue) {
+        if (cellStyle == null || stylesTable == null || !DateUtil.isValidExcelDate(numericValue)) {
+            return false;
+        }
+
+        Boolean isDateStyle = dateFormattedStyles.get(cellStyle);
+        if (isDateStyle == null) {
+            isDateStyle = isDateFormatStyle(Integer.parseInt(cellStyle));
+            dateFormattedStyles.put(cellStyle, isDateStyle);
+        }
+
+        return isDateStyle;
+    }
+
+    private boolean isDateFormatStyle(int styleIndex) {
+        XSSFCellStyle style = stylesTable.getStyleAt(styleIndex);
+        if (style == null) {
+            return false;
+        }
+
+        int formatIndex = style.getDataFormat();
+        String formatString = style.getDataFormatString();
+        if (formatString == null) {
+            formatString = BuiltinFormats.getBuiltinFormat(formatIndex);
+        }
+
+        return DateUtil.isADateFormat(formatIndex, formatString);
+    }
+
+    /**
+     * map cell reference like "AB12" to zero based column index.
+     * */
+    private int mapReferenceToColumnIndex(String cellReference) {
+        int columnIndex = 0;
+        for (int i = 0; i < cellReference.length(); i++) {
+            char c = cellReference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            columnIndex = columnIndex * 26 + (c - 'A' + 1);
+        }
+
+        return columnIndex - 1;
+    }
+
+    /**
+     * callback for every parsed row and cell in the sheet.
+     * */
+    interface SheetRowHandler {
+        void startRow(int rowIndex);
+
+        void stringCell(int cellIndex, String value);
+
+        void numericCell(int cellIndex, double value);
+
+        void dateCell(int cellIndex, LocalDate value);
+
+        void blankCell(int cellIndex);
+
+        void endRow(int rowIndex);
+    }
+}
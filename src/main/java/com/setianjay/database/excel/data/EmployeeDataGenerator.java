@@ -0,0 +1,90 @@
+package com.setianjay.database.excel.data;
+
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.ExcelType;
+import com.setianjay.database.enums.Gender;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * generate employee data with the same columns as the employee excel file, every value only depend on the row index
+ * so every benchmark run read the same data.
+ * */
+public class EmployeeDataGenerator {
+    /* maximum rows in one sheet of xls file */
+    public static final int MAX_XLS_ROWS = 65_535;
+
+    private static final String[] JOB_TITLES = {"Sr. Manager", "Technical Architect", "Director", "Analyst",
+            "Computer Systems Manager", "Network Engineer"};
+    private static final String[] DEPARTMENTS = {"IT", "Finance", "Sales", "Human Resources", "Accounting",
+            "Engineering", "Marketing"};
+    private static final String[] BUSINESS_UNITS = {"Research & Development", "Manufacturing", "Speciality Products",
+            "Corporate"};
+    private static final String[] ETHNICITIES = {"Black", "Asian", "Caucasian", "Latino"};
+    private static final String[][] CITIES = {{"United States", "Seattle"}, {"China", "Chongqing"},
+            {"Brazil", "Manaus"}, {"United States", "Miami"}, {"China", "Shanghai"}};
+    private static final LocalDate FIRST_HIRE_DATE = LocalDate.of(1995, 1, 1);
+
+    private EmployeeDataGenerator() {
+
+    }
+
+    /**
+     * @return stream of employees with index 1 until {@code totalRow}.
+     * */
+    public static Stream<Employee> employees(int totalRow) {
+        return IntStream.rangeClosed(1, totalRow).mapToObj(EmployeeDataGenerator::employee);
+    }
+
+    public static Employee employee(int index) {
+        Employee employee = new Employee();
+        employee.setId(String.format("E%07d", index));
+        employee.setFullName("Employee " + index);
+        employee.setJobTitle(JOB_TITLES[index % JOB_TITLES.length]);
+        employee.setDepartment(DEPARTMENTS[index % DEPARTMENTS.length]);
+        employee.setBusinessUnit(BUSINESS_UNITS[index % BUSINESS_UNITS.length]);
+        employee.setGender(index % 2 == 0 ? Gender.MALE : Gender.FEMALE);
+        employee.setEthnicity(ETHNICITIES[index % ETHNICITIES.length]);
+        employee.setAge(25 + index % 40);
+        employee.setHireDate(FIRST_HIRE_DATE.plusDays(index % 10_000).toString());
+        employee.setAnnualSalary(40_000 + index % 200_000);
+        employee.setBonus((index % 40) + "%");
+        employee.setCountry(CITIES[index % CITIES.length][0]);
+        employee.setCity(CITIES[index % CITIES.length][1]);
+        employee.setExitDate(index % 10 == 0 ? FIRST_HIRE_DATE.plusDays(index % 10_000 + 365).toString() : null);
+
+        return employee;
+    }
+
+    /**
+     * write {@code totalRow} employees (plus the header row) to the first sheet of new excel file.
+     * */
+    public static void writeExcelFile(File excelFile, ExcelType excelType, int totalRow) throws IOException {
+        if (excelType == ExcelType.xls && totalRow > MAX_XLS_ROWS) {
+            throw new IllegalArgumentException("xls file can only hold " + MAX_XLS_ROWS + " rows");
+        }
+
+        // SXSSFWorkbook only keep a window of rows in the memory, so big xlsx file can be generated
+        try (Workbook workbook = excelType == ExcelType.xls ? new HSSFWorkbook() : new SXSSFWorkbook(1_000);
+             OutputStream outputStream = new FileOutputStream(excelFile)) {
+            EmployeeSheetWriter sheetWriter = new EmployeeSheetWriter(workbook, "Employee");
+            for (int rowIndex = 1; rowIndex <= totalRow; rowIndex++) {
+                sheetWriter.write(employee(rowIndex));
+            }
+
+            workbook.write(outputStream);
+            if (workbook instanceof SXSSFWorkbook streamingWorkbook) {
+                streamingWorkbook.dispose(); // delete the temporary files
+            }
+        }
+    }
+}
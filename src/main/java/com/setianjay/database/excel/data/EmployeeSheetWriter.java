@@ -0,0 +1,111 @@
+package com.setianjay.database.excel.data;
+
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.excel.mapping.ColumnMappings;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Write {@link Employee} rows to a sheet with the same column layout as the employee excel file, so the sheet can be
+ * read again by {@link EmployeeWorkbook} or {@link ColumnMappings#EMPLOYEE}. the header row is written when the
+ * sheet is created, age and annual salary are numeric cells and the dates are date cells.
+ * <br />
+ * <br />
+ * This class isn't thread safe, like the {@link Workbook} itself.
+ * */
+public class EmployeeSheetWriter {
+    /* date format of date text in the employee excel file */
+    private static final DateTimeFormatter SHEET_DATE_FORMATTER = DateTimeFormatter.ofPattern("M/d/yyyy");
+
+    private final Sheet sheet;
+    private final CellStyle dateStyle;
+    private int nextRowIndex;
+
+    /**
+     * create new sheet in the workbook and write the header row.
+     * */
+    public EmployeeSheetWriter(Workbook workbook, String sheetName) {
+        this.sheet = workbook.createSheet(sheetName);
+        this.dateStyle = workbook.createCellStyle();
+        this.dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("m/d/yyyy"));
+
+        List<String> headerNames = ColumnMappings.EMPLOYEE.getHeaderNames();
+        Row header = sheet.createRow(nextRowIndex++);
+        for (int cellIndex = 0; cellIndex < headerNames.size(); cellIndex++) {
+            header.createCell(cellIndex).setCellValue(headerNames.get(cellIndex));
+        }
+    }
+
+    public void write(Employee employee) {
+        Row row = sheet.createRow(nextRowIndex++);
+        writeStringCell(row, 0, employee.getId());
+        writeStringCell(row, 1, employee.getFullName());
+        writeStringCell(row, 2, employee.getJobTitle());
+        writeStringCell(row, 3, employee.getDepartment());
+        writeStringCell(row, 4, employee.getBusinessUnit());
+        writeStringCell(row, 5, employee.getGender() != null ? employee.getGender().getValue() : null);
+        writeStringCell(row, 6, employee.getEthnicity());
+        row.createCell(7).setCellValue(employee.getAge());
+        writeDateCell(row, 8, employee.getHireDate());
+        row.createCell(9).setCellValue(employee.getAnnualSalary());
+        writeStringCell(row, 10, employee.getBonus());
+        writeStringCell(row, 11, employee.getCountry());
+        writeStringCell(row, 12, employee.getCity());
+        writeDateCell(row, 13, employee.getExitDate());
+    }
+
+    /**
+     * @return rows in the sheet, including the header row.
+     * */
+    public int getRowCount() {
+        return nextRowIndex;
+    }
+
+    /* null value is written as blank cell, the cell isn't created */
+    private static void writeStringCell(Row row, int cellIndex, String value) {
+        if (value != null) {
+            row.createCell(cellIndex).setCellValue(value);
+        }
+    }
+
+    /**
+     * write yyyy-MM-dd or M/d/yyyy date as date cell, date with other format is written as text.
+     * */
+    private void writeDateCell(Row row, int cellIndex, String date) {
+        if (date == null || date.isBlank()) {
+            return;
+        }
+
+        LocalDate localDate = parseDate(date.trim());
+        Cell cell = row.createCell(cellIndex);
+        if (localDate == null) {
+            cell.setCellValue(date);
+            return;
+        }
+
+        cell.setCellValue(Date.from(localDate.atStartOfDay(ZoneId.systemDefault()).toInstant()));
+        cell.setCellStyle(dateStyle);
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException exception) {
+            try {
+                return LocalDate.parse(date, SHEET_DATE_FORMATTER);
+            } catch (DateTimeParseException sheetDateException) {
+                return null;
+            }
+        }
+    }
+}
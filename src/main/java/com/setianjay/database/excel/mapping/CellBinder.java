@@ -0,0 +1,22 @@
+package com.setianjay.database.excel.mapping;
+
+import com.setianjay.database.excel.base.RowMapper;
+
+import java.time.LocalDate;
+
+/**
+ * bind the value of one cell to the row data {@code R}. by default numeric and date cell are bound as string, the
+ * same as {@link RowMapper} do.
+ * */
+@FunctionalInterface
+public interface CellBinder<R> {
+    void bindString(R row, String value);
+
+    default void bindNumeric(R row, double value) {
+        bindString(row, Double.toString(value));
+    }
+
+    default void bindDate(R row, LocalDate value) {
+        bindString(row, RowMapper.DEFAULT_DATE_FORMATTER.format(value));
+    }
+}
@@ -0,0 +1,269 @@
+package com.setianjay.database.excel.mapping;
+
+import com.setianjay.database.excel.base.RowMapper;
+import com.setianjay.database.util.MapUtil;
+import com.setianjay.database.util.StringInterner;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Map the columns of the sheet to data {@code T} by the header name in the first row, so the order of columns in the
+ * sheet doesn't matter.
+ * <br />
+ * <br />
+ * Every cell is bound to the row holder {@code R}, then the holder is finished to the data. For mutable data like
+ * {@link com.setianjay.database.entity.Employee} the holder is the data itself, for record the holder is usually an
+ * array that is passed to the record constructor.
+ * <br />
+ * <br />
+ * The header is resolved once per sheet into a table of {@link CellBinder} by column index, so mapping every row is
+ * only an array lookup and a lambda call for every cell.
+ * */
+public final class ColumnMapping<R, T> {
+    private final Supplier<R> rowFactory;
+    private final Function<R, T> rowFinisher;
+    private final Predicate<T> rowFilter;
+    /* column by its normalized header name */
+    private final Map<String, Column<R>> columns;
+
+    private ColumnMapping(Builder<R, T> builder) {
+        this.rowFactory = builder.rowFactory;
+        this.rowFinisher = builder.rowFinisher;
+        this.rowFilter = builder.rowFilter;
+        this.columns = Collections.unmodifiableMap(new LinkedHashMap<>(builder.columns));
+    }
+
+    /**
+     * create builder for mutable data, the data is created by {@code dataFactory} and every cell is bound to it
+     * directly.
+     * */
+    public static <T> Builder<T, T> builder(Supplier<T> dataFactory) {
+        return new Builder<>(dataFactory, Function.identity());
+    }
+
+    /**
+     * create builder for immutable data like record, every cell is bound to the row holder that is created by
+     * {@code rowFactory}, then the holder is finished to the data by {@code rowFinisher}.
+     * */
+    public static <R, T> Builder<R, T> builder(Supplier<R> rowFactory, Function<R, T> rowFinisher) {
+        return new Builder<>(rowFactory, rowFinisher);
+    }
+
+    /**
+     * @return header names of every column in this mapping, with the same order as they are added to the builder.
+     * */
+    public List<String> getHeaderNames() {
+        List<String> headerNames = new ArrayList<>(columns.size());
+        for (Column<R> column : columns.values()) {
+            headerNames.add(column.headerName());
+        }
+
+        return headerNames;
+    }
+
+    /**
+     * create new {@link RowMapper} that resolves the header of one sheet, so use new row mapper for every sheet.
+     * */
+    public RowMapper<R> newRowMapper() {
+        return new HeaderRowMapper();
+    }
+
+    public T finishRow(R row) {
+        return rowFinisher.apply(row);
+    }
+
+    /**
+     * @return true if the data should be passed to the consumer, for example row without id is skipped.
+     * */
+    public boolean acceptRow(T data) {
+        return rowFilter.test(data);
+    }
+
+    private static String normalizeHeaderName(String headerName) {
+        return headerName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param cellBinderFactory create the cell binder of the column for every row mapper, so the binder that hold
+     *                          state (like the dictionary of interned column) is scoped to one read of the sheet.
+     * */
+    private record Column<R>(String headerName, boolean isRequired, Supplier<CellBinder<R>> cellBinderFactory) {
+    }
+
+    public static final class Builder<R, T> {
+        private final Supplier<R> rowFactory;
+        private final Function<R, T> rowFinisher;
+        private final Map<String, Column<R>> columns = new LinkedHashMap<>();
+        private Predicate<T> rowFilter = data -> true;
+
+        private Builder(Supplier<R> rowFactory, Function<R, T> rowFinisher) {
+            this.rowFactory = rowFactory;
+            this.rowFinisher = rowFinisher;
+        }
+
+        /**
+         * map the column with {@code headerName}, the header must be exist in the sheet.
+         * */
+        public Builder<R, T> column(String headerName, CellBinder<R> cellBinder) {
+            return addColumn(headerName, true, cellBinder);
+        }
+
+        /**
+         * the same as {@link #column(String, CellBinder)} but the column is skipped if the header doesn't exist.
+         * */
+        public Builder<R, T> optionalColumn(String headerName, CellBinder<R> cellBinder) {
+            return addColumn(headerName, false, cellBinder);
+        }
+
+        public Builder<R, T> stringColumn(String headerName, BiConsumer<R, String> setter) {
+            return column(headerName, setter::accept);
+        }
+
+        /**
+         * map the column with only a few distinct values, every value is deduplicated by the {@link StringInterner}
+         * of this column before it's passed to the setter. every row mapper (one read of the sheet) has its own
+         * interner, so the dictionary is released with the read and a sheet with high cardinality column doesn't
+         * fill the dictionary of the next reads.
+         * */
+        public Builder<R, T> internedColumn(String headerName, BiConsumer<R, String> setter) {
+            return addColumn(headerName, true, () -> {
+                StringInterner stringInterner = new StringInterner();
+                return (row, value) -> setter.accept(row, stringInterner.intern(value));
+            });
+        }
+
+        /**
+         * map the column that hold integer value, the value can be numeric cell or string cell like "30.0".
+         * */
+        public Builder<R, T> intColumn(String headerName, ObjIntConsumer<R> setter) {
+            return column(headerName, new CellBinder<>() {
+                @Override
+                public void bindString(R row, String value) {
+                    setter.accept(row, MapUtil.mapDoubleToInt(value));
+                }
+
+                @Override
+                public void bindNumeric(R row, double value) {
+                    setter.accept(row, MapUtil.mapDoubleToInt(value));
+                }
+            });
+        }
+
+        /**
+         * only data that match the {@code rowFilter} is passed to the consumer.
+         * */
+        public Builder<R, T> filter(Predicate<T> rowFilter) {
+            this.rowFilter = rowFilter;
+            return this;
+        }
+
+        public ColumnMapping<R, T> build() {
+            if (columns.isEmpty()) {
+                throw new IllegalStateException("Column mapping must have at least one column");
+            }
+
+            return new ColumnMapping<>(this);
+        }
+
+        private Builder<R, T> addColumn(String headerName, boolean isRequired, CellBinder<R> cellBinder) {
+            return addColumn(headerName, isRequired, () -> cellBinder);
+        }
+
+        private Builder<R, T> addColumn(String headerName, boolean isRequired,
+                                        Supplier<CellBinder<R>> cellBinderFactory) {
+            Column<R> column = new Column<>(headerName, isRequired, cellBinderFactory);
+            if (columns.putIfAbsent(normalizeHeaderName(headerName), column) != null) {
+                throw new IllegalArgumentException("Duplicate column mapping for header: " + headerName);
+            }
+
+            return this;
+        }
+    }
+
+    private class HeaderRowMapper implements RowMapper<R> {
+        /* cell binder by column index, null for column that isn't mapped */
+        private CellBinder<R>[] cellBinders = newCellBinders(0);
+        private final Set<String> resolvedHeaders = new HashSet<>();
+        private boolean isResolved;
+
+        @Override
+        public void onHeader(int cellIndex, String name) {
+            String headerName = normalizeHeaderName(name);
+            Column<R> column = columns.get(headerName);
+            if (column == null) {
+                return;
+            }
+
+            if (!resolvedHeaders.add(headerName)) {
+                throw new IllegalArgumentException("Duplicate header in the sheet: " + name);
+            }
+
+            if (cellIndex >= cellBinders.length) {
+                cellBinders = Arrays.copyOf(cellBinders, cellIndex + 1);
+            }
+            cellBinders[cellIndex] = column.cellBinderFactory().get();
+        }
+
+        @Override
+        public R newRow() {
+            if (!isResolved) {
+                verifyRequiredHeaders();
+                isResolved = true;
+            }
+
+            return rowFactory.get();
+        }
+
+        @Override
+        public void onString(R row, int cellIndex, String value) {
+            CellBinder<R> cellBinder = getCellBinder(cellIndex);
+            if (cellBinder != null) {
+                cellBinder.bindString(row, value);
+            }
+        }
+
+        @Override
+        public void onNumeric(R row, int cellIndex, double value) {
+            CellBinder<R> cellBinder = getCellBinder(cellIndex);
+            if (cellBinder != null) {
+                cellBinder.bindNumeric(row, value);
+            }
+        }
+
+        @Override
+        public void onDate(R row, int cellIndex, LocalDate value) {
+            CellBinder<R> cellBinder = getCellBinder(cellIndex);
+            if (cellBinder != null) {
+                cellBinder.bindDate(row, value);
+            }
+        }
+
+        private CellBinder<R> getCellBinder(int cellIndex) {
+            return cellIndex < cellBinders.length ? cellBinders[cellIndex] : null;
+        }
+
+        private void verifyRequiredHeaders() {
+            List<String> missingHeaders = new ArrayList<>();
+            for (Map.Entry<String, Column<R>> column : columns.entrySet()) {
+                if (column.getValue().isRequired() && !resolvedHeaders.contains(column.getKey())) {
+                    missingHeaders.add(column.getValue().headerName());
+                }
+            }
+
+            if (!missingHeaders.isEmpty()) {
+                throw new IllegalArgumentException("Missing header in the sheet: " + missingHeaders);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private CellBinder<R>[] newCellBinders(int length) {
+            return (CellBinder<R>[]) new CellBinder<?>[length];
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.setianjay.database.excel.mapping;
+
+import com.setianjay.database.entity.Customer;
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.entity.User;
+import com.setianjay.database.enums.Gender;
+
+/**
+ * {@link ColumnMapping} for every entity in this project.
+ * */
+public class ColumnMappings {
+
+    private ColumnMappings() {
+
+    }
+
+    public static final ColumnMapping<String[], Customer> CUSTOMER = ColumnMapping
+            .builder(() -> new String[3], values -> new Customer(values[0], values[1], values[2]))
+            .stringColumn("Id", (values, value) -> values[0] = value)
+            .stringColumn("Name", (values, value) -> values[1] = value)
+            .stringColumn("Email", (values, value) -> values[2] = value)
+            .filter(customer -> customer.id() != null)
+            .build();
+
+    public static final ColumnMapping<String[], User> USER = ColumnMapping
+            .builder(() -> new String[2], values -> new User(values[0], values[1]))
+            .stringColumn("Username", (values, value) -> values[0] = value)
+            .stringColumn("Password", (values, value) -> values[1] = value)
+            .filter(user -> user.username() != null)
+            .build();
+
+    /*
+     * the header names are the same as the header names in the employee excel file, columns with only a few distinct
+     * values are interned
+     * */
+    public static final ColumnMapping<Employee, Employee> EMPLOYEE = ColumnMapping
+            .builder(Employee::new)
+            .stringColumn("EEID", Employee::setId)
+            .stringColumn("Full Name", Employee::setFullName)
+            .internedColumn("Job Title", Employee::setJobTitle)
+            .internedColumn("Department", Employee::setDepartment)
+            .internedColumn("Business Unit", Employee::setBusinessUnit)
+            .stringColumn("Gender", (employee, value) -> employee.setGender(Gender.mapStringToGender(value)))
+            .internedColumn("Ethnicity", Employee::setEthnicity)
+            .intColumn("Age", Employee::setAge)
+            .stringColumn("Hire Date", Employee::setHireDate)
+            .intColumn("Annual Salary", Employee::setAnnualSalary)
+            .stringColumn("Bonus %", Employee::setBonus)
+            .internedColumn("Country", Employee::setCountry)
+            .internedColumn("City", Employee::setCity)
+            .stringColumn("Exit Date", Employee::setExitDate)
+            .filter(employee -> employee.getId() != null)
+            .build();
+}
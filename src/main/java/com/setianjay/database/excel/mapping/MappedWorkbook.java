@@ -0,0 +1,74 @@
+package com.setianjay.database.excel.mapping;
+
+import com.setianjay.database.enums.ExcelType;
+import com.setianjay.database.enums.ReadMode;
+import com.setianjay.database.excel.base.ExcelWorkbook;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * {@link ExcelWorkbook} that map the rows with {@link ColumnMapping}, so there is no need to write new workbook class
+ * for every entity, for example:
+ * <br />
+ * <br />
+ * {@code new MappedWorkbook<>(excelFile, ReadMode.STREAMING, ColumnMappings.CUSTOMER)}
+ * */
+public class MappedWorkbook<T> extends ExcelWorkbook<T> {
+    private final ColumnMapping<?, T> columnMapping;
+
+    public MappedWorkbook(ExcelType excelType, InputStream excelFileInputStream, ColumnMapping<?, T> columnMapping)
+            throws IOException {
+        super(excelType, excelFileInputStream);
+        this.columnMapping = columnMapping;
+    }
+
+    public MappedWorkbook(ExcelType excelType, InputStream excelFileInputStream, ReadMode readMode,
+                          ColumnMapping<?, T> columnMapping) throws IOException {
+        super(excelType, excelFileInputStream, readMode);
+        this.columnMapping = columnMapping;
+    }
+
+    public MappedWorkbook(File excelFile, ReadMode readMode, ColumnMapping<?, T> columnMapping) throws IOException {
+        super(excelFile, readMode);
+        this.columnMapping = columnMapping;
+    }
+
+    @Override
+    public List<T> readDataInSingleSheet() {
+        List<T> data = new ArrayList<>();
+        this.readDataInSheet(0, data::add);
+
+        return data;
+    }
+
+    @Override
+    public void readDataInSheet(int sheetIndex, Consumer<T> dataConsumer) {
+        this.readMappedRows(columnMapping, sheetIndex, dataConsumer);
+    }
+
+    @Override
+    public Stream<T> streamDataInSingleSheet() {
+        return this.streamMappedRows(columnMapping);
+    }
+
+    private <R> void readMappedRows(ColumnMapping<R, T> mapping, int sheetIndex, Consumer<T> dataConsumer) {
+        this.readRowsInSheet(sheetIndex, mapping.newRowMapper(), row -> {
+            T data = mapping.finishRow(row);
+            if (mapping.acceptRow(data)) {
+                dataConsumer.accept(data);
+            }
+        });
+    }
+
+    private <R> Stream<T> streamMappedRows(ColumnMapping<R, T> mapping) {
+        return this.streamRowsInSheet(0, mapping.newRowMapper())
+                .map(mapping::finishRow)
+                .filter(mapping::acceptRow);
+    }
+}
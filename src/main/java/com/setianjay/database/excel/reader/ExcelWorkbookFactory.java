@@ -0,0 +1,15 @@
+package com.setianjay.database.excel.reader;
+
+import com.setianjay.database.enums.ReadMode;
+import com.setianjay.database.excel.base.ExcelWorkbook;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * create {@link ExcelWorkbook} for a file, for example {@code EmployeeWorkbook::new}.
+ * */
+@FunctionalInterface
+public interface ExcelWorkbookFactory<T> {
+    ExcelWorkbook<T> create(File excelFile, ReadMode readMode) throws IOException;
+}
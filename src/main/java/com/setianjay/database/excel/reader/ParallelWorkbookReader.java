@@ -0,0 +1,268 @@
+package com.setianjay.database.excel.reader;
+
+import com.setianjay.database.enums.ExcelType;
+import com.setianjay.database.enums.ReadMode;
+import com.setianjay.database.enums.ReadOrder;
+import com.setianjay.database.excel.base.ExcelWorkbook;
+import com.setianjay.database.util.FileUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Read every sheet of several excel files in parallel with bounded thread pool, then merge the data into one sink
+ * or one stream.
+ * <br />
+ * <br />
+ * Every sheet of xlsx file is read by its own task in {@link ReadMode#STREAMING}. xls file can only be read as the
+ * whole workbook, so all sheets of xls file are read by one task.
+ * */
+public class ParallelWorkbookReader<T> {
+    /* total rows read from one sheet between progress reports */
+    private static final int PROGRESS_INTERVAL = 10_000;
+    /* maximum data waiting to be consumed from every task */
+    private static final int QUEUE_CAPACITY = 256;
+    /* index of sheet for task that read all sheets in the file */
+    private static final int ALL_SHEETS = -1;
+    /* marker that tell the consumer the task is finished */
+    private static final Object END_OF_TASK = new Object();
+
+    private final ExcelWorkbookFactory<T> workbookFactory;
+    private final int parallelism;
+    private final ReadOrder readOrder;
+    private final SheetProgressListener progressListener;
+
+    public ParallelWorkbookReader(ExcelWorkbookFactory<T> workbookFactory, int parallelism, ReadOrder readOrder) {
+        this(workbookFactory, parallelism, readOrder, progress -> {
+        });
+    }
+
+    public ParallelWorkbookReader(ExcelWorkbookFactory<T> workbookFactory, int parallelism, ReadOrder readOrder,
+                                  SheetProgressListener progressListener) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+
+        this.workbookFactory = workbookFactory;
+        this.parallelism = parallelism;
+        this.readOrder = readOrder;
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * read all data from the files and pass them to the sink. the sink is called from the caller thread, so it
+     * doesn't need to be thread safe.
+     * */
+    public void read(List<File> excelFiles, Consumer<T> sink) {
+        try (Stream<T> dataStream = stream(excelFiles)) {
+            dataStream.forEach(sink);
+        }
+    }
+
+    /**
+     * stream all data from the files. the reading starts when the stream is consumed and it's stopped when the
+     * stream is closed, so use it in try-with-resources.
+     * */
+    public Stream<T> stream(List<File> excelFiles) {
+        MergedDataIterator dataIterator = new MergedDataIterator(planSheetTasks(excelFiles));
+        Spliterator<T> dataSpliterator = Spliterators.spliteratorUnknownSize(dataIterator,
+                readOrder == ReadOrder.SOURCE_ORDER ? Spliterator.ORDERED | Spliterator.NONNULL
+                        : Spliterator.NONNULL);
+
+        return StreamSupport.stream(dataSpliterator, false).onClose(dataIterator::close);
+    }
+
+    private List<SheetTask> planSheetTasks(List<File> excelFiles) {
+        List<SheetTask> sheetTasks = new ArrayList<>();
+
+        for (File excelFile : excelFiles) {
+            ExcelType excelType = ExcelType.valueOf(FileUtil.getExtensionFile(excelFile.getName()));
+            if (excelType == ExcelType.xls) {
+                sheetTasks.add(new SheetTask(excelFile, ALL_SHEETS, ReadMode.WORKBOOK));
+                continue;
+            }
+
+            // xlsx in streaming mode only read the sheet list, so it's cheap to open the file for every sheet
+            try (ExcelWorkbook<T> excelWorkbook = workbookFactory.create(excelFile, ReadMode.STREAMING)) {
+                int numberOfSheets = excelWorkbook.getNumberOfSheets();
+                for (int sheetIndex = 0; sheetIndex < numberOfSheets; sheetIndex++) {
+                    sheetTasks.add(new SheetTask(excelFile, sheetIndex, ReadMode.STREAMING));
+                }
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+
+        return sheetTasks;
+    }
+
+    private record SheetTask(File excelFile, int sheetIndex, ReadMode readMode) {
+    }
+
+    private record TaskFailure(RuntimeException exception) {
+    }
+
+    private class MergedDataIterator implements Iterator<T> {
+        private final List<SheetTask> sheetTasks;
+        private final List<BlockingQueue<Object>> dataQueues = new ArrayList<>();
+        private ExecutorService executor;
+        private int currentQueue;
+        private int finishedTasks;
+        private Object nextData;
+        private volatile boolean isClosed;
+
+        private MergedDataIterator(List<SheetTask> sheetTasks) {
+            this.sheetTasks = sheetTasks;
+        }
+
+        private void start() {
+            executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, "parallel-workbook-reader");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            // source order need one queue per task to keep the order, unordered share one queue for all tasks
+            BlockingQueue<Object> sharedQueue = readOrder == ReadOrder.UNORDERED
+                    ? new ArrayBlockingQueue<>(QUEUE_CAPACITY * parallelism) : null;
+
+            for (SheetTask sheetTask : sheetTasks) {
+                BlockingQueue<Object> dataQueue = sharedQueue != null ? sharedQueue
+                        : new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+                dataQueues.add(dataQueue);
+                executor.execute(() -> runTask(sheetTask, dataQueue));
+            }
+        }
+
+        private void runTask(SheetTask sheetTask, BlockingQueue<Object> dataQueue) {
+            Object lastItem = END_OF_TASK;
+
+            try (ExcelWorkbook<T> excelWorkbook = workbookFactory.create(sheetTask.excelFile(),
+                    sheetTask.readMode())) {
+                if (sheetTask.sheetIndex() == ALL_SHEETS) {
+                    for (int sheetIndex = 0; sheetIndex < excelWorkbook.getNumberOfSheets(); sheetIndex++) {
+                        readSheet(excelWorkbook, sheetTask.excelFile(), sheetIndex, dataQueue);
+                    }
+                } else {
+                    readSheet(excelWorkbook, sheetTask.excelFile(), sheetTask.sheetIndex(), dataQueue);
+                }
+            } catch (StopReadingException exception) {
+                return;
+            } catch (IOException exception) {
+                lastItem = new TaskFailure(new UncheckedIOException(exception));
+            } catch (RuntimeException exception) {
+                lastItem = new TaskFailure(exception);
+            }
+
+            try {
+                putItem(dataQueue, lastItem);
+            } catch (StopReadingException ignored) {
+                // the stream is closed, nobody wait for this task anymore
+            }
+        }
+
+        private void readSheet(ExcelWorkbook<T> excelWorkbook, File excelFile, int sheetIndex,
+                               BlockingQueue<Object> dataQueue) {
+            long[] totalRow = new long[1];
+
+            excelWorkbook.readDataInSheet(sheetIndex, data -> {
+                putItem(dataQueue, data);
+                if (++totalRow[0] % PROGRESS_INTERVAL == 0) {
+                    progressListener.onProgress(new SheetProgress(excelFile, sheetIndex, totalRow[0], false));
+                }
+            });
+
+            progressListener.onProgress(new SheetProgress(excelFile, sheetIndex, totalRow[0], true));
+        }
+
+        private void putItem(BlockingQueue<Object> dataQueue, Object item) {
+            if (isClosed) {
+                throw new StopReadingException();
+            }
+
+            try {
+                dataQueue.put(item);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new StopReadingException();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (executor == null) {
+                start();
+            }
+
+            while (nextData == null) {
+                if (isClosed || finishedTasks == sheetTasks.size()) {
+                    return false;
+                }
+
+                Object item = takeItem();
+                if (item == END_OF_TASK) {
+                    finishedTasks++;
+                    if (readOrder == ReadOrder.SOURCE_ORDER) {
+                        currentQueue++;
+                    }
+                } else if (item instanceof TaskFailure failure) {
+                    close();
+                    throw failure.exception();
+                } else {
+                    nextData = item;
+                }
+            }
+
+            return true;
+        }
+
+        private Object takeItem() {
+            try {
+                return dataQueues.get(currentQueue).take();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new IllegalStateException("Interrupted while waiting for the next data", exception);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            T data = (T) nextData;
+            nextData = null;
+            return data;
+        }
+
+        private void close() {
+            isClosed = true;
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * thrown from data consumer to stop reading when the stream is closed.
+     * */
+    private static class StopReadingException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private StopReadingException() {
+            super(null, null, false, false);
+        }
+    }
+}
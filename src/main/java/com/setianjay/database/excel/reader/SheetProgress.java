@@ -0,0 +1,14 @@
+package com.setianjay.database.excel.reader;
+
+import java.io.File;
+
+/**
+ * progress of reading one sheet.
+ *
+ * @param excelFile  the file that hold the sheet.
+ * @param sheetIndex index of the sheet in the file.
+ * @param totalRow   total data that is already read from the sheet.
+ * @param isFinished whether the whole sheet is already read.
+ * */
+public record SheetProgress(File excelFile, int sheetIndex, long totalRow, boolean isFinished) {
+}
@@ -0,0 +1,9 @@
+package com.setianjay.database.excel.reader;
+
+/**
+ * listener for {@link SheetProgress}, it's called from the reader threads so the implementation must be thread safe.
+ * */
+@FunctionalInterface
+public interface SheetProgressListener {
+    void onProgress(SheetProgress progress);
+}
@@ -0,0 +1,303 @@
+package com.setianjay.database.executor;
+
+import com.setianjay.database.repository.JdbcSession;
+import com.setianjay.database.util.ConnectionUtil;
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Run database calls in other thread and return {@link CompletableFuture}, so thousands of concurrent calls can be
+ * handled without blocking thousands of platform threads:
+ * <br />
+ * 1. every call run in its own virtual thread, virtual thread that wait for the connection or the database doesn't
+ * hold platform thread. virtual thread is preview API in Java 19 and 20, so it's used only when it's available
+ * (Java 21+ or --enable-preview), otherwise the calls run in a fixed pool of as many daemon platform threads as the
+ * connection pool size, so the platform threads are bounded like the connections.
+ * <br />
+ * 2. only as many calls as the connection pool size borrow connection at one time, the others wait for the permit
+ * instead of waiting in the pool and timing out there.
+ * <br />
+ * 3. only {@link ExecutorConfig#maxPending()} calls can wait or run at one time, the next call fail with
+ * {@link RejectedExecutionException} right away instead of waiting in unbounded queue.
+ * <br />
+ * 4. call that isn't finished within its timeout fail with {@link java.util.concurrent.TimeoutException}, call whose
+ * future is cancelled or timed out stop waiting for the permit and its running statements are cancelled.
+ * <br />
+ * <br />
+ * Every call get new {@link JdbcSession}, so the repository methods that take session are used, for example:
+ * <br />
+ * {@code executor.submit(session -> customerRepository.findById(session, id))}
+ * */
+public class DatabaseExecutor implements AutoCloseable {
+    /* null if virtual thread isn't available */
+    private static final ThreadFactory VIRTUAL_THREAD_FACTORY = createVirtualThreadFactory();
+    /* idle platform thread is stopped after it, so an idle executor doesn't hold threads */
+    private static final long PLATFORM_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    private final DataSource dataSource;
+    private final ExecutorConfig executorConfig;
+    private final int maxConcurrency;
+    /* permit to borrow connection, sized to the connection pool */
+    private final Semaphore connectionPermits;
+    /* permit to wait or run, so the waiting calls are bounded */
+    private final Semaphore pendingPermits;
+    /* fixed pool of platform threads, null if the calls run in virtual threads */
+    private final ThreadPoolExecutor platformExecutor;
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private volatile boolean isClosed;
+
+    public DatabaseExecutor() {
+        this(ConnectionUtil.getDataSource(), ConnectionUtil.getHikariDataSource().getMaximumPoolSize(),
+                ExecutorConfig.defaultConfig());
+    }
+
+    /**
+     * create executor whose concurrency is the maximum pool size of the data source.
+     * */
+    public DatabaseExecutor(HikariDataSource dataSource, ExecutorConfig executorConfig) {
+        this(dataSource, dataSource.getMaximumPoolSize(), executorConfig);
+    }
+
+    public DatabaseExecutor(DataSource dataSource, int maxConcurrency, ExecutorConfig executorConfig) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be at least 1");
+        }
+
+        this.dataSource = dataSource;
+        this.executorConfig = executorConfig;
+        this.maxConcurrency = maxConcurrency;
+        this.connectionPermits = new Semaphore(maxConcurrency, true);
+        this.pendingPermits = new Semaphore(executorConfig.maxPending());
+        this.platformExecutor = executorConfig.virtualThreads() && VIRTUAL_THREAD_FACTORY != null ? null
+                : createPlatformExecutor(maxConcurrency, executorConfig.maxPending());
+    }
+
+    /**
+     * run the work with the default timeout.
+     * */
+    public <R> CompletableFuture<R> submit(JdbcSession.SqlWork<R> work) {
+        return submit(work, executorConfig.timeout());
+    }
+
+    /**
+     * run the work in other thread with new session, the session is closed after the work.
+     *
+     * @param timeout time from now until the work must be finished, including the time it waits for a connection.
+     * @return future that is completed with the result of the work, it's completed exceptionally with
+     * {@link RejectedExecutionException} if there are too many pending calls or the executor is closed, or with the
+     * exception of starting the thread of the call. this method doesn't throw.
+     * */
+    public <R> CompletableFuture<R> submit(JdbcSession.SqlWork<R> work, Duration timeout) {
+        if (isClosed || !pendingPermits.tryAcquire()) {
+            return reject(new RejectedExecutionException(isClosed
+                    ? "Database executor is closed" : "Too many pending database calls"));
+        }
+
+        // close() set the flag before it waits for the permits, so the call that see the flag unset after it hold a
+        // permit is always started before the platform executor is shut down
+        if (isClosed) {
+            pendingPermits.release();
+            return reject(new RejectedExecutionException("Database executor is closed"));
+        }
+
+        Call<R> call = new Call<>(work, System.nanoTime() + timeout.toNanos());
+        try {
+            if (platformExecutor != null) {
+                platformExecutor.execute(call);
+            } else {
+                VIRTUAL_THREAD_FACTORY.newThread(call).start();
+            }
+        } catch (RuntimeException | OutOfMemoryError exception) {
+            // for example the thread can't be created
+            pendingPermits.release();
+            return reject(exception);
+        }
+
+        // orTimeout complete the future in the JDK delayer thread, then the call is aborted by the callback
+        call.future.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS)
+                .whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        call.abort();
+                    }
+                });
+
+        return call.future;
+    }
+
+    /**
+     * @return true if the calls run in virtual threads.
+     * */
+    public boolean isVirtualThreads() {
+        return platformExecutor == null;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return calls that hold a connection permit now.
+     * */
+    public int getActiveCount() {
+        return maxConcurrency - connectionPermits.availablePermits();
+    }
+
+    /**
+     * @return calls that wait for a connection permit or run now.
+     * */
+    public int getPendingCount() {
+        return executorConfig.maxPending() - pendingPermits.availablePermits();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * reject the next calls and wait until the pending calls are finished, every pending call is finished at the
+     * latest after its timeout.
+     * */
+    @Override
+    public void close() {
+        isClosed = true;
+        pendingPermits.acquireUninterruptibly(executorConfig.maxPending());
+        pendingPermits.release(executorConfig.maxPending());
+        if (platformExecutor != null) {
+            platformExecutor.shutdown();
+        }
+    }
+
+    private <R> CompletableFuture<R> reject(Throwable exception) {
+        rejectedCount.incrementAndGet();
+        return CompletableFuture.failedFuture(exception);
+    }
+
+    private static ThreadPoolExecutor createPlatformExecutor(int maxConcurrency, int maxPending) {
+        // the pending permits already bound the queue, the capacity only makes it explicit
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency,
+                PLATFORM_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(maxPending),
+                new PlatformThreadFactory());
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        return threadPoolExecutor;
+    }
+
+    private static ThreadFactory createVirtualThreadFactory() {
+        try {
+            // Thread.ofVirtual().factory() without referencing the preview API, so it compiles for Java 19
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Object virtualThreadFactory = Class.forName("java.lang.Thread$Builder")
+                    .getMethod("factory").invoke(builder);
+            return (ThreadFactory) virtualThreadFactory;
+        } catch (ReflectiveOperationException | RuntimeException exception) {
+            // older Java or preview feature isn't enabled
+            return null;
+        }
+    }
+
+    private final class Call<R> implements Runnable {
+        private final JdbcSession.SqlWork<R> work;
+        private final long deadline;
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+        /* thread that run the call, guarded by this call */
+        private Thread thread;
+        private volatile JdbcSession session;
+
+        private Call(JdbcSession.SqlWork<R> work, long deadline) {
+            this.work = work;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                thread = Thread.currentThread();
+            }
+            try {
+                if (!connectionPermits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    future.completeExceptionally(new SQLTimeoutException("No connection permit within timeout"));
+                    return;
+                }
+
+                try {
+                    execute();
+                } finally {
+                    connectionPermits.release();
+                }
+            } catch (InterruptedException exception) {
+                // interrupted by abort, the future is already completed so this doesn't change it
+                future.completeExceptionally(new CancellationException("Database call is interrupted"));
+            } finally {
+                // the platform thread is reused by the next call, so abort must not interrupt it anymore
+                synchronized (this) {
+                    thread = null;
+                }
+                pendingPermits.release();
+            }
+        }
+
+        private void execute() {
+            // the future is cancelled or timed out while it's waiting for the permit
+            if (future.isDone()) {
+                return;
+            }
+
+            try (JdbcSession jdbcSession = new JdbcSession(dataSource.getConnection())) {
+                session = jdbcSession;
+                if (future.isDone()) {
+                    return;
+                }
+
+                future.complete(work.run(jdbcSession));
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            } finally {
+                session = null;
+            }
+        }
+
+        /**
+         * stop the call after its future is cancelled or timed out.
+         * */
+        private void abort() {
+            JdbcSession runningSession = session;
+            if (runningSession != null) {
+                try {
+                    runningSession.cancel();
+                } catch (SQLException ignored) {
+                    // the statement is finished or the connection is closed
+                }
+            }
+
+            synchronized (this) {
+                if (thread != null) {
+                    thread.interrupt();
+                }
+            }
+        }
+    }
+
+    private static final class PlatformThreadFactory implements ThreadFactory {
+        private final AtomicLong threadCount = new AtomicLong();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "database-executor-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.setianjay.database.executor;
+
+import java.time.Duration;
+
+/**
+ * configuration for {@link DatabaseExecutor}.
+ *
+ * @param maxPending maximum calls that are waiting or running at one time, the next call is rejected right away
+ *                   instead of waiting in unbounded queue.
+ * @param timeout    default time for one call from submit until it's finished, including the time it waits for a
+ *                   connection.
+ * @param virtualThreads run every call in its own virtual thread when the JVM supports it, otherwise the calls run
+ *                       in a fixed pool of platform threads.
+ * */
+public record ExecutorConfig(int maxPending, Duration timeout, boolean virtualThreads) {
+
+    public ExecutorConfig {
+        if (maxPending < 1) {
+            throw new IllegalArgumentException("Max pending must be at least 1");
+        }
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+    }
+
+    public ExecutorConfig(int maxPending, Duration timeout) {
+        this(maxPending, timeout, true);
+    }
+
+    public static ExecutorConfig defaultConfig() {
+        return new ExecutorConfig(10_000, Duration.ofSeconds(30));
+    }
+}
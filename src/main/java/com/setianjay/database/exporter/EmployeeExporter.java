@@ -0,0 +1,175 @@
+package com.setianjay.database.exporter;
+
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.excel.data.EmployeeSheetWriter;
+import com.setianjay.database.repository.EmployeeRepository;
+import com.setianjay.database.repository.JdbcSession;
+import com.setianjay.database.util.ConnectionUtil;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Export every row of table employee to xlsx file with the same columns as the employee excel file, so the file can
+ * be imported again by {@link com.setianjay.database.importer.EmployeeImporter}.
+ * <br />
+ * <br />
+ * 1. the primary key is split into ranges with almost the same total rows
+ * ({@link EmployeeRepository#findIdBoundaries(int)}).
+ * <br />
+ * 2. read stage, one reader for every range read the range page by page (keyset pagination) into its own bounded
+ * queue. the reader borrow a connection from the pool for every page and give it back before it waits for the queue,
+ * so the readers that wait for the writer don't hold the connections, whatever the range count and pool size are.
+ * <br />
+ * 3. write stage, one writer take the pages range by range in primary key order and write them with
+ * {@link SXSSFWorkbook}, it only keeps a window of rows in the memory and flush the rest to (compressed) temporary
+ * file. the sheet is full at {@value #MAX_SHEET_ROWS} rows, then the next rows are written to new sheet.
+ * <br />
+ * <br />
+ * The workbook can only be written by one thread, so the readers use the other cores to query and map the rows
+ * while the writer serialize the sheet. The memory is bounded by range count * queue capacity * page size rows plus
+ * the row window, whatever the total rows are.
+ * */
+public class EmployeeExporter {
+    public static final int MAX_SHEET_ROWS = 1_048_576;
+    private static final String SHEET_NAME = "Employee";
+
+    /* marker that tell the writer there is no more page in the range */
+    private static final List<Employee> END_OF_RANGE = new ArrayList<>(0);
+
+    private final DataSource dataSource;
+    private final ExportConfig exportConfig;
+    private final EmployeeRepository employeeRepository;
+
+    public EmployeeExporter() {
+        this(ConnectionUtil.getDataSource(), ExportConfig.defaultConfig());
+    }
+
+    public EmployeeExporter(DataSource dataSource, ExportConfig exportConfig) {
+        this.dataSource = dataSource;
+        this.exportConfig = exportConfig;
+        this.employeeRepository = new EmployeeRepository(dataSource);
+    }
+
+    public ExportResult exportEmployees(File excelFile) throws SQLException, IOException {
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(excelFile))) {
+            return exportEmployees(outputStream);
+        }
+    }
+
+    /**
+     * export every employee as xlsx to the output stream, the output stream isn't closed.
+     * */
+    public ExportResult exportEmployees(OutputStream outputStream) throws SQLException, IOException {
+        long startTime = System.nanoTime();
+        List<String> boundaries = employeeRepository.findIdBoundaries(exportConfig.rangeCount());
+        int rangeCount = boundaries.size() + 1;
+
+        List<BlockingQueue<List<Employee>>> pageQueues = new ArrayList<>(rangeCount);
+        for (int range = 0; range < rangeCount; range++) {
+            pageQueues.add(new ArrayBlockingQueue<>(exportConfig.queueCapacity()));
+        }
+
+        SXSSFWorkbook workbook = new SXSSFWorkbook(null, exportConfig.rowWindow(),
+                exportConfig.compressTempFiles());
+        AtomicLong totalRow = new AtomicLong();
+
+        int totalWorker = rangeCount + 1;
+        ExecutorService executor = Executors.newFixedThreadPool(totalWorker, runnable -> {
+            Thread thread = new Thread(runnable, "employee-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<Integer> completionService = new ExecutorCompletionService<>(executor);
+        int sheetCount = 0;
+
+        try {
+            for (int range = 0; range < rangeCount; range++) {
+                String afterId = range == 0 ? null : boundaries.get(range - 1);
+                String lastId = range == rangeCount - 1 ? null : boundaries.get(range);
+                BlockingQueue<List<Employee>> pageQueue = pageQueues.get(range);
+                completionService.submit(() -> readRange(afterId, lastId, pageQueue));
+            }
+            Future<Integer> writer = completionService.submit(() -> writeRanges(workbook, pageQueues, totalRow));
+
+            // wait every stage, if one of them is failed the rest of stages are cancelled
+            for (int i = 0; i < totalWorker; i++) {
+                completionService.take().get();
+            }
+            sheetCount = writer.get();
+
+            workbook.write(outputStream);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Export is interrupted", exception);
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new SQLException("Export is failed", cause);
+        } finally {
+            executor.shutdownNow();
+            workbook.dispose(); // delete the temporary files
+            workbook.close();
+        }
+
+        return new ExportResult(totalRow.get(), sheetCount, System.nanoTime() - startTime);
+    }
+
+    private Integer readRange(String afterId, String lastId, BlockingQueue<List<Employee>> pageQueue)
+            throws SQLException, InterruptedException {
+        String pageAfterId = afterId;
+        List<Employee> page;
+        do {
+            try (JdbcSession session = new JdbcSession(dataSource.getConnection())) {
+                page = employeeRepository.findPageByIdRange(session, pageAfterId, lastId, exportConfig.pageSize());
+            }
+
+            if (!page.isEmpty()) {
+                pageQueue.put(page);
+                pageAfterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == exportConfig.pageSize());
+
+        pageQueue.put(END_OF_RANGE);
+        return 0;
+    }
+
+    /**
+     * @return total sheets in the workbook.
+     * */
+    private Integer writeRanges(SXSSFWorkbook workbook, List<BlockingQueue<List<Employee>>> pageQueues,
+                                AtomicLong totalRow) throws InterruptedException {
+        int sheetCount = 1;
+        EmployeeSheetWriter sheetWriter = new EmployeeSheetWriter(workbook, SHEET_NAME);
+
+        for (BlockingQueue<List<Employee>> pageQueue : pageQueues) {
+            for (List<Employee> page = pageQueue.take(); page != END_OF_RANGE; page = pageQueue.take()) {
+                for (Employee employee : page) {
+                    if (sheetWriter.getRowCount() == MAX_SHEET_ROWS) {
+                        sheetWriter = new EmployeeSheetWriter(workbook, SHEET_NAME + " " + ++sheetCount);
+                    }
+
+                    sheetWriter.write(employee);
+                }
+                totalRow.addAndGet(page.size());
+            }
+        }
+
+        return sheetCount;
+    }
+}
@@ -0,0 +1,28 @@
+package com.setianjay.database.exporter;
+
+/**
+ * configuration for {@link EmployeeExporter}.
+ *
+ * @param rangeCount        total primary key ranges that are read in parallel, each range borrow a connection
+ *                          from the pool only while it reads one page, so it can be more than the pool size.
+ * @param pageSize          total rows read by one query of a range.
+ * @param queueCapacity     maximum pages of every range waiting to be written, so the readers can't run too far
+ *                          ahead of the writer.
+ * @param rowWindow         rows of the sheet kept in the memory, the older rows are flushed to the temporary file.
+ * @param compressTempFiles compress the temporary files of the sheets with gzip, it costs CPU but big export
+ *                          doesn't fill the temporary directory.
+ * */
+public record ExportConfig(int rangeCount, int pageSize, int queueCapacity, int rowWindow,
+                           boolean compressTempFiles) {
+
+    public ExportConfig {
+        if (rangeCount < 1 || pageSize < 1 || queueCapacity < 1 || rowWindow < 1) {
+            throw new IllegalArgumentException("Range count, page size, queue capacity and row window must be at " +
+                    "least 1");
+        }
+    }
+
+    public static ExportConfig defaultConfig() {
+        return new ExportConfig(4, 1_000, 4, 1_000, true);
+    }
+}
@@ -0,0 +1,23 @@
+package com.setianjay.database.exporter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * result of export process, contain total exported rows, total sheets and how long the export run.
+ * */
+public record ExportResult(long totalRow, int sheetCount, long elapsedNanos) {
+
+    public double rowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : totalRow * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ExportResult{" +
+                "totalRow=" + totalRow +
+                ", sheetCount=" + sheetCount +
+                ", elapsedMillis=" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) +
+                ", rowsPerSecond=" + String.format("%.2f", rowsPerSecond()) +
+                '}';
+    }
+}
@@ -0,0 +1,276 @@
+package com.setianjay.database.importer;
+
+import com.setianjay.database.batch.AdaptiveBatchController;
+import com.setianjay.database.batch.FingerprintSet;
+import com.setianjay.database.batch.LocalInfileLoader;
+import com.setianjay.database.batch.MultiRowInsertWriter;
+import com.setianjay.database.batch.TableMappings;
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.InsertMode;
+import com.setianjay.database.repository.EmployeeRepository;
+import com.setianjay.database.util.ConnectionUtil;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Import {@link Employee} data to table employee with pipeline of three stages that joined by bounded queues:
+ * <br />
+ * <br />
+ * 1. parse stage, pull employee from the source stream (for example from
+ * {@link com.setianjay.database.excel.data.EmployeeWorkbook#streamDataInSingleSheet()}).
+ * <br />
+ * 2. bind stage, map employee to the insert parameters and group them into batches.
+ * <br />
+ * 3. write stage, several writer workers where each worker hold its own connection from the pool and execute the
+ * batches.
+ * <br />
+ * <br />
+ * The size of every batch is chosen by {@link AdaptiveBatchController} when the bind stage start the batch, and every
+ * executed batch is measured by it. by default the batch size is fixed to {@link ImportConfig#batchSize()}.
+ * */
+public class EmployeeImporter {
+    private static final String QUERY_INSERT_EMPLOYEE =
+            "INSERT INTO employee VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?);";
+    /* the ON DUPLICATE KEY UPDATE clause depend on the connected database */
+    private static final String QUERY_UPSERT_EMPLOYEE_PREFIX =
+            "INSERT INTO employee VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /* markers that tell the next stage there is no more data */
+    private static final Employee END_OF_ROWS = new Employee();
+    private static final List<Object[]> END_OF_BATCHES = new ArrayList<>(0);
+
+    private final DataSource dataSource;
+    private final ImportConfig importConfig;
+    private final AdaptiveBatchController batchController;
+
+    public EmployeeImporter() {
+        this(ConnectionUtil.getDataSource(), ImportConfig.defaultConfig());
+    }
+
+    public EmployeeImporter(DataSource dataSource, ImportConfig importConfig) {
+        this(dataSource, importConfig, AdaptiveBatchController.fixed(importConfig.batchSize()));
+    }
+
+    /**
+     * @param batchController choose the batch size instead of {@link ImportConfig#batchSize()}, it keeps the chosen
+     *                        size for the next import.
+     * */
+    public EmployeeImporter(DataSource dataSource, ImportConfig importConfig,
+                            AdaptiveBatchController batchController) {
+        this.dataSource = dataSource;
+        this.importConfig = importConfig;
+        this.batchController = batchController;
+    }
+
+    /**
+     * @return controller of the batch size, its stats give the chosen batch size and the throughput.
+     * */
+    public AdaptiveBatchController getBatchController() {
+        return batchController;
+    }
+
+    /**
+     * import all employees from the stream, the stream is consumed by this method but not closed.
+     * */
+    public ImportResult importEmployees(Stream<Employee> employees) throws SQLException {
+        return runImport(employees, null);
+    }
+
+    /**
+     * import all employees from the stream and skip the employees that are already stored without change, so
+     * importing the same file again only write the changed rows. the stream is consumed by this method but not
+     * closed.
+     * <br />
+     * <br />
+     * The fingerprints of the stored employees are loaded in one pass before the import (see {@link FingerprintSet}),
+     * then new or changed employee is written with "INSERT ... ON DUPLICATE KEY UPDATE", so the existing row is
+     * updated instead of failing on duplicate primary key.
+     * */
+    public ImportResult upsertEmployees(Stream<Employee> employees) throws SQLException {
+        FingerprintSet storedEmployees;
+        try (Stream<Employee> stored = new EmployeeRepository(dataSource).streamAll()) {
+            storedEmployees = FingerprintSet.of(TableMappings.EMPLOYEE, stored);
+        }
+
+        return runImport(employees, storedEmployees);
+    }
+
+    /**
+     * @param storedEmployees fingerprints of the employees that are skipped, null to insert every employee.
+     * */
+    private ImportResult runImport(Stream<Employee> employees, FingerprintSet storedEmployees) throws SQLException {
+        BlockingQueue<Employee> rowQueue = new ArrayBlockingQueue<>(importConfig.queueCapacity());
+        BlockingQueue<List<Object[]>> batchQueue = new ArrayBlockingQueue<>(importConfig.queueCapacity());
+        AtomicLong totalRow = new AtomicLong();
+        AtomicLong skippedRow = new AtomicLong();
+        boolean isUpsert = storedEmployees != null;
+
+        int totalWorker = importConfig.writerCount() + 2;
+        ExecutorService executor = Executors.newFixedThreadPool(totalWorker, runnable -> {
+            Thread thread = new Thread(runnable, "employee-importer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+        long startTime = System.nanoTime();
+
+        try {
+            completionService.submit(() -> parseRows(employees, rowQueue));
+            completionService.submit(() -> bindRows(rowQueue, batchQueue, storedEmployees, skippedRow));
+            for (int i = 0; i < importConfig.writerCount(); i++) {
+                completionService.submit(() -> writeBatches(batchQueue, totalRow, isUpsert));
+            }
+
+            // wait every stage, if one of them is failed the rest of stages are cancelled
+            for (int i = 0; i < totalWorker; i++) {
+                completionService.take().get();
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Import is interrupted", exception);
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new SQLException("Import is failed", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return new ImportResult(totalRow.get(), skippedRow.get(), System.nanoTime() - startTime);
+    }
+
+    /**
+     * fast path for very large import, stream all employees in one "LOAD DATA LOCAL INFILE" statement on a single
+     * connection. the stream is consumed by this method but not closed.
+     * */
+    public ImportResult loadEmployees(Stream<Employee> employees) throws SQLException {
+        LocalInfileLoader<Employee> employeeLoader = new LocalInfileLoader<>(TableMappings.EMPLOYEE);
+        long startTime = System.nanoTime();
+
+        try (Connection connection = dataSource.getConnection()) {
+            long totalRow = employeeLoader.load(connection, employees.iterator());
+            return new ImportResult(totalRow, System.nanoTime() - startTime);
+        }
+    }
+
+    private Void parseRows(Stream<Employee> employees, BlockingQueue<Employee> rowQueue)
+            throws InterruptedException {
+        Iterator<Employee> employeeIterator = employees.iterator();
+        while (employeeIterator.hasNext()) {
+            rowQueue.put(employeeIterator.next());
+        }
+
+        rowQueue.put(END_OF_ROWS);
+        return null;
+    }
+
+    private Void bindRows(BlockingQueue<Employee> rowQueue, BlockingQueue<List<Object[]>> batchQueue,
+                          FingerprintSet storedEmployees, AtomicLong skippedRow) throws InterruptedException {
+        int batchSize = batchController.getBatchSize();
+        List<Object[]> batch = new ArrayList<>(batchSize);
+
+        for (Employee employee = rowQueue.take(); employee != END_OF_ROWS; employee = rowQueue.take()) {
+            Object[] parameters = TableMappings.EMPLOYEE.mapToParameters(employee);
+            if (storedEmployees != null && storedEmployees.contains(parameters)) {
+                skippedRow.incrementAndGet();
+                continue;
+            }
+            batch.add(parameters);
+
+            if (batch.size() >= batchSize) {
+                batchQueue.put(batch);
+                batchSize = batchController.getBatchSize();
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            batchQueue.put(batch); // rest of data
+        }
+
+        // every writer need its own marker to stop
+        for (int i = 0; i < importConfig.writerCount(); i++) {
+            batchQueue.put(END_OF_BATCHES);
+        }
+        return null;
+    }
+
+    private Void writeBatches(BlockingQueue<List<Object[]>> batchQueue, AtomicLong totalRow, boolean isUpsert)
+            throws SQLException, InterruptedException {
+        if (importConfig.insertMode() == InsertMode.MULTI_ROW_VALUES) {
+            return writeMultiRowBatches(batchQueue, totalRow, isUpsert);
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(isUpsert ? QUERY_UPSERT_EMPLOYEE_PREFIX +
+                     TableMappings.EMPLOYEE.onDuplicateKeyUpdate(connection, "id") : QUERY_INSERT_EMPLOYEE)) {
+
+            for (List<Object[]> batch = batchQueue.take(); batch != END_OF_BATCHES; batch = batchQueue.take()) {
+                for (Object[] parameters : batch) {
+                    for (int i = 0; i < parameters.length; i++) {
+                        statement.setObject(i + 1, parameters[i]);
+                    }
+                    statement.addBatch();
+                }
+
+                executeMeasured(statement::executeBatch, batch.size());
+                totalRow.addAndGet(batch.size());
+            }
+        }
+        return null;
+    }
+
+    private Void writeMultiRowBatches(BlockingQueue<List<Object[]>> batchQueue, AtomicLong totalRow,
+                                      boolean isUpsert) throws SQLException, InterruptedException {
+        try (Connection connection = dataSource.getConnection();
+             MultiRowInsertWriter<Employee> writer = isUpsert
+                     ? MultiRowInsertWriter.openUpsert(connection, TableMappings.EMPLOYEE,
+                     batchController.getMaxBatchSize(), "id")
+                     : MultiRowInsertWriter.open(connection, TableMappings.EMPLOYEE,
+                     batchController.getMaxBatchSize())) {
+
+            for (List<Object[]> batch = batchQueue.take(); batch != END_OF_BATCHES; batch = batchQueue.take()) {
+                for (Object[] parameters : batch) {
+                    writer.addParameters(parameters);
+                }
+
+                executeMeasured(writer::flush, batch.size());
+                totalRow.addAndGet(batch.size());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * execute the batch and record its time to the batch controller.
+     * */
+    private void executeMeasured(BatchExecution batchExecution, int rows) throws SQLException {
+        long startTime = System.nanoTime();
+        try {
+            batchExecution.execute();
+        } catch (SQLException | RuntimeException exception) {
+            batchController.recordFailure();
+            throw exception;
+        }
+        batchController.recordBatch(rows, System.nanoTime() - startTime);
+    }
+
+    @FunctionalInterface
+    private interface BatchExecution {
+        void execute() throws SQLException;
+    }
+}
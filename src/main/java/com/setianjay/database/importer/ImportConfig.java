@@ -0,0 +1,32 @@
+package com.setianjay.database.importer;
+
+import com.setianjay.database.enums.InsertMode;
+
+/**
+ * configuration for {@link EmployeeImporter}.
+ *
+ * @param batchSize     total rows sent in one executeBatch.
+ * @param writerCount   total writer workers, each worker hold its own connection from the pool.
+ * @param queueCapacity maximum rows (between parse and bind stage) or batches (between bind and write stage)
+ *                      waiting in the queue, so fast stage can't run too far ahead of slow stage.
+ * @param insertMode    how every batch is sent to the database.
+ * */
+public record ImportConfig(int batchSize, int writerCount, int queueCapacity, InsertMode insertMode) {
+
+    public ImportConfig {
+        if (batchSize < 1 || writerCount < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Batch size, writer count and queue capacity must be at least 1");
+        }
+        if (insertMode == null) {
+            throw new IllegalArgumentException("Insert mode must not be null");
+        }
+    }
+
+    public ImportConfig(int batchSize, int writerCount, int queueCapacity) {
+        this(batchSize, writerCount, queueCapacity, InsertMode.JDBC_BATCH);
+    }
+
+    public static ImportConfig defaultConfig() {
+        return new ImportConfig(1_000, 4, 16);
+    }
+}
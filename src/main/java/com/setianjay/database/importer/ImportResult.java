@@ -0,0 +1,34 @@
+package com.setianjay.database.importer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * result of import process, contain total imported rows, total rows that are skipped (because they are already stored
+ * without change or already committed by the previous run), total rows that are quarantined because they can't be
+ * imported and how long the import run.
+ * */
+public record ImportResult(long totalRow, long skippedRow, long quarantinedRow, long elapsedNanos) {
+
+    public ImportResult(long totalRow, long skippedRow, long elapsedNanos) {
+        this(totalRow, skippedRow, 0, elapsedNanos);
+    }
+
+    public ImportResult(long totalRow, long elapsedNanos) {
+        this(totalRow, 0, elapsedNanos);
+    }
+
+    public double rowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : totalRow * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportResult{" +
+                "totalRow=" + totalRow +
+                ", skippedRow=" + skippedRow +
+                ", quarantinedRow=" + quarantinedRow +
+                ", elapsedMillis=" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) +
+                ", rowsPerSecond=" + String.format("%.2f", rowsPerSecond()) +
+                '}';
+    }
+}
@@ -0,0 +1,23 @@
+package com.setianjay.database.importer;
+
+/**
+ * configuration for {@link ResumableImporter}.
+ *
+ * @param batchSize     total rows sent in one executeBatch, a failed batch is split in half until the bad rows are
+ *                      found.
+ * @param chunkSize     total rows committed in one transaction together with the checkpoint, the import that is
+ *                      stopped lose at most one chunk.
+ * @param queueCapacity maximum chunks waiting between the parse stage and the write stage.
+ * */
+public record ResumableImportConfig(int batchSize, int chunkSize, int queueCapacity) {
+
+    public ResumableImportConfig {
+        if (batchSize < 1 || chunkSize < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Batch size, chunk size and queue capacity must be at least 1");
+        }
+    }
+
+    public static ResumableImportConfig defaultConfig() {
+        return new ResumableImportConfig(1_000, 10_000, 4);
+    }
+}
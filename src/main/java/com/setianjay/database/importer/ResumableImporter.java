@@ -0,0 +1,275 @@
+package com.setianjay.database.importer;
+
+import com.setianjay.database.batch.TableMappings;
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.entity.ImportCheckpoint;
+import com.setianjay.database.entity.QuarantinedRow;
+import com.setianjay.database.enums.ReadMode;
+import com.setianjay.database.excel.mapping.ColumnMappings;
+import com.setianjay.database.excel.mapping.MappedWorkbook;
+import com.setianjay.database.repository.ImportCheckpointRepository;
+import com.setianjay.database.repository.JdbcSession;
+import com.setianjay.database.util.ConnectionUtil;
+import com.setianjay.database.util.FileUtil;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * Import {@link Employee} data to table employee in chunks that can be resumed after failure:
+ * <br />
+ * <br />
+ * 1. every chunk of rows is written in one transaction together with the checkpoint of the source (total committed
+ * rows), so the checkpoint is never ahead or behind the imported rows.
+ * <br />
+ * 2. the next import of the same source (the same file hash) skip the committed rows of the source stream and
+ * continue from the checkpoint, the import of completed source skip every row.
+ * <br />
+ * 3. batch that is failed because of bad data (SQL state class 22 data exception or 23 constraint violation) is
+ * rolled back to its savepoint and split in half until the bad rows are found, the bad rows are saved to the
+ * quarantine table in the same transaction and the other rows are imported. other failure (for example lost
+ * connection) stop the import, it can be resumed from the last checkpoint.
+ * <br />
+ * <br />
+ * The chunks are written by one connection in the order of the source, so the checkpoint is one row index. the rows
+ * are parsed and bound to parameters in another thread while the chunk is written. the tables of the checkpoint and
+ * quarantine must exist, see {@link ImportCheckpointRepository}.
+ * */
+public class ResumableImporter {
+    private static final String QUERY_INSERT_EMPLOYEE =
+            "INSERT INTO employee VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /* marker that tell the write stage there is no more chunk */
+    private static final Chunk END_OF_CHUNKS = new Chunk(-1, List.of());
+
+    private final DataSource dataSource;
+    private final ResumableImportConfig importConfig;
+    private final ImportCheckpointRepository checkpointRepository;
+
+    public ResumableImporter() {
+        this(ConnectionUtil.getDataSource(), ResumableImportConfig.defaultConfig());
+    }
+
+    public ResumableImporter(DataSource dataSource, ResumableImportConfig importConfig) {
+        this.dataSource = dataSource;
+        this.importConfig = importConfig;
+        this.checkpointRepository = new ImportCheckpointRepository(dataSource);
+    }
+
+    /**
+     * import the first sheet of the employee excel file, the source key is SHA-256 of the file so the same file
+     * continue from its checkpoint whatever its name or location. the columns are bound by the header name with
+     * {@link ColumnMappings#EMPLOYEE}, sheet without one of the employee headers fails before any row is committed.
+     * */
+    public ImportResult importFile(File excelFile) throws SQLException, IOException {
+        String sourceKey = FileUtil.sha256Hex(excelFile);
+        try (MappedWorkbook<Employee> employeeWorkbook = new MappedWorkbook<>(excelFile, ReadMode.STREAMING,
+                ColumnMappings.EMPLOYEE);
+             Stream<Employee> employees = employeeWorkbook.streamDataInSingleSheet()) {
+            return importEmployees(sourceKey, employees);
+        }
+    }
+
+    /**
+     * import the employees of the source from its checkpoint, the stream must give the same rows in the same order
+     * every time. the stream is consumed by this method but not closed.
+     *
+     * @return result where skipped rows are the rows committed by the previous imports.
+     * */
+    public ImportResult importEmployees(String sourceKey, Stream<Employee> employees) throws SQLException {
+        ImportCheckpoint checkpoint = checkpointRepository.findById(sourceKey)
+                .orElse(new ImportCheckpoint(sourceKey, 0, 0));
+        BlockingQueue<Chunk> chunkQueue = new ArrayBlockingQueue<>(importConfig.queueCapacity());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "resumable-importer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long startTime = System.nanoTime();
+        ImportCheckpoint lastCheckpoint;
+
+        try {
+            Future<Void> parser = executor.submit(() -> parseChunks(employees, checkpoint.committedRow(),
+                    chunkQueue));
+            Future<ImportCheckpoint> writer = executor.submit(() -> writeChunks(chunkQueue, checkpoint));
+
+            // failed source still let the writer commit the chunks before the failure, failed writer cancel the
+            // parser in finally
+            lastCheckpoint = writer.get();
+            parser.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Import is interrupted", exception);
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new SQLException("Import is failed", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long quarantinedRow = lastCheckpoint.quarantinedRow() - checkpoint.quarantinedRow();
+        long totalRow = lastCheckpoint.committedRow() - checkpoint.committedRow() - quarantinedRow;
+        return new ImportResult(totalRow, checkpoint.committedRow(), quarantinedRow, System.nanoTime() - startTime);
+    }
+
+    public List<QuarantinedRow> findQuarantinedRows(String sourceKey) throws SQLException {
+        return checkpointRepository.findQuarantinedRows(sourceKey);
+    }
+
+    /**
+     * forget the checkpoint and the quarantined rows of the source, so the next import start from the first row.
+     * */
+    public void resetCheckpoint(String sourceKey) throws SQLException {
+        checkpointRepository.deleteCheckpoint(sourceKey);
+    }
+
+    private Void parseChunks(Stream<Employee> employees, long committedRow, BlockingQueue<Chunk> chunkQueue)
+            throws InterruptedException {
+        // the skipped rows are still parsed by the excel reader, but they aren't bound or written
+        Iterator<Employee> employeeIterator = employees.skip(committedRow).iterator();
+        long firstRowIndex = committedRow;
+        List<Object[]> rows = new ArrayList<>(importConfig.chunkSize());
+
+        try {
+            while (employeeIterator.hasNext()) {
+                rows.add(TableMappings.EMPLOYEE.mapToParameters(employeeIterator.next()));
+                if (rows.size() == importConfig.chunkSize()) {
+                    chunkQueue.put(new Chunk(firstRowIndex, rows));
+                    firstRowIndex += rows.size();
+                    rows = new ArrayList<>(importConfig.chunkSize());
+                }
+            }
+        } catch (RuntimeException exception) {
+            // the full chunks before the failure are still committed, the partial chunk is dropped
+            chunkQueue.put(END_OF_CHUNKS);
+            throw exception;
+        }
+
+        if (!rows.isEmpty()) {
+            chunkQueue.put(new Chunk(firstRowIndex, rows)); // rest of data
+        }
+        chunkQueue.put(END_OF_CHUNKS);
+        return null;
+    }
+
+    /**
+     * @return the checkpoint after the last committed chunk.
+     * */
+    private ImportCheckpoint writeChunks(BlockingQueue<Chunk> chunkQueue, ImportCheckpoint checkpoint)
+            throws SQLException, InterruptedException {
+        ImportCheckpoint lastCheckpoint = checkpoint;
+
+        try (JdbcSession session = new JdbcSession(dataSource.getConnection())) {
+            for (Chunk chunk = chunkQueue.take(); chunk != END_OF_CHUNKS; chunk = chunkQueue.take()) {
+                ImportCheckpoint previousCheckpoint = lastCheckpoint;
+                Chunk currentChunk = chunk;
+                lastCheckpoint = session.inTransaction(transaction -> writeChunk(transaction, previousCheckpoint,
+                        currentChunk));
+            }
+        }
+
+        return lastCheckpoint;
+    }
+
+    private ImportCheckpoint writeChunk(JdbcSession session, ImportCheckpoint checkpoint, Chunk chunk)
+            throws SQLException {
+        PreparedStatement statement = session.prepare(QUERY_INSERT_EMPLOYEE);
+        List<QuarantinedRow> quarantinedRows = new ArrayList<>();
+
+        for (int fromIndex = 0; fromIndex < chunk.rows().size(); fromIndex += importConfig.batchSize()) {
+            List<Object[]> batch = chunk.rows().subList(fromIndex, Math.min(fromIndex + importConfig.batchSize(),
+                    chunk.rows().size()));
+            writeBatch(session.getConnection(), statement, checkpoint.sourceKey(), batch,
+                    chunk.firstRowIndex() + fromIndex, quarantinedRows);
+        }
+
+        checkpointRepository.saveQuarantinedRows(session, quarantinedRows);
+        ImportCheckpoint nextCheckpoint = new ImportCheckpoint(checkpoint.sourceKey(),
+                chunk.firstRowIndex() + chunk.rows().size(), checkpoint.quarantinedRow() + quarantinedRows.size());
+        checkpointRepository.saveCheckpoint(session, nextCheckpoint);
+        return nextCheckpoint;
+    }
+
+    /**
+     * write the batch under its own savepoint, if it's failed because of bad data it's rolled back and the halves
+     * are written again until the bad rows are found.
+     * */
+    private void writeBatch(Connection connection, PreparedStatement statement, String sourceKey,
+                            List<Object[]> batch, long firstRowIndex, List<QuarantinedRow> quarantinedRows)
+            throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        try {
+            for (Object[] parameters : batch) {
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                statement.addBatch();
+            }
+
+            statement.executeBatch();
+            connection.releaseSavepoint(savepoint);
+        } catch (SQLException exception) {
+            statement.clearBatch();
+            connection.rollback(savepoint);
+            if (!isDataError(exception)) {
+                throw exception;
+            }
+
+            if (batch.size() == 1) {
+                quarantinedRows.add(new QuarantinedRow(sourceKey, firstRowIndex, (String) batch.get(0)[0],
+                        exception.getMessage()));
+                return;
+            }
+
+            int middle = batch.size() / 2;
+            writeBatch(connection, statement, sourceKey, batch.subList(0, middle), firstRowIndex, quarantinedRows);
+            writeBatch(connection, statement, sourceKey, batch.subList(middle, batch.size()), firstRowIndex + middle,
+                    quarantinedRows);
+        }
+    }
+
+    /**
+     * @return true if the exception (or the exception of the failed statement in the batch) is caused by the data of
+     * the rows, SQL state class 22 (data exception) or 23 (integrity constraint violation).
+     * */
+    private static boolean isDataError(SQLException exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                String sqlState = sqlException.getSQLState();
+                if (sqlState != null && (sqlState.startsWith("22") || sqlState.startsWith("23"))) {
+                    return true;
+                }
+                if (sqlException instanceof BatchUpdateException && sqlException.getNextException() != null &&
+                        isDataError(sqlException.getNextException())) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * rows of the source from firstRowIndex, bound to the insert parameters.
+     * */
+    private record Chunk(long firstRowIndex, List<Object[]> rows) {
+    }
+}
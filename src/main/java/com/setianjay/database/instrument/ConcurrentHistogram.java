@@ -0,0 +1,98 @@
+package com.setianjay.database.instrument;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of non-negative long values (latency in nanoseconds, batch size) that many threads record without lock,
+ * like HdrHistogram with 2 significant bits:
+ * <br />
+ * value below 32 has its own bucket, bigger value is put into one of 16 buckets between two powers of two, so every
+ * bucket is at most 1/16 (~6%) wider than its lowest value. 960 buckets cover every long value, the bucket is found
+ * with a few bit operations and counted with one atomic increment.
+ * <br />
+ * <br />
+ * {@link #snapshot()} read the buckets while other threads record, so the snapshot is close to but not exactly one
+ * point in time.
+ * */
+public class ConcurrentHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT >> 1;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * HALF_SUB_BUCKET_COUNT +
+            HALF_SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    /**
+     * @param value negative value is recorded as 0.
+     * */
+    public void record(long value) {
+        long positiveValue = Math.max(value, 0);
+        buckets.incrementAndGet(bucketIndex(positiveValue));
+        sum.add(positiveValue);
+        min.accumulate(positiveValue);
+        max.accumulate(positiveValue);
+    }
+
+    public HistogramSnapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+
+        if (count == 0) {
+            return new HistogramSnapshot(0, 0, 0, 0, 0, 0, 0, 0);
+        }
+
+        long maxValue = max.get();
+        return new HistogramSnapshot(count, sum.sum(), min.get(), maxValue,
+                valueAtPercentile(counts, count, maxValue, 50),
+                valueAtPercentile(counts, count, maxValue, 90),
+                valueAtPercentile(counts, count, maxValue, 99),
+                valueAtPercentile(counts, count, maxValue, 99.9));
+    }
+
+    /**
+     * @return the highest value of the bucket where the percentile is, but not above the maximum recorded value.
+     * */
+    private static long valueAtPercentile(long[] counts, long count, long maxValue, double percentile) {
+        long targetCount = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long cumulativeCount = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulativeCount += counts[i];
+            if (cumulativeCount >= targetCount) {
+                return Math.min(highestValue(i), maxValue);
+            }
+        }
+
+        return maxValue;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        // the highest bit of the value is the first bit of the sub bucket, the next bits choose one of 16 buckets
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS + 1;
+        return shift * HALF_SUB_BUCKET_COUNT + (int) (value >>> shift);
+    }
+
+    static long highestValue(int bucketIndex) {
+        if (bucketIndex < SUB_BUCKET_COUNT) {
+            return bucketIndex;
+        }
+
+        int shift = bucketIndex / HALF_SUB_BUCKET_COUNT - 1;
+        long subBucket = bucketIndex - (long) shift * HALF_SUB_BUCKET_COUNT;
+        // the last bucket overflow to Long.MIN_VALUE, minus one is Long.MAX_VALUE
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
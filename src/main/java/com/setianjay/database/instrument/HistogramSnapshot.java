@@ -0,0 +1,12 @@
+package com.setianjay.database.instrument;
+
+/**
+ * values of {@link ConcurrentHistogram} at one time, every value is 0 if nothing is recorded. the percentiles are
+ * accurate to ~6% of the value.
+ * */
+public record HistogramSnapshot(long count, long sum, long min, long max, long p50, long p90, long p99, long p999) {
+
+    public double mean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+}
@@ -0,0 +1,34 @@
+package com.setianjay.database.instrument;
+
+import java.time.Duration;
+
+/**
+ * configuration for {@link QueryMetrics}.
+ *
+ * @param slowQueryThreshold query that run this long or longer is slow query.
+ * @param maxQueryShapes     maximum distinct query shapes that have their own statistics, the next shapes are
+ *                           counted together as {@value QueryMetrics#OTHER_SHAPE}.
+ * @param slowQueryCapacity  how many latest slow queries are kept for the snapshot.
+ * */
+public record InstrumentConfig(Duration slowQueryThreshold, int maxQueryShapes, int slowQueryCapacity,
+                               SlowQueryListener slowQueryListener) {
+
+    public InstrumentConfig {
+        if (slowQueryThreshold == null || slowQueryThreshold.isNegative()) {
+            throw new IllegalArgumentException("Slow query threshold must not be null or negative");
+        }
+        if (maxQueryShapes < 1) {
+            throw new IllegalArgumentException("Max query shapes must be at least 1");
+        }
+        if (slowQueryCapacity < 0) {
+            throw new IllegalArgumentException("Slow query capacity must not be negative");
+        }
+        if (slowQueryListener == null) {
+            throw new IllegalArgumentException("Slow query listener must not be null");
+        }
+    }
+
+    public static InstrumentConfig defaultConfig() {
+        return new InstrumentConfig(Duration.ofSeconds(1), 1_000, 100, SlowQueryListener.LOG);
+    }
+}
@@ -0,0 +1,244 @@
+package com.setianjay.database.instrument;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+
+/**
+ * {@link DataSource} that measure the time to get connection, and wrap the connection and its statements with
+ * {@link Proxy} that measure every execute method for {@link QueryMetrics}. the other methods are passed to the
+ * wrapped object.
+ * */
+final class InstrumentedDataSource implements DataSource {
+    private final DataSource dataSource;
+    private final QueryMetrics queryMetrics;
+    private final ConcurrentHistogram connectionWait;
+
+    InstrumentedDataSource(DataSource dataSource, QueryMetrics queryMetrics, ConcurrentHistogram connectionWait) {
+        this.dataSource = dataSource;
+        this.queryMetrics = queryMetrics;
+        this.connectionWait = connectionWait;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long startTime = System.nanoTime();
+        Connection connection = dataSource.getConnection();
+        connectionWait.record(System.nanoTime() - startTime);
+        return wrap(connection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long startTime = System.nanoTime();
+        Connection connection = dataSource.getConnection(username, password);
+        connectionWait.record(System.nanoTime() - startTime);
+        return wrap(connection);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return dataSource.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        dataSource.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        dataSource.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return dataSource.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return dataSource.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(dataSource) ? iface.cast(dataSource) : dataSource.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(dataSource) || dataSource.isWrapperFor(iface);
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException exception) {
+            throw exception.getCause();
+        }
+    }
+
+    /**
+     * handle equals and hashCode of the proxy itself, so the proxy can be used in map like the wrapped object.
+     *
+     * @return the result, or null if the method isn't equals or hashCode.
+     * */
+    private static Object invokeIdentity(Object proxy, Method method, Object[] args) {
+        if (method.getDeclaringClass() != Object.class) {
+            return null;
+        }
+
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> null;
+        };
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+
+        private ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identityResult = invokeIdentity(proxy, method, args);
+            if (identityResult != null) {
+                return identityResult;
+            }
+
+            Object result = InstrumentedDataSource.invoke(connection, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> wrap(PreparedStatement.class, (Statement) result, (Connection) proxy,
+                        (String) args[0]);
+                case "prepareCall" -> wrap(CallableStatement.class, (Statement) result, (Connection) proxy,
+                        (String) args[0]);
+                case "createStatement" -> wrap(Statement.class, (Statement) result, (Connection) proxy, null);
+                default -> result;
+            };
+        }
+
+        private Object wrap(Class<? extends Statement> statementClass, Statement statement, Connection proxy,
+                            String sql) {
+            return Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(),
+                    new Class<?>[]{statementClass}, new StatementHandler(statement, proxy, sql));
+        }
+    }
+
+    /**
+     * measure the statement, one statement is used by one thread at a time so the batch size isn't atomic.
+     * */
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final Connection connection;
+        /* query of prepared statement, or the last query of plain statement batch */
+        private String sql;
+        /* statistics of the prepared statement query, so it isn't looked up again */
+        private final QueryStats preparedStats;
+        private int batchSize;
+
+        private StatementHandler(Statement statement, Connection connection, String sql) {
+            this.statement = statement;
+            this.connection = connection;
+            this.sql = sql;
+            this.preparedStats = sql != null ? queryMetrics.statsOf(sql) : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identityResult = invokeIdentity(proxy, method, args);
+            if (identityResult != null) {
+                return identityResult;
+            }
+
+            switch (method.getName()) {
+                case "execute", "executeQuery", "executeUpdate", "executeLargeUpdate" -> {
+                    // plain statement get the query as the first argument
+                    String executedSql = args != null && args.length > 0 && args[0] instanceof String query
+                            ? query : sql;
+                    return measure(method, args, executedSql, 0);
+                }
+                case "executeBatch", "executeLargeBatch" -> {
+                    int executedBatchSize = batchSize;
+                    batchSize = 0;
+                    return measure(method, args, sql, executedBatchSize);
+                }
+                case "addBatch" -> {
+                    Object result = InstrumentedDataSource.invoke(statement, method, args);
+                    if (args != null && args.length > 0) {
+                        sql = (String) args[0];
+                    }
+                    batchSize++;
+                    return result;
+                }
+                case "clearBatch" -> {
+                    batchSize = 0;
+                    return InstrumentedDataSource.invoke(statement, method, args);
+                }
+                case "getConnection" -> {
+                    return connection;
+                }
+                default -> {
+                    return InstrumentedDataSource.invoke(statement, method, args);
+                }
+            }
+        }
+
+        private Object measure(Method method, Object[] args, String executedSql, int executedBatchSize)
+                throws Throwable {
+            long startTime = System.nanoTime();
+            boolean isFailed = true;
+            Object result = null;
+            try {
+                result = InstrumentedDataSource.invoke(statement, method, args);
+                isFailed = false;
+                return result;
+            } finally {
+                long elapsedNanos = System.nanoTime() - startTime;
+                if (executedSql != null) {
+                    QueryStats queryStats = executedSql == sql && preparedStats != null
+                            ? preparedStats : queryMetrics.statsOf(executedSql);
+                    queryMetrics.record(queryStats, executedSql, elapsedNanos, executedBatchSize,
+                            rowsAffected(result), isFailed);
+                }
+            }
+        }
+
+        private static long rowsAffected(Object result) {
+            long rows = 0;
+            if (result instanceof Integer count) {
+                rows = count;
+            } else if (result instanceof Long count) {
+                rows = count;
+            } else if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    rows += Math.max(count, 0);
+                }
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    rows += Math.max(count, 0);
+                }
+            }
+
+            return Math.max(rows, 0);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.setianjay.database.instrument;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Record where the database time goes: latency, batch size and rows affected of every query shape, the time to get
+ * connection from every pool, and the latest slow queries.
+ * <br />
+ * <br />
+ * Wrap the data source with {@link #instrument(DataSource, String)} (or set it to
+ * {@link com.setianjay.database.util.ConnectionUtil#setQueryMetrics(QueryMetrics)}), then every
+ * {@link java.sql.Statement}, {@link java.sql.PreparedStatement} and {@link java.sql.CallableStatement} of its
+ * connections is measured. recording doesn't lock: the statistics are found in {@link ConcurrentHashMap} by the query
+ * string, and they are updated with atomic counters. {@link #snapshot()} can be called any time, for example by
+ * dashboard.
+ * */
+public class QueryMetrics {
+    public static final String OTHER_SHAPE = "<other>";
+
+    private final InstrumentConfig instrumentConfig;
+    private final long slowQueryNanos;
+    private final Map<String, QueryStats> statsByShape = new ConcurrentHashMap<>();
+    /* statistics by the original query, so the query is normalized only once */
+    private final Map<String, QueryStats> statsBySql = new ConcurrentHashMap<>();
+    private final QueryStats otherStats = new QueryStats(OTHER_SHAPE);
+    private final Map<String, ConcurrentHistogram> connectionWaits = new ConcurrentHashMap<>();
+
+    /* ring of the latest slow queries, the next slow query is written at sequence % capacity */
+    private final AtomicReferenceArray<SlowQuery> slowQueries;
+    private final AtomicLong slowQuerySequence = new AtomicLong();
+
+    public QueryMetrics() {
+        this(InstrumentConfig.defaultConfig());
+    }
+
+    public QueryMetrics(InstrumentConfig instrumentConfig) {
+        this.instrumentConfig = instrumentConfig;
+        this.slowQueryNanos = instrumentConfig.slowQueryThreshold().toNanos();
+        this.slowQueries = new AtomicReferenceArray<>(instrumentConfig.slowQueryCapacity());
+    }
+
+    /**
+     * @param poolName name of the connection wait statistics of this data source.
+     * @return data source that measure the connections and statements of the data source. its unwrap() return the
+     * wrapped data source, for example {@code unwrap(HikariDataSource.class)}.
+     * */
+    public DataSource instrument(DataSource dataSource, String poolName) {
+        return new InstrumentedDataSource(dataSource, this, connectionWaits.computeIfAbsent(poolName,
+                key -> new ConcurrentHistogram()));
+    }
+
+    public QueryMetricsSnapshot snapshot() {
+        List<QuerySnapshot> queries = new ArrayList<>(statsByShape.size() + 1);
+        for (QueryStats queryStats : statsByShape.values()) {
+            queries.add(queryStats.snapshot());
+        }
+        QuerySnapshot otherSnapshot = otherStats.snapshot();
+        if (otherSnapshot.latency().count() > 0) {
+            queries.add(otherSnapshot);
+        }
+        queries.sort(Comparator.comparingLong((QuerySnapshot query) -> query.latency().sum()).reversed());
+
+        Map<String, HistogramSnapshot> waits = new TreeMap<>();
+        connectionWaits.forEach((poolName, histogram) -> waits.put(poolName, histogram.snapshot()));
+
+        return new QueryMetricsSnapshot(queries, waits, getSlowQueries());
+    }
+
+    /**
+     * @return statistics of the query, it's created when the query is seen the first time.
+     * */
+    QueryStats statsOf(String sql) {
+        QueryStats queryStats = statsBySql.get(sql);
+        if (queryStats != null) {
+            return queryStats;
+        }
+
+        String shape = QueryShapes.shapeOf(sql);
+        queryStats = statsByShape.get(shape);
+        if (queryStats == null) {
+            queryStats = statsByShape.size() < instrumentConfig.maxQueryShapes()
+                    ? statsByShape.computeIfAbsent(shape, QueryStats::new) : otherStats;
+        }
+
+        // queries with many distinct literals aren't cached, they are normalized every time
+        if (statsBySql.size() < instrumentConfig.maxQueryShapes() * 4) {
+            statsBySql.putIfAbsent(sql, queryStats);
+        }
+        return queryStats;
+    }
+
+    void record(QueryStats queryStats, String sql, long elapsedNanos, int batchSize, long rowsAffected,
+                boolean isFailed) {
+        queryStats.record(elapsedNanos, batchSize, rowsAffected, isFailed);
+        if (elapsedNanos < slowQueryNanos) {
+            return;
+        }
+
+        SlowQuery slowQuery = new SlowQuery(sql, elapsedNanos, batchSize, Instant.now());
+        if (slowQueries.length() > 0) {
+            slowQueries.set((int) (slowQuerySequence.getAndIncrement() % slowQueries.length()), slowQuery);
+        }
+        instrumentConfig.slowQueryListener().onSlowQuery(slowQuery);
+    }
+
+    private List<SlowQuery> getSlowQueries() {
+        int capacity = slowQueries.length();
+        long sequence = slowQuerySequence.get();
+        List<SlowQuery> latestSlowQueries = new ArrayList<>();
+        for (long i = Math.max(0, sequence - capacity); i < sequence; i++) {
+            SlowQuery slowQuery = slowQueries.get((int) (i % capacity));
+            if (slowQuery != null) {
+                latestSlowQueries.add(slowQuery);
+            }
+        }
+
+        return latestSlowQueries;
+    }
+}
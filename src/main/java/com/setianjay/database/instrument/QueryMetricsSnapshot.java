@@ -0,0 +1,15 @@
+package com.setianjay.database.instrument;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * everything that {@link QueryMetrics} recorded since it's created, for dashboard.
+ *
+ * @param queries         statistics of every query shape, the shape with the most total time is the first.
+ * @param connectionWaits time in nanoseconds to get connection from the data source, by pool name.
+ * @param slowQueries     the latest slow queries, the oldest is the first.
+ * */
+public record QueryMetricsSnapshot(List<QuerySnapshot> queries, Map<String, HistogramSnapshot> connectionWaits,
+                                   List<SlowQuery> slowQueries) {
+}
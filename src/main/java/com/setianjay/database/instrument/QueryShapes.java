@@ -0,0 +1,33 @@
+package com.setianjay.database.instrument;
+
+import java.util.regex.Pattern;
+
+/**
+ * Normalize query to its shape, so the same query with different literals or different number of parameters is
+ * counted together, for example:
+ * <br />
+ * {@code SELECT * FROM customer WHERE id IN (?, ?, ?)} and {@code SELECT * FROM customer WHERE id IN (?)}, or
+ * multi row insert with 10 and 500 rows.
+ * <br />
+ * <br />
+ * it uses regular expressions, so it's called once for every distinct query and the result is cached by
+ * {@link QueryMetrics}.
+ * */
+final class QueryShapes {
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern ROW_LIST = Pattern.compile("\\(\\?\\)(?:\\s*,\\s*\\(\\?\\))+");
+
+    private QueryShapes() {
+    }
+
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("(?)");
+        return ROW_LIST.matcher(shape).replaceAll("(?)");
+    }
+}
@@ -0,0 +1,14 @@
+package com.setianjay.database.instrument;
+
+/**
+ * statistics of one query shape.
+ *
+ * @param shape        the query with literals replaced by "?" and lists of "?" collapsed, see {@link QueryShapes}.
+ * @param latency      time of every execute in nanoseconds.
+ * @param batchSizes   statements of every executeBatch.
+ * @param rowsAffected sum of the update count of executeUpdate and executeBatch.
+ * @param errorCount   executes that throw exception, their time is in the latency too.
+ * */
+public record QuerySnapshot(String shape, HistogramSnapshot latency, HistogramSnapshot batchSizes, long rowsAffected,
+                            long errorCount) {
+}
@@ -0,0 +1,40 @@
+package com.setianjay.database.instrument;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * statistics of one query shape, every counter is updated without lock.
+ * */
+final class QueryStats {
+    private final String shape;
+    private final ConcurrentHistogram latency = new ConcurrentHistogram();
+    private final ConcurrentHistogram batchSizes = new ConcurrentHistogram();
+    private final LongAdder rowsAffected = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+
+    QueryStats(String shape) {
+        this.shape = shape;
+    }
+
+    /**
+     * @param batchSize statements of the batch, 0 if it isn't executeBatch.
+     * @param rowsAffected update count, 0 for select.
+     * */
+    void record(long elapsedNanos, int batchSize, long rowsAffected, boolean isFailed) {
+        latency.record(elapsedNanos);
+        if (batchSize > 0) {
+            batchSizes.record(batchSize);
+        }
+        if (rowsAffected > 0) {
+            this.rowsAffected.add(rowsAffected);
+        }
+        if (isFailed) {
+            errorCount.increment();
+        }
+    }
+
+    QuerySnapshot snapshot() {
+        return new QuerySnapshot(shape, latency.snapshot(), batchSizes.snapshot(), rowsAffected.sum(),
+                errorCount.sum());
+    }
+}
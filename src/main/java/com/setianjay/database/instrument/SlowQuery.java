@@ -0,0 +1,13 @@
+package com.setianjay.database.instrument;
+
+import java.time.Instant;
+
+/**
+ * query that run longer than {@link InstrumentConfig#slowQueryThreshold()}.
+ *
+ * @param sql          the executed query, with "?" instead of the parameter values.
+ * @param elapsedNanos time of the execute method, for select it's the time until the first rows are fetched.
+ * @param batchSize    statements that are executed in the batch, 0 if it isn't executeBatch.
+ * */
+public record SlowQuery(String sql, long elapsedNanos, int batchSize, Instant finishedAt) {
+}
@@ -0,0 +1,20 @@
+package com.setianjay.database.instrument;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receive every slow query right after it's executed, it's called by the thread that execute the query.
+ * */
+@FunctionalInterface
+public interface SlowQueryListener {
+    /* listener that ignore slow queries, they are still kept in the snapshot */
+    SlowQueryListener NONE = slowQuery -> {
+    };
+
+    /* listener that log slow query as warning with System.Logger */
+    SlowQueryListener LOG = slowQuery -> System.getLogger(SlowQueryListener.class.getName())
+            .log(System.Logger.Level.WARNING, "Slow query ({0} ms, batch {1}): {2}",
+                    TimeUnit.NANOSECONDS.toMillis(slowQuery.elapsedNanos()), slowQuery.batchSize(), slowQuery.sql());
+
+    void onSlowQuery(SlowQuery slowQuery);
+}
@@ -0,0 +1,48 @@
+package com.setianjay.database.repository;
+
+import com.setianjay.database.batch.TableMappings;
+import com.setianjay.database.entity.Customer;
+import com.setianjay.database.util.ConnectionUtil;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class CustomerRepository extends JdbcRepository<Customer, String> {
+    private static final String QUERY_UPDATE_NAME = "UPDATE customer SET name = ? WHERE id = ?";
+
+    public CustomerRepository() {
+        this(ConnectionUtil.getDataSource());
+    }
+
+    public CustomerRepository(DataSource dataSource) {
+        super(dataSource, TableMappings.CUSTOMER, "id");
+    }
+
+    public int updateName(String id, String name) throws SQLException {
+        try (JdbcSession session = openSession()) {
+            return updateName(session, id, name);
+        }
+    }
+
+    public int updateName(JdbcSession session, String id, String name) throws SQLException {
+        PreparedStatement statement = session.prepare(QUERY_UPDATE_NAME);
+        statement.setString(1, name);
+        statement.setString(2, id);
+
+        int rowAffected = statement.executeUpdate();
+        invalidate(id);
+        return rowAffected;
+    }
+
+    @Override
+    protected String getId(Customer customer) {
+        return customer.id();
+    }
+
+    @Override
+    protected Customer mapRow(ResultSet resultSet) throws SQLException {
+        return new Customer(resultSet.getString(1), resultSet.getString(2), resultSet.getString(3));
+    }
+}
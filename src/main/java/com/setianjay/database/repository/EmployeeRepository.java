@@ -0,0 +1,123 @@
+package com.setianjay.database.repository;
+
+import com.setianjay.database.batch.TableMappings;
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.Gender;
+import com.setianjay.database.util.ConnectionUtil;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class EmployeeRepository extends JdbcRepository<Employee, String> {
+    private static final String QUERY_COUNT = "SELECT COUNT(*) FROM employee";
+    private static final String QUERY_ID_AT_OFFSET = "SELECT id FROM employee ORDER BY id LIMIT 1 OFFSET ?";
+
+    public EmployeeRepository() {
+        this(ConnectionUtil.getDataSource());
+    }
+
+    public EmployeeRepository(DataSource dataSource) {
+        super(dataSource, TableMappings.EMPLOYEE, "id");
+    }
+
+    /**
+     * split the employee ids into ranges with almost the same total rows, like NTILE over the primary key. every
+     * boundary is found with "ORDER BY id LIMIT 1 OFFSET ?" that only read the primary key index.
+     *
+     * @return the last id of every range except the last range, so n ranges have n - 1 boundaries. less boundaries
+     * are returned if there are less employees than ranges.
+     * */
+    public List<String> findIdBoundaries(int rangeCount) throws SQLException {
+        List<String> boundaries = new ArrayList<>(Math.max(rangeCount - 1, 0));
+
+        try (JdbcSession session = openSession()) {
+            long totalRow;
+            try (ResultSet resultSet = session.prepare(QUERY_COUNT).executeQuery()) {
+                resultSet.next();
+                totalRow = resultSet.getLong(1);
+            }
+
+            PreparedStatement statement = session.prepare(QUERY_ID_AT_OFFSET);
+            long previousOffset = -1;
+            for (int range = 1; range < rangeCount; range++) {
+                long offset = totalRow * range / rangeCount - 1;
+                if (offset <= previousOffset) {
+                    continue;
+                }
+
+                statement.setLong(1, offset);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        boundaries.add(resultSet.getString(1));
+                    }
+                }
+                previousOffset = offset;
+            }
+        }
+
+        return boundaries;
+    }
+
+    /**
+     * find one page of employees whose id is after {@code afterId} and until {@code lastId} (inclusive) ordered by
+     * id. the next page start after the id of the last employee in this page (keyset pagination), so no cursor is
+     * kept open between the pages.
+     *
+     * @param afterId null to start from the first employee.
+     * @param lastId  null to read until the last employee.
+     * */
+    public List<Employee> findPageByIdRange(JdbcSession session, String afterId, String lastId, int limit)
+            throws SQLException {
+        StringBuilder query = new StringBuilder(getQuerySelectAll());
+        if (afterId != null) {
+            query.append(" WHERE id > ?");
+        }
+        if (lastId != null) {
+            query.append(afterId != null ? " AND" : " WHERE").append(" id <= ?");
+        }
+        query.append(" ORDER BY id LIMIT ?");
+
+        PreparedStatement statement = session.prepare(query.toString());
+        int parameterIndex = 1;
+        if (afterId != null) {
+            statement.setString(parameterIndex++, afterId);
+        }
+        if (lastId != null) {
+            statement.setString(parameterIndex++, lastId);
+        }
+        statement.setInt(parameterIndex, limit);
+
+        return findList(statement);
+    }
+
+    @Override
+    protected String getId(Employee employee) {
+        return employee.getId();
+    }
+
+    @Override
+    protected Employee mapRow(ResultSet resultSet) throws SQLException {
+        Employee employee = new Employee();
+        employee.setId(resultSet.getString(1));
+        employee.setFullName(resultSet.getString(2));
+        employee.setJobTitle(resultSet.getString(3));
+        employee.setDepartment(resultSet.getString(4));
+        employee.setBusinessUnit(resultSet.getString(5));
+        String gender = resultSet.getString(6);
+        employee.setGender(gender != null ? Gender.mapStringToGender(gender) : null);
+        employee.setEthnicity(resultSet.getString(7));
+        employee.setAge(resultSet.getInt(8));
+        employee.setHireDate(resultSet.getString(9));
+        employee.setAnnualSalary(resultSet.getInt(10));
+        employee.setBonus(resultSet.getString(11));
+        employee.setCountry(resultSet.getString(12));
+        employee.setCity(resultSet.getString(13));
+        employee.setExitDate(resultSet.getString(14));
+
+        return employee;
+    }
+}
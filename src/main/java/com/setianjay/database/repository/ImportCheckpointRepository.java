@@ -0,0 +1,121 @@
+package com.setianjay.database.repository;
+
+import com.setianjay.database.batch.TableMappings;
+import com.setianjay.database.entity.ImportCheckpoint;
+import com.setianjay.database.entity.QuarantinedRow;
+import com.setianjay.database.util.ConnectionUtil;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * checkpoints of {@link com.setianjay.database.importer.ResumableImporter} in table import_checkpoint, and the rows
+ * that are quarantined by it in table import_quarantine.
+ * <br />
+ * <br />
+ * The embedded database create both tables from embedded-schema.sql, the MySQL server needs the tables of
+ * {@link #MYSQL_SCHEMA_RESOURCE_NAME} before the first import.
+ * */
+public class ImportCheckpointRepository extends JdbcRepository<ImportCheckpoint, String> {
+    /* DDL of table import_checkpoint and import_quarantine for MySQL server */
+    public static final String MYSQL_SCHEMA_RESOURCE_NAME = "mysql-import-schema.sql";
+    /* the ON DUPLICATE KEY UPDATE clause depend on the connected database */
+    private static final String QUERY_UPSERT_CHECKPOINT_PREFIX = "INSERT INTO import_checkpoint " +
+            "(source_key, committed_row, quarantined_row) VALUES (?, ?, ?)";
+    private static final String QUERY_INSERT_QUARANTINE = "INSERT INTO import_quarantine " +
+            "(source_key, row_index, employee_id, error_message) VALUES (?, ?, ?, ?)";
+    private static final String QUERY_SELECT_QUARANTINE = "SELECT source_key, row_index, employee_id, " +
+            "error_message FROM import_quarantine WHERE source_key = ? ORDER BY row_index";
+    private static final String QUERY_DELETE_QUARANTINE = "DELETE FROM import_quarantine WHERE source_key = ?";
+    /* the error message column is VARCHAR(500) */
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 500;
+
+    public ImportCheckpointRepository() {
+        this(ConnectionUtil.getDataSource());
+    }
+
+    public ImportCheckpointRepository(DataSource dataSource) {
+        super(dataSource, TableMappings.IMPORT_CHECKPOINT, "source_key");
+    }
+
+    /**
+     * insert or update the checkpoint, it follows the transaction of the session.
+     * */
+    public int saveCheckpoint(JdbcSession session, ImportCheckpoint checkpoint) throws SQLException {
+        PreparedStatement statement = session.prepare(QUERY_UPSERT_CHECKPOINT_PREFIX +
+                TableMappings.IMPORT_CHECKPOINT.onDuplicateKeyUpdate(session.getConnection(), "source_key"));
+        statement.setString(1, checkpoint.sourceKey());
+        statement.setLong(2, checkpoint.committedRow());
+        statement.setLong(3, checkpoint.quarantinedRow());
+
+        int rowAffected = statement.executeUpdate();
+        invalidate(checkpoint.sourceKey());
+        return rowAffected;
+    }
+
+    /**
+     * insert the quarantined rows, it follows the transaction of the session.
+     * */
+    public void saveQuarantinedRows(JdbcSession session, List<QuarantinedRow> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        PreparedStatement statement = session.prepare(QUERY_INSERT_QUARANTINE);
+        for (QuarantinedRow row : rows) {
+            String errorMessage = row.errorMessage();
+            statement.setString(1, row.sourceKey());
+            statement.setLong(2, row.rowIndex());
+            statement.setString(3, row.employeeId());
+            statement.setString(4, errorMessage != null && errorMessage.length() > MAX_ERROR_MESSAGE_LENGTH
+                    ? errorMessage.substring(0, MAX_ERROR_MESSAGE_LENGTH) : errorMessage);
+            statement.addBatch();
+        }
+        statement.executeBatch();
+    }
+
+    public List<QuarantinedRow> findQuarantinedRows(String sourceKey) throws SQLException {
+        try (JdbcSession session = openSession()) {
+            PreparedStatement statement = session.prepare(QUERY_SELECT_QUARANTINE);
+            statement.setString(1, sourceKey);
+
+            List<QuarantinedRow> rows = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    rows.add(new QuarantinedRow(resultSet.getString(1), resultSet.getLong(2),
+                            resultSet.getString(3), resultSet.getString(4)));
+                }
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * delete the checkpoint and the quarantined rows of the source in one transaction, so the next import of the
+     * source start from the first row.
+     * */
+    public void deleteCheckpoint(String sourceKey) throws SQLException {
+        try (JdbcSession session = openSession()) {
+            session.inTransaction(transaction -> {
+                PreparedStatement statement = transaction.prepare(QUERY_DELETE_QUARANTINE);
+                statement.setString(1, sourceKey);
+                statement.executeUpdate();
+                return deleteById(transaction, sourceKey);
+            });
+        }
+    }
+
+    @Override
+    protected String getId(ImportCheckpoint checkpoint) {
+        return checkpoint.sourceKey();
+    }
+
+    @Override
+    protected ImportCheckpoint mapRow(ResultSet resultSet) throws SQLException {
+        return new ImportCheckpoint(resultSet.getString(1), resultSet.getLong(2), resultSet.getLong(3));
+    }
+}
@@ -0,0 +1,364 @@
+package com.setianjay.database.repository;
+
+import com.setianjay.database.batch.TableMapping;
+import com.setianjay.database.cache.CacheConfig;
+import com.setianjay.database.cache.CacheStats;
+import com.setianjay.database.cache.ReadThroughCache;
+import com.setianjay.database.enums.FetchMode;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Base repository for one table that is described by {@link TableMapping}. every query select the columns in the
+ * same order as {@link TableMapping#columnNames()}, so the row is mapped by the column index instead of the column
+ * name.
+ * <br />
+ * <br />
+ * Every method has two variants, one that borrow new connection for the call and one that use the given
+ * {@link JdbcSession}. use the session variant to call many methods with one connection and reuse the prepared
+ * statements.
+ * <br />
+ * <br />
+ * {@link #enableCache(CacheConfig)} put {@link ReadThroughCache} in front of {@link #findById(Object)}, the cached
+ * entry is invalidated by every write in this repository. the session variant of find methods always read the
+ * database, so it can see the writes of its own transaction. write in the transaction of the session invalidate the
+ * entry before the commit, so other thread can cache the old row until time to live is over.
+ * */
+public abstract class JdbcRepository<T, ID> {
+    /* total rows sent in one executeBatch */
+    private static final int BATCH_SIZE = 1000;
+    /* maximum ids in one "IN (...)" query */
+    private static final int MAX_IDS_PER_QUERY = 128;
+    /* total rows per round trip for cursor fetch */
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private final DataSource dataSource;
+    private final TableMapping<T> tableMapping;
+    private final String querySelectAll;
+    private final String querySelectById;
+    private final String queryInsert;
+    private final String queryDeleteById;
+    /* "IN (...)" query by log2 of total parameters */
+    private final String[] querySelectByIds;
+    private volatile ReadThroughCache<ID, T> cache;
+
+    protected JdbcRepository(DataSource dataSource, TableMapping<T> tableMapping, String idColumn) {
+        this.dataSource = dataSource;
+        this.tableMapping = tableMapping;
+        this.querySelectAll = querySelectAll(tableMapping);
+        this.querySelectById = querySelectAll + " WHERE " + idColumn + " = ?";
+        this.queryInsert = "INSERT INTO " + tableMapping.tableName() + " (" +
+                String.join(", ", tableMapping.columnNames()) + ") VALUES (" +
+                "?, ".repeat(tableMapping.columnCount() - 1) + "?)";
+        this.queryDeleteById = "DELETE FROM " + tableMapping.tableName() + " WHERE " + idColumn + " = ?";
+
+        this.querySelectByIds = new String[Integer.numberOfTrailingZeros(MAX_IDS_PER_QUERY) + 1];
+        for (int i = 0; i < querySelectByIds.length; i++) {
+            querySelectByIds[i] = querySelectAll + " WHERE " + idColumn + " IN (" +
+                    "?, ".repeat((1 << i) - 1) + "?)";
+        }
+    }
+
+    /**
+     * map the current row of the result set, the columns order is the same as {@link TableMapping#columnNames()}.
+     * */
+    protected abstract T mapRow(ResultSet resultSet) throws SQLException;
+
+    protected abstract ID getId(T data);
+
+    /**
+     * cache the result of {@link #findById(Object)}, including the id that doesn't exist.
+     * */
+    public void enableCache(CacheConfig cacheConfig) {
+        this.cache = new ReadThroughCache<>(id -> {
+            try (JdbcSession session = openSession()) {
+                return findById(session, id).orElse(null);
+            }
+        }, cacheConfig);
+    }
+
+    /**
+     * @return counters of the cache, or null if the cache isn't enabled.
+     * */
+    public CacheStats getCacheStats() {
+        ReadThroughCache<ID, T> currentCache = cache;
+        return currentCache != null ? currentCache.stats() : null;
+    }
+
+    /**
+     * remove the cached entry of the id, call it after every write to the row that isn't done by this class.
+     * */
+    protected void invalidate(ID id) {
+        ReadThroughCache<ID, T> currentCache = cache;
+        if (currentCache != null) {
+            currentCache.invalidate(id);
+        }
+    }
+
+    public JdbcSession openSession() throws SQLException {
+        return new JdbcSession(dataSource.getConnection());
+    }
+
+    protected TableMapping<T> getTableMapping() {
+        return tableMapping;
+    }
+
+    /**
+     * @return select query of every column in the table, add the condition after it.
+     * */
+    protected String getQuerySelectAll() {
+        return querySelectAll;
+    }
+
+    /**
+     * @return select query like {@link #getQuerySelectAll()}, for query that is built before the repository is
+     * created.
+     * */
+    protected static String querySelectAll(TableMapping<?> tableMapping) {
+        return "SELECT " + String.join(", ", tableMapping.columnNames()) + " FROM " + tableMapping.tableName();
+    }
+
+    public Optional<T> findById(ID id) throws SQLException {
+        ReadThroughCache<ID, T> currentCache = cache;
+        if (currentCache != null) {
+            return Optional.ofNullable(currentCache.get(id));
+        }
+
+        try (JdbcSession session = openSession()) {
+            return findById(session, id);
+        }
+    }
+
+    public Optional<T> findById(JdbcSession session, ID id) throws SQLException {
+        PreparedStatement statement = session.prepare(querySelectById);
+        statement.setObject(1, id);
+
+        return findOne(statement);
+    }
+
+    public List<T> findAll() throws SQLException {
+        try (JdbcSession session = openSession()) {
+            return findAll(session);
+        }
+    }
+
+    public List<T> findAll(JdbcSession session) throws SQLException {
+        return findList(session.prepare(querySelectAll));
+    }
+
+    /**
+     * stream every row in the table with {@link FetchMode#ROW_STREAMING}, see {@link #streamAll(FetchMode, int)}.
+     * */
+    public Stream<T> streamAll() throws SQLException {
+        return streamAll(FetchMode.ROW_STREAMING, DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * stream every row in the table, the rows are mapped when the stream is consumed so the memory doesn't depend on
+     * the total rows (except {@link FetchMode#BUFFERED}).
+     * <br />
+     * <br />
+     * The stream hold its own connection until it's closed, so use it in try-with-resources. {@link SQLException}
+     * while consuming the stream is thrown as {@link UncheckedSQLException}.
+     *
+     * @param fetchSize total rows per round trip, only used by {@link FetchMode#CURSOR} (and
+     *                  {@link FetchMode#ROW_STREAMING} of database other than MySQL).
+     * */
+    public Stream<T> streamAll(FetchMode fetchMode, int fetchSize) throws SQLException {
+        return streamQuery(querySelectAll, fetchMode, fetchSize);
+    }
+
+    /**
+     * stream the rows of the query that select the columns in the same order as {@link TableMapping#columnNames()},
+     * see {@link #streamAll(FetchMode, int)}.
+     * */
+    protected Stream<T> streamQuery(String query, FetchMode fetchMode, int fetchSize, Object... parameters)
+            throws SQLException {
+        Connection connection = dataSource.getConnection();
+
+        try {
+            PreparedStatement statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            switch (fetchMode) {
+                // Integer.MIN_VALUE is MySQL only, the other drivers reject it and take the fetch size as a hint
+                case ROW_STREAMING -> statement.setFetchSize(isMySql(connection) ? Integer.MIN_VALUE : fetchSize);
+                case CURSOR -> statement.setFetchSize(fetchSize);
+                case BUFFERED -> {
+                }
+            }
+
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+
+            ResultSet resultSet = statement.executeQuery();
+            return StreamSupport.stream(new ResultSetSpliterator<>(resultSet, this::mapRow), false)
+                    .onClose(() -> closeStream(resultSet, statement, connection));
+        } catch (SQLException | RuntimeException exception) {
+            connection.close();
+            throw exception;
+        }
+    }
+
+    private static boolean isMySql(Connection connection) throws SQLException {
+        return "MySQL".equals(connection.getMetaData().getDatabaseProductName());
+    }
+
+    private void closeStream(ResultSet resultSet, PreparedStatement statement, Connection connection) {
+        // closing the connection also close the statement and result set, but close them first to release them in
+        // the server as soon as possible
+        try (connection; statement; resultSet) {
+            // nothing to do
+        } catch (SQLException exception) {
+            throw new UncheckedSQLException(exception);
+        }
+    }
+
+    public List<T> findAllById(Collection<ID> ids) throws SQLException {
+        try (JdbcSession session = openSession()) {
+            return findAllById(session, ids);
+        }
+    }
+
+    /**
+     * find the data of every id with "IN (...)" query, the ids are split into chunks and the size of every chunk is
+     * rounded up to power of two (the rest is filled with the last id), so only few prepared statements are needed
+     * for any total ids.
+     * */
+    public List<T> findAllById(JdbcSession session, Collection<ID> ids) throws SQLException {
+        List<ID> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<T> result = new ArrayList<>(distinctIds.size());
+
+        for (int fromIndex = 0; fromIndex < distinctIds.size(); fromIndex += MAX_IDS_PER_QUERY) {
+            List<ID> chunk = distinctIds.subList(fromIndex, Math.min(fromIndex + MAX_IDS_PER_QUERY,
+                    distinctIds.size()));
+            int totalParameter = Integer.highestOneBit(chunk.size() * 2 - 1);
+
+            PreparedStatement statement = session.prepare(
+                    querySelectByIds[Integer.numberOfTrailingZeros(totalParameter)]);
+            for (int i = 0; i < totalParameter; i++) {
+                statement.setObject(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+            }
+
+            result.addAll(findList(statement));
+        }
+
+        return result;
+    }
+
+    public int save(T data) throws SQLException {
+        try (JdbcSession session = openSession()) {
+            return save(session, data);
+        }
+    }
+
+    public int save(JdbcSession session, T data) throws SQLException {
+        PreparedStatement statement = session.prepare(queryInsert);
+        setParameters(statement, tableMapping.mapToParameters(data));
+
+        int rowAffected = statement.executeUpdate();
+        invalidate(getId(data));
+        return rowAffected;
+    }
+
+    /**
+     * insert all data with JDBC batch in one transaction.
+     * */
+    public int saveAll(Collection<T> data) throws SQLException {
+        try (JdbcSession session = openSession()) {
+            int rowAffected = session.inTransaction(transaction -> saveAll(transaction, data));
+            // invalidate again after commit, lookup while the transaction run may cache the old row
+            invalidateAll(data);
+            return rowAffected;
+        }
+    }
+
+    /**
+     * insert all data with JDBC batch, it doesn't start transaction so it follows the transaction of the session.
+     * */
+    public int saveAll(JdbcSession session, Collection<T> data) throws SQLException {
+        PreparedStatement statement = session.prepare(queryInsert);
+        int rowAffected = 0;
+        int batchRow = 0;
+
+        for (T row : data) {
+            setParameters(statement, tableMapping.mapToParameters(row));
+            statement.addBatch();
+
+            if (++batchRow == BATCH_SIZE) {
+                rowAffected += sumRowAffected(statement.executeBatch());
+                batchRow = 0;
+            }
+        }
+
+        if (batchRow > 0) {
+            rowAffected += sumRowAffected(statement.executeBatch()); // rest of data
+        }
+
+        invalidateAll(data);
+        return rowAffected;
+    }
+
+    public int deleteById(ID id) throws SQLException {
+        try (JdbcSession session = openSession()) {
+            return deleteById(session, id);
+        }
+    }
+
+    public int deleteById(JdbcSession session, ID id) throws SQLException {
+        PreparedStatement statement = session.prepare(queryDeleteById);
+        statement.setObject(1, id);
+
+        int rowAffected = statement.executeUpdate();
+        invalidate(id);
+        return rowAffected;
+    }
+
+    private void invalidateAll(Collection<T> data) {
+        if (cache != null) {
+            for (T row : data) {
+                invalidate(getId(row));
+            }
+        }
+    }
+
+    protected Optional<T> findOne(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? Optional.of(mapRow(resultSet)) : Optional.empty();
+        }
+    }
+
+    protected List<T> findList(PreparedStatement statement) throws SQLException {
+        List<T> result = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                result.add(mapRow(resultSet));
+            }
+        }
+
+        return result;
+    }
+
+    private void setParameters(PreparedStatement statement, Object[] parameters) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            statement.setObject(i + 1, parameters[i]);
+        }
+    }
+
+    private int sumRowAffected(int[] rowsAffected) {
+        int total = 0;
+        for (int rowAffected : rowsAffected) {
+            // rewritten batch report SUCCESS_NO_INFO (-2) for every row
+            total += rowAffected == PreparedStatement.SUCCESS_NO_INFO ? 1 : Math.max(rowAffected, 0);
+        }
+
+        return total;
+    }
+}
@@ -0,0 +1,93 @@
+package com.setianjay.database.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hold one connection from the pool and the prepared statements that are created in it, so calling the same query
+ * several times in one session only prepare the statement once.
+ * <br />
+ * <br />
+ * Note: this class is not thread safe, use one session per thread. only {@link #cancel()} can be called from other
+ * thread.
+ * */
+public class JdbcSession implements AutoCloseable {
+    private final Connection connection;
+    /* prepared statement by its query, concurrent so cancel() can read it from other thread */
+    private final Map<String, PreparedStatement> statements = new ConcurrentHashMap<>();
+
+    public JdbcSession(Connection connection) {
+        this.connection = connection;
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * @return prepared statement of the query, the statement is created once and reused for the rest of session.
+     * */
+    public PreparedStatement prepare(String query) throws SQLException {
+        PreparedStatement statement = statements.get(query);
+        if (statement == null) {
+            statement = connection.prepareStatement(query);
+            statements.put(query, statement);
+        } else {
+            statement.clearParameters();
+        }
+
+        return statement;
+    }
+
+    /**
+     * run the work in one transaction, the transaction is rolled back if the work is failed.
+     * */
+    public <R> R inTransaction(SqlWork<R> work) throws SQLException {
+        boolean isAutoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+
+        try {
+            R result = work.run(this);
+            connection.commit();
+            return result;
+        } catch (SQLException | RuntimeException exception) {
+            connection.rollback();
+            throw exception;
+        } finally {
+            connection.setAutoCommit(isAutoCommit);
+        }
+    }
+
+    /**
+     * cancel the statements that are running in this session (for example by another thread after timeout), the
+     * running call fail with {@link SQLException}. MySQL driver send "KILL QUERY" with another connection.
+     * */
+    public void cancel() throws SQLException {
+        for (PreparedStatement statement : statements.values()) {
+            statement.cancel();
+        }
+    }
+
+    /**
+     * close every prepared statement and return the connection to the pool.
+     * */
+    @Override
+    public void close() throws SQLException {
+        try {
+            for (PreparedStatement statement : statements.values()) {
+                statement.close();
+            }
+            statements.clear();
+        } finally {
+            connection.close();
+        }
+    }
+
+    @FunctionalInterface
+    public interface SqlWork<R> {
+        R run(JdbcSession session) throws SQLException;
+    }
+}
@@ -0,0 +1,40 @@
+package com.setianjay.database.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * map every row of the result set lazily when the stream advance, so only the rows that are fetched by the driver
+ * are in the memory.
+ * */
+class ResultSetSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+    private final ResultSet resultSet;
+    private final RowMapper<T> rowMapper;
+
+    ResultSetSpliterator(ResultSet resultSet, RowMapper<T> rowMapper) {
+        super(Long.MAX_VALUE, ORDERED | NONNULL | IMMUTABLE);
+        this.resultSet = resultSet;
+        this.rowMapper = rowMapper;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        try {
+            if (!resultSet.next()) {
+                return false;
+            }
+
+            action.accept(rowMapper.mapRow(resultSet));
+            return true;
+        } catch (SQLException exception) {
+            throw new UncheckedSQLException(exception);
+        }
+    }
+
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T mapRow(ResultSet resultSet) throws SQLException;
+    }
+}
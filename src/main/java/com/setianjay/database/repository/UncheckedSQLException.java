@@ -0,0 +1,20 @@
+package com.setianjay.database.repository;
+
+import java.sql.SQLException;
+
+/**
+ * wrap {@link SQLException} that is thrown while consuming a stream of rows, like {@link java.io.UncheckedIOException}
+ * does for {@link java.io.IOException}.
+ * */
+public class UncheckedSQLException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public UncheckedSQLException(SQLException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
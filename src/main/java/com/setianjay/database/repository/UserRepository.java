@@ -0,0 +1,70 @@
+package com.setianjay.database.repository;
+
+import com.setianjay.database.batch.TableMappings;
+import com.setianjay.database.entity.User;
+import com.setianjay.database.util.ConnectionUtil;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+public class UserRepository extends JdbcRepository<User, String> {
+    private static final String QUERY_UPDATE_PASSWORD = "UPDATE user SET password = ? WHERE username = ?";
+    private static final String QUERY_LOGIN = querySelectAll(TableMappings.USER) +
+            " WHERE username = ? AND password = ?";
+
+    public UserRepository() {
+        this(ConnectionUtil.getDataSource());
+    }
+
+    public UserRepository(DataSource dataSource) {
+        super(dataSource, TableMappings.USER, "username");
+    }
+
+    /**
+     * @return the user if the username and plain password are correct. use
+     * {@link com.setianjay.database.auth.AuthService} for user with hashed password.
+     * */
+    public Optional<User> findByUsernameAndPassword(String username, String password) throws SQLException {
+        try (JdbcSession session = openSession()) {
+            return findByUsernameAndPassword(session, username, password);
+        }
+    }
+
+    public Optional<User> findByUsernameAndPassword(JdbcSession session, String username, String password)
+            throws SQLException {
+        PreparedStatement statement = session.prepare(QUERY_LOGIN);
+        statement.setString(1, username);
+        statement.setString(2, password);
+
+        return findOne(statement);
+    }
+
+    public int updatePassword(String username, String password) throws SQLException {
+        try (JdbcSession session = openSession()) {
+            return updatePassword(session, username, password);
+        }
+    }
+
+    public int updatePassword(JdbcSession session, String username, String password) throws SQLException {
+        PreparedStatement statement = session.prepare(QUERY_UPDATE_PASSWORD);
+        statement.setString(1, password);
+        statement.setString(2, username);
+
+        int rowAffected = statement.executeUpdate();
+        invalidate(username);
+        return rowAffected;
+    }
+
+    @Override
+    protected String getId(User user) {
+        return user.username();
+    }
+
+    @Override
+    protected User mapRow(ResultSet resultSet) throws SQLException {
+        return new User(resultSet.getString(1), resultSet.getString(2));
+    }
+}
@@ -1,49 +1,186 @@
 package com.setianjay.database.util;
 
-import com.zaxxer.hikari.HikariConfig;
+import com.setianjay.database.datasource.DataSourceProvider;
+import com.setianjay.database.datasource.DataSourceRegistry;
+import com.setianjay.database.datasource.DataSourceSettings;
+import com.setianjay.database.datasource.PoolMetrics;
+import com.setianjay.database.instrument.QueryMetrics;
+import com.setianjay.database.repository.UncheckedSQLException;
 import com.zaxxer.hikari.HikariDataSource;
 
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Shared {@link DataSourceRegistry} of this project. the database is chosen by {@link DataSourceProvider}, by default
+ * it's MySQL server from {@value DataSourceSettings#RESOURCE_NAME} and the environment variables (see
+ * {@link DataSourceSettings}), set system property {@value DataSourceProvider#PROVIDER_PROPERTY} to "h2" or "hsqldb"
+ * to use embedded database instead.
+ * */
 public class ConnectionUtil {
 
     private ConnectionUtil() {
     }
 
-    private static HikariDataSource hikariDataSource;
+    private static final Object LOCK = new Object();
 
+    private static volatile DataSourceRegistry dataSourceRegistry;
+    /* null until the setter is called, so the value from the settings is used */
+    private static Boolean rewriteBatchedStatements;
+    private static Boolean allowLoadLocalInfile;
+    private static PoolMetrics poolMetrics = PoolMetrics.NONE;
+    private static DataSourceProvider dataSourceProvider;
+    private static volatile QueryMetrics queryMetrics;
 
+    /**
+     * @return data source of the default pool, it's safe to call from many threads.
+     * */
     public static HikariDataSource getHikariDataSource() {
-        if (hikariDataSource == null) {
-            setHikariDataSource();
+        return getDataSourceRegistry().getDataSource();
+    }
+
+    /**
+     * @return data source of the named pool, for example "bulk" for import and "oltp" for short query.
+     * */
+    public static HikariDataSource getHikariDataSource(String poolName) {
+        return getDataSourceRegistry().getDataSource(poolName);
+    }
+
+    /**
+     * @return data source of the default pool for the repositories, it's measured by the query metrics if it's set.
+     * */
+    public static DataSource getDataSource() {
+        return getDataSource(DataSourceSettings.DEFAULT_POOL);
+    }
+
+    /**
+     * @return data source of the named pool, it's measured by the query metrics if it's set.
+     * */
+    public static DataSource getDataSource(String poolName) {
+        HikariDataSource dataSource = getHikariDataSource(poolName);
+        QueryMetrics metrics = queryMetrics;
+        return metrics == null ? dataSource : metrics.instrument(dataSource, poolName);
+    }
+
+    public static DataSourceRegistry getDataSourceRegistry() {
+        DataSourceRegistry registry = dataSourceRegistry;
+        if (registry == null) {
+            synchronized (LOCK) {
+                registry = dataSourceRegistry;
+                if (registry == null) {
+                    registry = createDataSourceRegistry();
+                    dataSourceRegistry = registry;
+                }
+            }
         }
 
-        return hikariDataSource;
+        return registry;
     }
 
-    private static void setHikariDataSource() {
-        HikariConfig hConfig = new HikariConfig();
-        /* setup source of database */
-        hConfig.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        hConfig.setJdbcUrl("jdbc:mysql://localhost:3306/belajar_java_database");
-        hConfig.setUsername("root");
-        hConfig.setPassword("");
+    private static DataSourceRegistry createDataSourceRegistry() {
+        if (dataSourceProvider == null) {
+            dataSourceProvider = DataSourceProvider.fromEnvironment();
+        }
+
+        DataSourceSettings settings = dataSourceProvider.createSettings();
+        if (dataSourceProvider.isMySql()) {
+            // only the values that are set by the setters override the settings of the properties file and the
+            // environment variables
+            if (rewriteBatchedStatements != null) {
+                // let the driver rewrite batch of insert into multi row insert, so one executeBatch is one round trip
+                settings = settings.withProperty("dataSource.rewriteBatchedStatements",
+                        rewriteBatchedStatements.toString());
+            }
+            if (allowLoadLocalInfile != null) {
+                // allow "LOAD DATA LOCAL INFILE" to send the data from the client
+                settings = settings.withProperty("dataSource.allowLoadLocalInfile", allowLoadLocalInfile.toString());
+            }
+        }
+
+        DataSourceRegistry registry = new DataSourceRegistry(settings, poolMetrics);
+        try {
+            dataSourceProvider.initialize(registry.getDataSource());
+        } catch (SQLException exception) {
+            registry.close();
+            throw new UncheckedSQLException(exception);
+        }
+
+        return registry;
+    }
 
-        /* setup connection pool */
-        hConfig.setMaximumPoolSize(10); // size of connection pool (consist 10 database connection)
-        // if no one use the connection until idle timeout, the half of connection will be close
-        hConfig.setMinimumIdle(5);
-        hConfig.setIdleTimeout(60_000L);
-        hConfig.setConnectionTimeout(10 * 60_000L); // waiting time for the connection
+    /**
+     * Set the database of this project, for example
+     * {@link com.setianjay.database.datasource.EmbeddedDataSourceProvider} for the tests. the existing connection
+     * pools are closed, so the next {@link #getHikariDataSource()} use this provider.
+     * */
+    public static void setDataSourceProvider(DataSourceProvider provider) {
+        synchronized (LOCK) {
+            dataSourceProvider = provider;
+            close();
+        }
+    }
+
+    /**
+     * Turn on or turn off rewriteBatchedStatements of MySQL driver, it overrides the value from the settings of every
+     * pool. the existing connection pools are closed, so the next {@link #getHikariDataSource()} create new pool with
+     * this setting.
+     * */
+    public static void setRewriteBatchedStatements(boolean enabled) {
+        synchronized (LOCK) {
+            if (!Boolean.valueOf(enabled).equals(rewriteBatchedStatements)) {
+                rewriteBatchedStatements = enabled;
+                close();
+            }
+        }
+    }
+
+    /**
+     * Turn on or turn off allowLoadLocalInfile of MySQL driver, it's needed by
+     * {@link com.setianjay.database.batch.LocalInfileLoader}. only turn it on for trusted server, because the server
+     * can ask the client to send any local file. it overrides the value from the settings of every pool. the existing
+     * connection pools are closed, so the next {@link #getHikariDataSource()} create new pool with this setting.
+     * */
+    public static void setAllowLoadLocalInfile(boolean enabled) {
+        synchronized (LOCK) {
+            if (!Boolean.valueOf(enabled).equals(allowLoadLocalInfile)) {
+                allowLoadLocalInfile = enabled;
+                close();
+            }
+        }
+    }
+
+    /**
+     * Set the metrics that receive metrics of every pool. the existing connection pools are closed, so the next
+     * {@link #getHikariDataSource()} create new pool with this metrics.
+     * */
+    public static void setPoolMetrics(PoolMetrics metrics) {
+        synchronized (LOCK) {
+            poolMetrics = metrics;
+            close();
+        }
+    }
+
+    /**
+     * Set the metrics that measure the queries of the data source from {@link #getDataSource()}, null to stop
+     * measuring. the data source that is already taken keeps its metrics.
+     * */
+    public static void setQueryMetrics(QueryMetrics metrics) {
+        queryMetrics = metrics;
+    }
 
-        hikariDataSource = new HikariDataSource(hConfig);
+    public static QueryMetrics getQueryMetrics() {
+        return queryMetrics;
     }
 
     /**
-     * Close Hikari Connection Pool
+     * Close every Hikari Connection Pool
      * */
     public static void close(){
-        if (hikariDataSource != null){
-            hikariDataSource.close();
-            hikariDataSource = null;
+        synchronized (LOCK) {
+            if (dataSourceRegistry != null) {
+                dataSourceRegistry.close();
+                dataSourceRegistry = null;
+            }
         }
     }
 }
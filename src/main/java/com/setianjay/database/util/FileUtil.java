@@ -1,5 +1,13 @@
 package com.setianjay.database.util;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
 public class FileUtil {
 
     private FileUtil(){
@@ -10,4 +18,25 @@ public class FileUtil {
         String[] fileSeparated = fileName.split("\\.");
         return fileSeparated[fileSeparated.length - 1];
     }
+
+    /**
+     * @return SHA-256 of the file content in lowercase hex, the same file always has the same hash whatever its name.
+     * */
+    public static String sha256Hex(File file) throws IOException {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 isn't supported by this JVM", exception);
+        }
+
+        try (InputStream inputStream = new FileInputStream(file)) {
+            byte[] buffer = new byte[64 * 1024];
+            for (int length = inputStream.read(buffer); length >= 0; length = inputStream.read(buffer)) {
+                messageDigest.update(buffer, 0, length);
+            }
+        }
+
+        return HexFormat.of().formatHex(messageDigest.digest());
+    }
 }
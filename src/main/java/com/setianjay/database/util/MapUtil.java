@@ -13,4 +13,8 @@ public class MapUtil {
         double holdValueInDouble = Double.parseDouble(s);
         return (int) holdValueInDouble;
     }
+
+    public static int mapDoubleToInt(double value) {
+        return (int) value;
+    }
 }
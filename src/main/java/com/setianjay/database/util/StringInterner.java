@@ -0,0 +1,67 @@
+package com.setianjay.database.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary that return the same {@link String} instance for every equal string, so the column with only a few
+ * distinct values (like job title or country) hold one string per distinct value instead of one copy per row.
+ * <br />
+ * <br />
+ * Unlike {@link String#intern()} the strings are kept in this instance only (use one interner for every column), and
+ * the dictionary is bounded: when it's full the new string is returned as is, so column with unexpected high
+ * cardinality doesn't grow the dictionary without limit. It's thread safe, looking up the string that is already in
+ * the dictionary doesn't lock.
+ * */
+public final class StringInterner {
+    public static final int DEFAULT_MAX_SIZE = 1_024;
+
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public StringInterner() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize maximum distinct strings in the dictionary.
+     * */
+    public StringInterner(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Max size must be at least 1");
+        }
+
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the string in the dictionary that is equal to the value, or the value itself if it's new and the
+     * dictionary is full. null is returned as null.
+     * */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        String internedValue = values.get(value);
+        if (internedValue != null) {
+            return internedValue;
+        }
+
+        // the size is only checked for new string, it can go a little above max size when several threads add at once
+        if (values.size() >= maxSize) {
+            return value;
+        }
+
+        internedValue = values.putIfAbsent(value, value);
+        return internedValue != null ? internedValue : value;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+}
@@ -0,0 +1,55 @@
+-- tables of this project for embedded database (H2 or HSQLDB in MySQL mode)
+CREATE TABLE IF NOT EXISTS customer (
+    id VARCHAR(100) NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS user (
+    username VARCHAR(100) NOT NULL,
+    password VARCHAR(200) NOT NULL,
+    PRIMARY KEY (username)
+);
+
+CREATE TABLE IF NOT EXISTS employee (
+    id VARCHAR(10) NOT NULL,
+    full_name VARCHAR(100),
+    job_title VARCHAR(100),
+    department VARCHAR(100),
+    business_unit VARCHAR(100),
+    gender VARCHAR(10),
+    ethnicity VARCHAR(50),
+    age INT,
+    hire_date VARCHAR(20),
+    annual_salary INT,
+    bonus VARCHAR(10),
+    country VARCHAR(50),
+    city VARCHAR(50),
+    exit_date VARCHAR(20),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS sample_time (
+    id INT NOT NULL AUTO_INCREMENT,
+    dates DATE,
+    times TIME,
+    datestimes DATETIME,
+    timesstamp TIMESTAMP,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS import_checkpoint (
+    source_key VARCHAR(64) NOT NULL,
+    committed_row BIGINT NOT NULL,
+    quarantined_row BIGINT NOT NULL,
+    PRIMARY KEY (source_key)
+);
+
+CREATE TABLE IF NOT EXISTS import_quarantine (
+    source_key VARCHAR(64) NOT NULL,
+    row_index BIGINT NOT NULL,
+    employee_id VARCHAR(100),
+    error_message VARCHAR(500),
+    PRIMARY KEY (source_key, row_index)
+);
@@ -0,0 +1,16 @@
+-- tables of ResumableImporter for MySQL server, the embedded database create them from embedded-schema.sql
+CREATE TABLE IF NOT EXISTS import_checkpoint (
+    source_key VARCHAR(64) NOT NULL,
+    committed_row BIGINT NOT NULL,
+    quarantined_row BIGINT NOT NULL,
+    PRIMARY KEY (source_key)
+) ENGINE = InnoDB;
+
+-- error_message is cut to 500 characters by ImportCheckpointRepository
+CREATE TABLE IF NOT EXISTS import_quarantine (
+    source_key VARCHAR(64) NOT NULL,
+    row_index BIGINT NOT NULL,
+    employee_id VARCHAR(100),
+    error_message VARCHAR(500),
+    PRIMARY KEY (source_key, row_index)
+) ENGINE = InnoDB;
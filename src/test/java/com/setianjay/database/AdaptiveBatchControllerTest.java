@@ -0,0 +1,161 @@
+package com.setianjay.database;
+
+import com.setianjay.database.batch.AdaptiveBatchConfig;
+import com.setianjay.database.batch.AdaptiveBatchController;
+import com.setianjay.database.batch.BatchStats;
+import com.setianjay.database.datasource.EmbeddedDataSourceProvider;
+import com.setianjay.database.enums.EmbeddedDatabase;
+import com.setianjay.database.enums.InsertMode;
+import com.setianjay.database.excel.data.EmployeeDataGenerator;
+import com.setianjay.database.importer.EmployeeImporter;
+import com.setianjay.database.importer.ImportConfig;
+import com.setianjay.database.importer.ImportResult;
+import com.setianjay.database.util.ConnectionUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Implement Adaptive Batch Controller test to make sure the batch size grows while the batches are fast, shrinks when
+ * they are slow or failed, and stays between the limits.
+ */
+class AdaptiveBatchControllerTest {
+    private static final long FAST_BATCH = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW_BATCH = TimeUnit.SECONDS.toNanos(1);
+
+    @RegisterExtension
+    final DataSourceProviderExtension dataSourceProvider = DataSourceProviderExtension.perTest();
+
+    private final AdaptiveBatchConfig batchConfig = new AdaptiveBatchConfig(100, 1_000, 400, 100, 0.5,
+            Duration.ofMillis(100));
+
+    @Test
+    @DisplayName(value = "increase the batch size additively until the maximum")
+    void testAdditiveIncrease() {
+        AdaptiveBatchController batchController = new AdaptiveBatchController(batchConfig);
+
+        for (int i = 0; i < 10; i++) {
+            int batchSize = batchController.getBatchSize();
+            assertEquals(Math.min(1_000, 400 + i * 100), batchSize);
+            // bigger batch in the same time, the throughput keeps growing
+            batchController.recordBatch(batchSize, FAST_BATCH);
+        }
+
+        BatchStats batchStats = batchController.getStats();
+        assertEquals(1_000, batchStats.batchSize());
+        assertEquals(10, batchStats.totalBatches());
+        assertEquals(0, batchStats.decreaseCount());
+        assertTrue(batchStats.rowsPerSecond() > 0);
+    }
+
+    @Test
+    @DisplayName(value = "decrease the batch size multiplicatively until the minimum")
+    void testMultiplicativeDecrease() {
+        AdaptiveBatchController batchController = new AdaptiveBatchController(batchConfig);
+
+        batchController.recordBatch(batchController.getBatchSize(), SLOW_BATCH);
+        assertEquals(200, batchController.getBatchSize());
+        batchController.recordBatch(batchController.getBatchSize(), SLOW_BATCH);
+        assertEquals(100, batchController.getBatchSize());
+        batchController.recordBatch(batchController.getBatchSize(), SLOW_BATCH);
+        assertEquals(100, batchController.getBatchSize());
+
+        BatchStats batchStats = batchController.getStats();
+        assertEquals(2, batchStats.decreaseCount());
+        assertEquals(SLOW_BATCH, batchStats.lastLatencyNanos());
+        assertEquals(700, batchStats.totalRows());
+    }
+
+    @Test
+    @DisplayName(value = "decrease the batch size when the throughput drops or the batch is failed")
+    void testThroughputDropAndFailure() {
+        AdaptiveBatchController batchController = new AdaptiveBatchController(batchConfig);
+
+        batchController.recordBatch(400, FAST_BATCH);
+        assertEquals(500, batchController.getBatchSize());
+        // still faster than the target latency, but the throughput is a quarter of the previous batch
+        batchController.recordBatch(500, FAST_BATCH * 5);
+        assertEquals(250, batchController.getBatchSize());
+
+        batchController.recordFailure();
+        assertEquals(125, batchController.getBatchSize());
+        assertEquals(2, batchController.getStats().decreaseCount());
+    }
+
+    @Test
+    @DisplayName(value = "small batch only update the statistics")
+    void testSmallBatch() {
+        AdaptiveBatchController batchController = new AdaptiveBatchController(batchConfig);
+
+        batchController.recordBatch(10, SLOW_BATCH);
+        assertEquals(400, batchController.getBatchSize());
+        assertEquals(1, batchController.getStats().totalBatches());
+    }
+
+    @Test
+    @DisplayName(value = "fixed controller never change the batch size")
+    void testFixedBatchSize() {
+        AdaptiveBatchController batchController = AdaptiveBatchController.fixed(500);
+
+        batchController.recordBatch(500, FAST_BATCH);
+        batchController.recordBatch(500, SLOW_BATCH);
+        batchController.recordFailure();
+        assertEquals(500, batchController.getBatchSize());
+        assertEquals(0, batchController.getStats().decreaseCount());
+    }
+
+    @Test
+    @DisplayName(value = "reject invalid batch size limits")
+    void testInvalidConfig() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveBatchConfig(100, 50, 100, 10, 0.5, Duration.ofMillis(100)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveBatchConfig(100, 1_000, 2_000, 10, 0.5, Duration.ofMillis(100)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveBatchConfig(100, 1_000, 500, 10, 1.5, Duration.ofMillis(100)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = InsertMode.class)
+    @DisplayName(value = "import every row with adaptive batch size")
+    void testImportWithAdaptiveBatchSize(InsertMode insertMode) throws SQLException {
+        dataSourceProvider.use(new EmbeddedDataSourceProvider(EmbeddedDatabase.H2, "adaptive_test"));
+        DataSource dataSource = ConnectionUtil.getHikariDataSource();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM employee");
+        }
+
+        AdaptiveBatchController batchController = new AdaptiveBatchController(
+                new AdaptiveBatchConfig(10, 500, 50, 50, 0.5, Duration.ofSeconds(5)));
+        EmployeeImporter employeeImporter = new EmployeeImporter(dataSource, new ImportConfig(50, 2, 4, insertMode),
+                batchController);
+
+        ImportResult importResult = employeeImporter.importEmployees(EmployeeDataGenerator.employees(3_000));
+        assertEquals(3_000, importResult.totalRow());
+
+        BatchStats batchStats = employeeImporter.getBatchController().getStats();
+        assertEquals(3_000, batchStats.totalRows());
+        assertTrue(batchStats.batchSize() >= 10 && batchStats.batchSize() <= 500);
+        assertTrue(batchStats.rowsPerSecond() > 0);
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM employee")) {
+            resultSet.next();
+            assertEquals(3_000, resultSet.getLong(1));
+        }
+    }
+}
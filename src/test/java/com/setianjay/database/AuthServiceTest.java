@@ -0,0 +1,104 @@
+package com.setianjay.database;
+
+import com.setianjay.database.auth.AuthConfig;
+import com.setianjay.database.auth.AuthService;
+import com.setianjay.database.auth.PasswordHasher;
+import com.setianjay.database.entity.User;
+import com.setianjay.database.enums.LoginStatus;
+import com.setianjay.database.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Implement AuthService test with in memory user repository, to make sure login doesn't read the database when it
+ * isn't needed.
+ */
+class AuthServiceTest {
+
+    private final PasswordHasher passwordHasher = new PasswordHasher(1_000);
+
+    @Test
+    @DisplayName(value = "password hash is salted and only match the same password")
+    void testPasswordHasher() {
+        String firstHash = passwordHasher.hash("rahasia");
+        String secondHash = passwordHasher.hash("rahasia");
+
+        assertNotEquals(firstHash, secondHash);
+        assertTrue(passwordHasher.verify("rahasia", firstHash));
+        assertTrue(passwordHasher.verify("rahasia", secondHash));
+        assertFalse(passwordHasher.verify("admin'; #", firstHash));
+        assertFalse(passwordHasher.verify("rahasia", "rahasia"));
+    }
+
+    @Test
+    @DisplayName(value = "successful login is remembered and sql injection doesn't login")
+    void testLoginIsRemembered() throws SQLException {
+        InMemoryUserRepository userRepository = new InMemoryUserRepository();
+        AuthService authService = new AuthService(userRepository, passwordHasher, AuthConfig.defaultConfig());
+        authService.register("admin", "admin");
+
+        assertEquals(LoginStatus.INVALID_CREDENTIALS, authService.login("admin'; #", "wrong password"));
+        assertEquals(LoginStatus.SUCCESS, authService.login("admin", "admin"));
+        assertEquals(LoginStatus.SUCCESS, authService.login("admin", "admin"));
+        assertEquals(2, userRepository.totalLookup.get());
+
+        authService.changePassword("admin", "new password");
+        assertEquals(LoginStatus.INVALID_CREDENTIALS, authService.login("admin", "admin"));
+        assertEquals(LoginStatus.SUCCESS, authService.login("admin", "new password"));
+    }
+
+    @Test
+    @DisplayName(value = "username is locked after too many failed login and locked login doesn't read database")
+    void testLockoutAfterFailedAttempts() throws SQLException {
+        InMemoryUserRepository userRepository = new InMemoryUserRepository();
+        AuthService authService = new AuthService(userRepository, passwordHasher,
+                new AuthConfig(3, Duration.ofMinutes(15), 100, Duration.ofMinutes(5)));
+        authService.register("admin", "admin");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(LoginStatus.INVALID_CREDENTIALS, authService.login("admin", "wrong password"));
+        }
+
+        int totalLookup = userRepository.totalLookup.get();
+        assertEquals(LoginStatus.LOCKED, authService.login("admin", "admin"));
+        assertEquals(totalLookup, userRepository.totalLookup.get());
+
+        authService.unlock("admin");
+        assertEquals(LoginStatus.SUCCESS, authService.login("admin", "admin"));
+    }
+
+    private static class InMemoryUserRepository extends UserRepository {
+        private final Map<String, User> users = new ConcurrentHashMap<>();
+        private final AtomicInteger totalLookup = new AtomicInteger();
+
+        private InMemoryUserRepository() {
+            super(null);
+        }
+
+        @Override
+        public Optional<User> findById(String username) {
+            totalLookup.incrementAndGet();
+            return Optional.ofNullable(users.get(username));
+        }
+
+        @Override
+        public int save(User user) {
+            users.put(user.username(), user);
+            return 1;
+        }
+
+        @Override
+        public int updatePassword(String username, String password) {
+            return users.replace(username, new User(username, password)) != null ? 1 : 0;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
@@ -13,6 +14,11 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 
+/**
+ * Implement Connection test to make sure the MySQL server of this project can be connected directly and through
+ * HikariCP. it needs the MySQL server, so it only runs with profile "mysql" (mvn test -Pmysql).
+ */
+@Tag(value = "mysql")
 class ConnectionTest {
 
     @Test
@@ -22,7 +28,8 @@ class ConnectionTest {
         String username = "root";
         String password = "";
 
-        try (Connection ignored = DriverManager.getConnection(jdbcUrl, username, password)){
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password)){
+            Assertions.assertFalse(connection.isClosed());
             System.out.println("Success to connect MySQL");
         } catch (SQLException exception) {
             exception.printStackTrace();
@@ -0,0 +1,56 @@
+package com.setianjay.database;
+
+import com.setianjay.database.datasource.DataSourceProvider;
+import com.setianjay.database.datasource.EmbeddedDataSourceProvider;
+import com.setianjay.database.enums.EmbeddedDatabase;
+import com.setianjay.database.util.ConnectionUtil;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * JUnit extension that set the {@link DataSourceProvider} of {@link ConnectionUtil} before every test and go back to
+ * the provider of the environment after every test, so the next test class isn't affected. register it with
+ * {@link org.junit.jupiter.api.extension.RegisterExtension}, it runs before the {@code @BeforeEach} methods of the
+ * test class.
+ */
+class DataSourceProviderExtension implements BeforeEachCallback, AfterEachCallback {
+    private final DataSourceProvider dataSourceProvider;
+
+    private DataSourceProviderExtension(DataSourceProvider dataSourceProvider) {
+        this.dataSourceProvider = dataSourceProvider;
+    }
+
+    /**
+     * @return extension that use the embedded database for every test of the class.
+     * */
+    static DataSourceProviderExtension embedded(EmbeddedDatabase embeddedDatabase, String databaseName) {
+        return new DataSourceProviderExtension(new EmbeddedDataSourceProvider(embeddedDatabase, databaseName));
+    }
+
+    /**
+     * @return extension where every test choose its provider with {@link #use(DataSourceProvider)}.
+     * */
+    static DataSourceProviderExtension perTest() {
+        return new DataSourceProviderExtension(null);
+    }
+
+    /**
+     * use the provider until the end of the current test.
+     * */
+    void use(DataSourceProvider provider) {
+        ConnectionUtil.setDataSourceProvider(provider);
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (dataSourceProvider != null) {
+            use(dataSourceProvider);
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        use(DataSourceProvider.fromEnvironment());
+    }
+}
@@ -0,0 +1,100 @@
+package com.setianjay.database;
+
+import com.setianjay.database.datasource.DataSourceProvider;
+import com.setianjay.database.datasource.DataSourceSettings;
+import com.setianjay.database.util.ConnectionUtil;
+import com.zaxxer.hikari.HikariConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Implement DataSourceSettings test to make sure the pool settings are merged in the right order.
+ */
+class DataSourceSettingsTest {
+    @RegisterExtension
+    final DataSourceProviderExtension dataSourceProvider = DataSourceProviderExtension.perTest();
+
+    @Test
+    @DisplayName(value = "pool property override shared property and environment variable override both")
+    void testMergePoolSettings() {
+        Properties properties = new Properties();
+        properties.setProperty("jdbcUrl", "jdbc:mysql://localhost:3306/belajar_java_database");
+        properties.setProperty("maximumPoolSize", "10");
+        properties.setProperty("pool.bulk.maximumPoolSize", "20");
+        properties.setProperty("pool.oltp.connectionTimeout", "2000");
+
+        DataSourceSettings settings = DataSourceSettings.from(properties, Map.of(
+                "DB_JDBC_URL", "jdbc:mysql://db:3306/belajar_java_database",
+                "DB_OLTP_MAXIMUM_POOL_SIZE", "4"));
+
+        assertEquals(Set.of("default", "bulk", "oltp"), settings.getPoolNames());
+
+        HikariConfig bulkConfig = settings.createHikariConfig("bulk");
+        assertEquals("bulk", bulkConfig.getPoolName());
+        assertEquals("jdbc:mysql://db:3306/belajar_java_database", bulkConfig.getJdbcUrl());
+        assertEquals(20, bulkConfig.getMaximumPoolSize());
+
+        HikariConfig oltpConfig = settings.createHikariConfig("oltp");
+        assertEquals(4, oltpConfig.getMaximumPoolSize());
+        assertEquals(2000, oltpConfig.getConnectionTimeout());
+
+        assertEquals(10, settings.createHikariConfig("default").getMaximumPoolSize());
+        assertThrows(IllegalArgumentException.class, () -> settings.getProperties("unknown"));
+    }
+
+    @Test
+    @DisplayName(value = "driver performance properties are turned on by default and can be overridden")
+    void testDriverPerformanceProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("pool.bulk.dataSource.useServerPrepStmts", "false");
+
+        DataSourceSettings settings = DataSourceSettings.from(properties, Map.of())
+                .withProperty("dataSource.rewriteBatchedStatements", "true");
+
+        Properties defaultProperties = settings.createHikariConfig("default").getDataSourceProperties();
+        assertEquals("true", defaultProperties.getProperty("cachePrepStmts"));
+        assertEquals("250", defaultProperties.getProperty("prepStmtCacheSize"));
+        assertEquals("true", defaultProperties.getProperty("useServerPrepStmts"));
+        assertEquals("true", defaultProperties.getProperty("useLocalSessionState"));
+        assertEquals("true", defaultProperties.getProperty("rewriteBatchedStatements"));
+
+        Properties bulkProperties = settings.createHikariConfig("bulk").getDataSourceProperties();
+        assertEquals("false", bulkProperties.getProperty("useServerPrepStmts"));
+        assertEquals("true", bulkProperties.getProperty("rewriteBatchedStatements"));
+    }
+
+    @Test
+    @DisplayName(value = "driver properties from the properties file are kept when the setters aren't called")
+    void testConfiguredDriverPropertiesWin() {
+        Properties properties = new Properties();
+        properties.setProperty("jdbcUrl", "jdbc:mysql://localhost:1/belajar_java_database");
+        // start the pool without connecting to the server
+        properties.setProperty("initializationFailTimeout", "-1");
+        properties.setProperty("minimumIdle", "0");
+        properties.setProperty("dataSource.rewriteBatchedStatements", "true");
+        properties.setProperty("dataSource.allowLoadLocalInfile", "false");
+
+        dataSourceProvider.use(new DataSourceProvider() {
+            @Override
+            public DataSourceSettings createSettings() {
+                return DataSourceSettings.from(properties, Map.of());
+            }
+
+            @Override
+            public boolean isMySql() {
+                return true;
+            }
+        });
+
+        Properties driverProperties = ConnectionUtil.getHikariDataSource().getDataSourceProperties();
+        assertEquals("true", driverProperties.getProperty("rewriteBatchedStatements"));
+        assertEquals("false", driverProperties.getProperty("allowLoadLocalInfile"));
+    }
+}
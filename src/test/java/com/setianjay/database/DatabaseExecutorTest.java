@@ -0,0 +1,213 @@
+package com.setianjay.database;
+
+import com.setianjay.database.entity.Customer;
+import com.setianjay.database.enums.EmbeddedDatabase;
+import com.setianjay.database.executor.DatabaseExecutor;
+import com.setianjay.database.executor.ExecutorConfig;
+import com.setianjay.database.repository.CustomerRepository;
+import com.setianjay.database.util.ConnectionUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Implement Database Executor test to make sure many concurrent calls share the connection pool, and the calls above
+ * the limits are rejected, timed out or cancelled without leaking the permits.
+ */
+class DatabaseExecutorTest {
+    @RegisterExtension
+    final DataSourceProviderExtension dataSourceProvider = DataSourceProviderExtension.embedded(EmbeddedDatabase.H2,
+            "executor_test");
+
+    private CustomerRepository customerRepository;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        customerRepository = new CustomerRepository();
+        // the in memory database outlive the pool, so the customer may be saved by the previous test
+        customerRepository.deleteById("CST-X01");
+        customerRepository.save(new Customer("CST-X01", "Hari Setiaji", "hari.setiaji@gmail.com"));
+    }
+
+    @Test
+    @DisplayName(value = "run thousands of concurrent lookups with no more active calls than the pool size")
+    void testConcurrentLookups() {
+        AtomicInteger activeCalls = new AtomicInteger();
+        AtomicInteger maxActiveCalls = new AtomicInteger();
+        List<CompletableFuture<Optional<Customer>>> futures = new ArrayList<>();
+
+        try (DatabaseExecutor executor = new DatabaseExecutor()) {
+            for (int i = 0; i < 2_000; i++) {
+                futures.add(executor.submit(session -> {
+                    maxActiveCalls.accumulateAndGet(activeCalls.incrementAndGet(), Math::max);
+                    try {
+                        return customerRepository.findById(session, "CST-X01");
+                    } finally {
+                        activeCalls.decrementAndGet();
+                    }
+                }));
+            }
+
+            for (CompletableFuture<Optional<Customer>> future : futures) {
+                assertEquals("Hari Setiaji", future.join().orElseThrow().name());
+            }
+            assertTrue(maxActiveCalls.get() <= executor.getMaxConcurrency());
+        }
+    }
+
+    @Test
+    @DisplayName(value = "run the calls in bounded platform threads when virtual threads aren't used")
+    void testBoundedPlatformThreads() {
+        Set<Thread> callThreads = ConcurrentHashMap.newKeySet();
+        AtomicInteger maxLiveThreads = new AtomicInteger();
+        List<CompletableFuture<Optional<Customer>>> futures = new ArrayList<>();
+        ExecutorConfig executorConfig = new ExecutorConfig(10_000, Duration.ofSeconds(30), false);
+
+        try (DatabaseExecutor executor = new DatabaseExecutor(ConnectionUtil.getHikariDataSource(), 4,
+                executorConfig)) {
+            assertFalse(executor.isVirtualThreads());
+
+            for (int i = 0; i < 2_000; i++) {
+                boolean isSampled = i % 100 == 0;
+                futures.add(executor.submit(session -> {
+                    callThreads.add(Thread.currentThread());
+                    if (isSampled) {
+                        maxLiveThreads.accumulateAndGet(countExecutorThreads(), Math::max);
+                    }
+                    return customerRepository.findById(session, "CST-X01");
+                }));
+            }
+
+            for (CompletableFuture<Optional<Customer>> future : futures) {
+                assertEquals("Hari Setiaji", future.join().orElseThrow().name());
+            }
+            // one platform thread per connection permit, not one per call
+            assertTrue(callThreads.size() <= executor.getMaxConcurrency());
+            assertTrue(maxLiveThreads.get() <= executor.getMaxConcurrency());
+        }
+    }
+
+    @Test
+    @DisplayName(value = "reject the call above the maximum pending calls")
+    void testRejectPendingCall() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorConfig executorConfig = new ExecutorConfig(2, Duration.ofSeconds(10));
+
+        try (DatabaseExecutor executor = new DatabaseExecutor(ConnectionUtil.getHikariDataSource(), 1,
+                executorConfig)) {
+            CompletableFuture<Boolean> first = executor.submit(session -> awaitQuietly(release));
+            CompletableFuture<Boolean> second = executor.submit(session -> awaitQuietly(release));
+            CompletableFuture<Boolean> third = executor.submit(session -> awaitQuietly(release));
+
+            CompletionException exception = assertThrows(CompletionException.class, third::join);
+            assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+            assertEquals(1, executor.getRejectedCount());
+
+            release.countDown();
+            assertTrue(first.join());
+            assertTrue(second.join());
+        }
+    }
+
+    @Test
+    @DisplayName(value = "submit that race with close complete its future instead of throwing")
+    void testSubmitWhileClosing() throws InterruptedException {
+        ExecutorConfig executorConfig = new ExecutorConfig(8, Duration.ofSeconds(10), false);
+
+        for (int attempt = 0; attempt < 50; attempt++) {
+            DatabaseExecutor executor = new DatabaseExecutor(ConnectionUtil.getHikariDataSource(), 2,
+                    executorConfig);
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            AtomicInteger thrownCount = new AtomicInteger();
+            CountDownLatch started = new CountDownLatch(1);
+            Thread submitter = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < 200; i++) {
+                    try {
+                        futures.add(executor.submit(session -> 1));
+                    } catch (RuntimeException exception) {
+                        thrownCount.incrementAndGet();
+                    }
+                }
+            });
+
+            submitter.start();
+            started.await();
+            executor.close();
+            submitter.join();
+
+            assertEquals(0, thrownCount.get());
+            for (CompletableFuture<Integer> future : futures) {
+                try {
+                    assertEquals(1, future.join());
+                } catch (CompletionException exception) {
+                    assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    @DisplayName(value = "time out and cancel calls, then the permits can be used again")
+    void testTimeoutAndCancel(boolean virtualThreads) throws InterruptedException {
+        ExecutorConfig executorConfig = new ExecutorConfig(10, Duration.ofSeconds(10), virtualThreads);
+
+        try (DatabaseExecutor executor = new DatabaseExecutor(ConnectionUtil.getHikariDataSource(), 1,
+                executorConfig)) {
+            CompletableFuture<Boolean> slow = executor.submit(session -> awaitQuietly(new CountDownLatch(1)),
+                    Duration.ofMillis(200));
+            // wait for the only permit, then cancelled
+            CompletableFuture<Boolean> waiting = executor.submit(session -> true);
+            assertTrue(waiting.cancel(true));
+
+            CompletionException exception = assertThrows(CompletionException.class, slow::join);
+            assertInstanceOf(TimeoutException.class, exception.getCause());
+
+            assertEquals("Hari Setiaji", executor.submit(session -> customerRepository.findById(session, "CST-X01"))
+                    .join().orElseThrow().name());
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (executor.getPendingCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, executor.getPendingCount());
+            assertEquals(0, executor.getActiveCount());
+        }
+    }
+
+    private static int countExecutorThreads() {
+        return (int) Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("database-executor-"))
+                .count();
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) throws SQLException {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted", exception);
+        }
+    }
+}
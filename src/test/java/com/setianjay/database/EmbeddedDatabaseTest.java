@@ -0,0 +1,111 @@
+package com.setianjay.database;
+
+import com.setianjay.database.datasource.EmbeddedDataSourceProvider;
+import com.setianjay.database.entity.Customer;
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.EmbeddedDatabase;
+import com.setianjay.database.enums.ExcelType;
+import com.setianjay.database.enums.ReadMode;
+import com.setianjay.database.excel.data.EmployeeDataGenerator;
+import com.setianjay.database.excel.data.EmployeeWorkbook;
+import com.setianjay.database.importer.EmployeeImporter;
+import com.setianjay.database.importer.ImportConfig;
+import com.setianjay.database.importer.ImportResult;
+import com.setianjay.database.repository.CustomerRepository;
+import com.setianjay.database.repository.EmployeeRepository;
+import com.setianjay.database.util.ConnectionUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Implement Embedded Database test to make sure the repositories and the importer run against H2 and HSQLDB without
+ * MySQL server.
+ */
+class EmbeddedDatabaseTest {
+    @RegisterExtension
+    final DataSourceProviderExtension dataSourceProvider = DataSourceProviderExtension.perTest();
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @EnumSource(EmbeddedDatabase.class)
+    @DisplayName(value = "save, find and delete customers in embedded database")
+    void testCustomerRepository(EmbeddedDatabase embeddedDatabase) throws SQLException {
+        dataSourceProvider.use(new EmbeddedDataSourceProvider(embeddedDatabase, "customer_test"));
+        CustomerRepository customerRepository = new CustomerRepository();
+        List<Customer> customers = List.of(
+                new Customer("CST-E01", "Hari Setiaji", "hari.setiaji@gmail.com"),
+                new Customer("CST-E02", "Gurindo Sekti", "gurindo.sekti@gmail.com"));
+
+        assertEquals(2, customerRepository.saveAll(customers));
+        assertEquals(customers, customerRepository.findAllById(List.of("CST-E01", "CST-E02")).stream()
+                .sorted((first, second) -> first.id().compareTo(second.id()))
+                .toList());
+        assertEquals(1, customerRepository.deleteById("CST-E01"));
+        assertTrue(customerRepository.findById("CST-E01").isEmpty());
+    }
+
+    @ParameterizedTest
+    @EnumSource(EmbeddedDatabase.class)
+    @DisplayName(value = "import generated employee spreadsheet into embedded database")
+    void testImportGeneratedEmployees(EmbeddedDatabase embeddedDatabase) throws IOException, SQLException {
+        dataSourceProvider.use(new EmbeddedDataSourceProvider(embeddedDatabase, "employee_test"));
+        File excelFile = tempDir.resolve("employee.xlsx").toFile();
+        int totalRow = 2_000;
+
+        EmployeeDataGenerator.writeExcelFile(excelFile, ExcelType.xlsx, totalRow);
+
+        EmployeeImporter employeeImporter = new EmployeeImporter(ConnectionUtil.getHikariDataSource("bulk"),
+                new ImportConfig(500, 2, 4));
+        ImportResult importResult;
+        try (EmployeeWorkbook employeeWorkbook = new EmployeeWorkbook(excelFile, ReadMode.STREAMING);
+             Stream<Employee> employees = employeeWorkbook.streamDataInSingleSheet()) {
+            importResult = employeeImporter.importEmployees(employees);
+        }
+
+        assertEquals(totalRow, importResult.totalRow());
+        EmployeeRepository employeeRepository = new EmployeeRepository();
+        Employee firstEmployee = EmployeeDataGenerator.employee(1);
+        assertEquals(firstEmployee.getFullName(), employeeRepository.findById(firstEmployee.getId())
+                .map(Employee::getFullName).orElseThrow());
+        try (Stream<Employee> employees = employeeRepository.streamAll()) {
+            assertEquals(totalRow, employees.count());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(EmbeddedDatabase.class)
+    @DisplayName(value = "insert sample time with auto increment key in embedded database")
+    void testSampleTime(EmbeddedDatabase embeddedDatabase) throws SQLException {
+        dataSourceProvider.use(new EmbeddedDataSourceProvider(embeddedDatabase, "time_test"));
+        String query = "INSERT INTO sample_time(dates, times, datestimes, timesstamp) VALUES(?, ?, ?, ?)";
+
+        try (Connection connection = ConnectionUtil.getHikariDataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            long now = System.currentTimeMillis();
+            statement.setDate(1, new Date(now));
+            statement.setTime(2, new Time(now));
+            statement.setTimestamp(3, new Timestamp(now));
+            statement.setTimestamp(4, new Timestamp(now));
+            assertEquals(1, statement.executeUpdate());
+
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                assertTrue(generatedKeys.next());
+                assertTrue(generatedKeys.getInt(1) > 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.setianjay.database;
+
+import com.setianjay.database.analytics.EmployeeAggregator;
+import com.setianjay.database.analytics.EmployeeSnapshot;
+import com.setianjay.database.analytics.EmployeeTable;
+import com.setianjay.database.analytics.IntHistogram;
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.EmployeeColumn;
+import com.setianjay.database.enums.EmployeeGroup;
+import com.setianjay.database.excel.data.EmployeeDataGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Implement Employee Aggregator test to make sure the parallel aggregation of every source give the same result as
+ * sequential group by.
+ */
+class EmployeeAggregatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @EnumSource(EmployeeGroup.class)
+    @DisplayName(value = "aggregate table, snapshot and stream give the same result as sequential group by")
+    void testAggregate(EmployeeGroup group) throws IOException {
+        List<Employee> employees = EmployeeDataGenerator.employees(50_000).toList();
+        Map<String, IntSummaryStatistics> expected = employees.stream()
+                .collect(Collectors.groupingBy(employee -> groupName(employee, group),
+                        Collectors.summarizingInt(Employee::getAnnualSalary)));
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        try {
+            EmployeeAggregator employeeAggregator = new EmployeeAggregator(forkJoinPool, 1_000);
+            Path snapshotPath = tempDir.resolve("employee.snapshot");
+            EmployeeSnapshot.write(snapshotPath, employees.stream());
+
+            assertStatisticsEquals(expected, employeeAggregator.aggregate(EmployeeTable.from(employees.stream()),
+                    group, EmployeeColumn.ANNUAL_SALARY));
+            try (EmployeeSnapshot employeeSnapshot = EmployeeSnapshot.open(snapshotPath)) {
+                assertStatisticsEquals(expected, employeeAggregator.aggregate(employeeSnapshot, group,
+                        EmployeeColumn.ANNUAL_SALARY));
+            }
+            assertStatisticsEquals(expected, employeeAggregator.aggregate(employees.stream(), group,
+                    EmployeeColumn.ANNUAL_SALARY));
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName(value = "small input and null group are aggregated sequentially")
+    void testAggregateSmallInput() {
+        Employee employeeWithoutDepartment = EmployeeDataGenerator.employee(1);
+        employeeWithoutDepartment.setDepartment(null);
+        List<Employee> employees = List.of(employeeWithoutDepartment, EmployeeDataGenerator.employee(2));
+        EmployeeAggregator employeeAggregator = new EmployeeAggregator();
+
+        Map<String, IntSummaryStatistics> statistics = employeeAggregator.aggregate(employees.stream(),
+                EmployeeGroup.DEPARTMENT, EmployeeColumn.AGE);
+        assertEquals(2, statistics.size());
+        assertNull(statistics.keySet().iterator().next());
+        assertEquals(employees.get(0).getAge(), statistics.get(null).getMax());
+        assertStatisticsEquals(statistics, employeeAggregator.aggregate(EmployeeTable.from(employees.stream()),
+                EmployeeGroup.DEPARTMENT, EmployeeColumn.AGE));
+        assertThrows(IllegalArgumentException.class, () -> employeeAggregator.aggregate(employees.stream(),
+                EmployeeGroup.DEPARTMENT, EmployeeColumn.CITY));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = EmployeeGroup.class, names = {"DEPARTMENT", "GENDER", "HIRE_YEAR"})
+    @DisplayName(value = "histogram of table, snapshot and stream give the same buckets as sequential group by")
+    void testHistogram(EmployeeGroup group) throws IOException {
+        List<Employee> employees = EmployeeDataGenerator.employees(50_000).toList();
+        Map<String, Map<Integer, Long>> expected = employees.stream()
+                .collect(Collectors.groupingBy(employee -> groupName(employee, group),
+                        Collectors.groupingBy(employee -> Math.floorDiv(employee.getAnnualSalary(), 10_000) * 10_000,
+                                TreeMap::new, Collectors.counting())));
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        try {
+            EmployeeAggregator employeeAggregator = new EmployeeAggregator(forkJoinPool, 1_000);
+            Path snapshotPath = tempDir.resolve("employee.snapshot");
+            EmployeeSnapshot.write(snapshotPath, employees.stream());
+
+            assertHistogramEquals(expected, employeeAggregator.histogram(EmployeeTable.from(employees.stream()),
+                    group, EmployeeColumn.ANNUAL_SALARY, 10_000));
+            try (EmployeeSnapshot employeeSnapshot = EmployeeSnapshot.open(snapshotPath)) {
+                assertHistogramEquals(expected, employeeAggregator.histogram(employeeSnapshot, group,
+                        EmployeeColumn.ANNUAL_SALARY, 10_000));
+            }
+            assertHistogramEquals(expected, employeeAggregator.histogram(employees.stream(), group,
+                    EmployeeColumn.ANNUAL_SALARY, 10_000));
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName(value = "histogram grows to both sides and combine the buckets of the same width")
+    void testIntHistogram() {
+        IntHistogram first = new IntHistogram(10);
+        first.accept(25);
+        first.accept(-1);
+        first.accept(29);
+        IntHistogram second = new IntHistogram(10);
+        second.accept(1_000);
+        second.accept(-95);
+        first.combine(second);
+
+        assertEquals(5, first.getCount());
+        assertEquals(2, first.getCount(20));
+        assertEquals(1, first.getCount(-10));
+        assertEquals(0, first.getCount(500));
+        assertEquals(List.of(-100, -10, 20, 1_000), List.copyOf(first.getBuckets().keySet()));
+        assertThrows(IllegalArgumentException.class, () -> first.combine(new IntHistogram(5)));
+        assertThrows(IllegalArgumentException.class, () -> new IntHistogram(0));
+    }
+
+    @Test
+    @DisplayName(value = "hire year outside of the supported years is grouped to other")
+    void testAggregateOtherHireYear() {
+        Employee oldEmployee = EmployeeDataGenerator.employee(1);
+        oldEmployee.setHireDate("1850-06-01");
+        Employee futureEmployee = EmployeeDataGenerator.employee(2);
+        futureEmployee.setHireDate("2300-01-15");
+        Employee employee = EmployeeDataGenerator.employee(3);
+        employee.setHireDate("2020-03-10");
+        List<Employee> employees = List.of(oldEmployee, futureEmployee, employee);
+        EmployeeAggregator employeeAggregator = new EmployeeAggregator();
+
+        Map<String, IntSummaryStatistics> statistics = employeeAggregator.aggregate(employees.stream(),
+                EmployeeGroup.HIRE_YEAR, EmployeeColumn.AGE);
+        assertEquals(List.of("2020", EmployeeAggregator.OTHER_HIRE_YEAR), List.copyOf(statistics.keySet()));
+        assertEquals(2, statistics.get(EmployeeAggregator.OTHER_HIRE_YEAR).getCount());
+        assertStatisticsEquals(statistics, employeeAggregator.aggregate(EmployeeTable.from(employees.stream()),
+                EmployeeGroup.HIRE_YEAR, EmployeeColumn.AGE));
+    }
+
+    private static String groupName(Employee employee, EmployeeGroup group) {
+        return switch (group) {
+            case JOB_TITLE -> employee.getJobTitle();
+            case DEPARTMENT -> employee.getDepartment();
+            case BUSINESS_UNIT -> employee.getBusinessUnit();
+            case GENDER -> employee.getGender().getValue();
+            case ETHNICITY -> employee.getEthnicity();
+            case COUNTRY -> employee.getCountry();
+            case CITY -> employee.getCity();
+            case HIRE_YEAR -> String.valueOf(LocalDate.parse(employee.getHireDate()).getYear());
+        };
+    }
+
+    private static void assertHistogramEquals(Map<String, Map<Integer, Long>> expected,
+                                              Map<String, IntHistogram> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((group, buckets) -> {
+            assertEquals(buckets, actual.get(group).getBuckets());
+            assertEquals(buckets.values().stream().mapToLong(Long::longValue).sum(), actual.get(group).getCount());
+        });
+    }
+
+    private static void assertStatisticsEquals(Map<String, IntSummaryStatistics> expected,
+                                               Map<String, IntSummaryStatistics> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((group, statistics) -> {
+            assertEquals(statistics.getCount(), actual.get(group).getCount());
+            assertEquals(statistics.getSum(), actual.get(group).getSum());
+            assertEquals(statistics.getMin(), actual.get(group).getMin());
+            assertEquals(statistics.getMax(), actual.get(group).getMax());
+        });
+    }
+}
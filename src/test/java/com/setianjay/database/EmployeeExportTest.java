@@ -0,0 +1,147 @@
+package com.setianjay.database;
+
+import com.setianjay.database.batch.TableMappings;
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.EmbeddedDatabase;
+import com.setianjay.database.enums.ReadMode;
+import com.setianjay.database.excel.data.EmployeeDataGenerator;
+import com.setianjay.database.excel.data.EmployeeWorkbook;
+import com.setianjay.database.excel.mapping.ColumnMappings;
+import com.setianjay.database.excel.mapping.MappedWorkbook;
+import com.setianjay.database.exporter.EmployeeExporter;
+import com.setianjay.database.exporter.ExportConfig;
+import com.setianjay.database.exporter.ExportResult;
+import com.setianjay.database.importer.EmployeeImporter;
+import com.setianjay.database.importer.ImportConfig;
+import com.setianjay.database.repository.EmployeeRepository;
+import com.setianjay.database.util.ConnectionUtil;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Implement Employee Export test to make sure the exported xlsx file has every employee in primary key order with the
+ * same column layout that the importer reads.
+ */
+class EmployeeExportTest {
+    private static final int TOTAL_ROW = 2_500;
+
+    @RegisterExtension
+    final DataSourceProviderExtension dataSourceProvider = DataSourceProviderExtension.embedded(EmbeddedDatabase.H2,
+            "export_test");
+
+    @TempDir
+    Path tempDir;
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = ConnectionUtil.getHikariDataSource();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM employee");
+        }
+    }
+
+    @Test
+    @DisplayName(value = "split the primary key into ranges with almost the same total rows")
+    void testIdBoundaries() throws SQLException {
+        importEmployees();
+        EmployeeRepository employeeRepository = new EmployeeRepository(dataSource);
+
+        assertEquals(List.of("E0000625", "E0001250", "E0001875"), employeeRepository.findIdBoundaries(4));
+        assertEquals(List.of(), employeeRepository.findIdBoundaries(1));
+
+        try (var session = employeeRepository.openSession()) {
+            List<Employee> page = employeeRepository.findPageByIdRange(session, "E0000625", "E0001250", 1_000);
+            assertEquals(625, page.size());
+            assertEquals("E0000626", page.get(0).getId());
+            assertEquals("E0001250", page.get(page.size() - 1).getId());
+        }
+    }
+
+    @Test
+    @DisplayName(value = "export with more ranges than the connection pool size")
+    void testExportWithMoreRangesThanPoolSize() throws SQLException, IOException {
+        importEmployees();
+        HikariDataSource smallPool = ConnectionUtil.getHikariDataSource("oltp");
+        // fail fast instead of waiting the default timeout if the readers hold every connection
+        smallPool.setConnectionTimeout(500);
+        File excelFile = tempDir.resolve("employee-export.xlsx").toFile();
+
+        // every range has more pages than its queue, so the readers that are ahead wait for the writer
+        ExportResult exportResult = new EmployeeExporter(smallPool, new ExportConfig(
+                smallPool.getMaximumPoolSize() * 4, 10, 1, 100, false)).exportEmployees(excelFile);
+
+        assertEquals(TOTAL_ROW, exportResult.totalRow());
+        try (EmployeeWorkbook employeeWorkbook = new EmployeeWorkbook(excelFile, ReadMode.STREAMING)) {
+            assertEquals(TOTAL_ROW, employeeWorkbook.readDataInSingleSheet().size());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    @DisplayName(value = "export every employee in parallel ranges and read them again with the importer layout")
+    void testExportEmployees(boolean compressTempFiles) throws SQLException, IOException {
+        importEmployees();
+        File excelFile = tempDir.resolve("employee-export.xlsx").toFile();
+        EmployeeExporter employeeExporter = new EmployeeExporter(dataSource,
+                new ExportConfig(3, 200, 2, 100, compressTempFiles));
+
+        ExportResult exportResult = employeeExporter.exportEmployees(excelFile);
+        assertEquals(TOTAL_ROW, exportResult.totalRow());
+        assertEquals(1, exportResult.sheetCount());
+
+        List<Employee> expected = EmployeeDataGenerator.employees(TOTAL_ROW).toList();
+        try (EmployeeWorkbook employeeWorkbook = new EmployeeWorkbook(excelFile, ReadMode.STREAMING)) {
+            assertSameEmployees(expected, employeeWorkbook.streamDataInSingleSheet().toList());
+        }
+        try (MappedWorkbook<Employee> mappedWorkbook = new MappedWorkbook<>(excelFile, ReadMode.STREAMING,
+                ColumnMappings.EMPLOYEE)) {
+            assertSameEmployees(expected, mappedWorkbook.streamDataInSingleSheet().toList());
+        }
+    }
+
+    @Test
+    @DisplayName(value = "export empty table with only the header row")
+    void testExportEmptyTable() throws SQLException, IOException {
+        File excelFile = tempDir.resolve("employee-empty.xlsx").toFile();
+        ExportResult exportResult = new EmployeeExporter(dataSource, ExportConfig.defaultConfig())
+                .exportEmployees(excelFile);
+
+        assertEquals(0, exportResult.totalRow());
+        try (EmployeeWorkbook employeeWorkbook = new EmployeeWorkbook(excelFile, ReadMode.STREAMING)) {
+            assertTrue(employeeWorkbook.streamDataInSingleSheet().toList().isEmpty());
+        }
+    }
+
+    private void importEmployees() throws SQLException {
+        new EmployeeImporter(dataSource, new ImportConfig(500, 2, 4))
+                .importEmployees(EmployeeDataGenerator.employees(TOTAL_ROW));
+    }
+
+    private static void assertSameEmployees(List<Employee> expected, List<Employee> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(TableMappings.EMPLOYEE.mapToParameters(expected.get(i)),
+                    TableMappings.EMPLOYEE.mapToParameters(actual.get(i)), "row " + i);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.setianjay.database;
+
+import com.setianjay.database.analytics.EmployeeSnapshot;
+import com.setianjay.database.batch.TableMappings;
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.EmployeeColumn;
+import com.setianjay.database.enums.ExcelType;
+import com.setianjay.database.enums.ReadMode;
+import com.setianjay.database.excel.data.EmployeeDataGenerator;
+import com.setianjay.database.excel.data.EmployeeWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Implement Employee Snapshot test to make sure the employees that are written to the snapshot are read back the
+ * same.
+ */
+class EmployeeSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName(value = "employees from the snapshot are the same as the written employees")
+    void testWriteAndOpenSnapshot() throws IOException {
+        List<Employee> employees = EmployeeDataGenerator.employees(20_000).toList();
+        Employee employeeWithNulls = new Employee();
+        employeeWithNulls.setId("E9999999");
+        List<Employee> expectedEmployees = Stream.concat(employees.stream(), Stream.of(employeeWithNulls)).toList();
+        Path snapshotPath = tempDir.resolve("employee.snapshot");
+
+        assertEquals(expectedEmployees.size(), EmployeeSnapshot.write(snapshotPath, expectedEmployees.stream()));
+
+        try (EmployeeSnapshot employeeSnapshot = EmployeeSnapshot.open(snapshotPath)) {
+            assertEquals(expectedEmployees.size(), employeeSnapshot.size());
+
+            EmployeeSnapshot.Row row = employeeSnapshot.row();
+            for (int index = 0; index < expectedEmployees.size(); index++) {
+                assertArrayEquals(TableMappings.EMPLOYEE.mapToParameters(expectedEmployees.get(index)),
+                        TableMappings.EMPLOYEE.mapToParameters(row.moveTo(index).toEmployee()));
+            }
+
+            row.moveTo(0);
+            assertEquals(employees.get(0).getDepartment(), row.getString(EmployeeColumn.DEPARTMENT));
+            assertEquals(employees.get(0).getAnnualSalary(), row.getAnnualSalary());
+            assertEquals(employees.get(0).getHireDate(), row.getHireDate().toString());
+            // there are 7 departments, so employee 1 and 8 have the same department
+            assertEquals(row.getCode(EmployeeColumn.DEPARTMENT), row.moveTo(7).getCode(EmployeeColumn.DEPARTMENT));
+
+            row.moveTo(expectedEmployees.size() - 1);
+            assertNull(row.getFullName());
+            assertNull(row.getGender());
+            assertNull(row.getExitDate());
+            assertEquals(-1, row.getCode(EmployeeColumn.CITY));
+            assertThrows(IndexOutOfBoundsException.class, () -> row.moveTo(expectedEmployees.size()));
+        }
+    }
+
+    @Test
+    @DisplayName(value = "snapshot of employee workbook give the same employees as the workbook")
+    void testSnapshotOfWorkbook() throws IOException {
+        File excelFile = tempDir.resolve("employee.xlsx").toFile();
+        Path snapshotPath = tempDir.resolve("employee.snapshot");
+        EmployeeDataGenerator.writeExcelFile(excelFile, ExcelType.xlsx, 1_000);
+
+        try (EmployeeWorkbook employeeWorkbook = new EmployeeWorkbook(excelFile, ReadMode.STREAMING);
+             Stream<Employee> employees = employeeWorkbook.streamDataInSingleSheet()) {
+            assertEquals(1_000, EmployeeSnapshot.write(snapshotPath, employees));
+        }
+
+        try (EmployeeSnapshot employeeSnapshot = EmployeeSnapshot.open(snapshotPath)) {
+            List<Employee> employees = employeeSnapshot.stream().toList();
+            for (int index = 0; index < employees.size(); index++) {
+                assertArrayEquals(TableMappings.EMPLOYEE.mapToParameters(EmployeeDataGenerator.employee(index + 1)),
+                        TableMappings.EMPLOYEE.mapToParameters(employees.get(index)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName(value = "open file that isn't employee snapshot is rejected")
+    void testOpenInvalidFile() throws IOException {
+        Path invalidPath = Files.writeString(tempDir.resolve("invalid.snapshot"), "not an employee snapshot file");
+
+        assertThrows(IllegalArgumentException.class, () -> EmployeeSnapshot.open(invalidPath));
+    }
+}
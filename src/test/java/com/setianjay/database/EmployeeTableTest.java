@@ -0,0 +1,101 @@
+package com.setianjay.database;
+
+import com.setianjay.database.analytics.EmployeeTable;
+import com.setianjay.database.batch.TableMappings;
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.EmployeeColumn;
+import com.setianjay.database.enums.ExcelType;
+import com.setianjay.database.enums.Gender;
+import com.setianjay.database.enums.ReadMode;
+import com.setianjay.database.excel.data.EmployeeDataGenerator;
+import com.setianjay.database.excel.data.EmployeeWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Implement Employee Table test to make sure the columnar table give the same employees and aggregates as the list of
+ * employees.
+ */
+class EmployeeTableTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName(value = "employee from the table is the same as the added employee")
+    void testGetEmployee() {
+        List<Employee> employees = EmployeeDataGenerator.employees(3_000).toList();
+        EmployeeTable employeeTable = EmployeeTable.from(employees.stream());
+
+        assertEquals(employees.size(), employeeTable.size());
+        for (int row = 0; row < employees.size(); row++) {
+            assertArrayEquals(TableMappings.EMPLOYEE.mapToParameters(employees.get(row)),
+                    TableMappings.EMPLOYEE.mapToParameters(employeeTable.getEmployee(row)));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> employeeTable.getEmployee(employees.size()));
+    }
+
+    @Test
+    @DisplayName(value = "filter and summarize the table give the same result as stream of employees")
+    void testFilterAndSummarize() {
+        List<Employee> employees = EmployeeDataGenerator.employees(5_000).toList();
+        EmployeeTable employeeTable = EmployeeTable.from(employees.stream());
+
+        Map<String, IntSummaryStatistics> expectedSalaries = employees.stream()
+                .collect(Collectors.groupingBy(Employee::getDepartment,
+                        Collectors.summarizingInt(Employee::getAnnualSalary)));
+        Map<String, IntSummaryStatistics> salaries = employeeTable.summarizeBy(EmployeeColumn.DEPARTMENT,
+                EmployeeColumn.ANNUAL_SALARY);
+        assertEquals(expectedSalaries.keySet(), salaries.keySet());
+        expectedSalaries.forEach((department, expected) -> {
+            assertEquals(expected.getCount(), salaries.get(department).getCount());
+            assertEquals(expected.getSum(), salaries.get(department).getSum());
+            assertEquals(expected.getMin(), salaries.get(department).getMin());
+            assertEquals(expected.getMax(), salaries.get(department).getMax());
+        });
+
+        BitSet femaleInIt = employeeTable.whereEquals(EmployeeColumn.DEPARTMENT, "IT");
+        femaleInIt.and(employeeTable.whereGender(Gender.FEMALE));
+        femaleInIt.and(employeeTable.where(row -> employeeTable.getAge(row) >= 40));
+        long expectedCount = employees.stream()
+                .filter(employee -> employee.getDepartment().equals("IT") && employee.getGender() == Gender.FEMALE &&
+                        employee.getAge() >= 40)
+                .count();
+        assertEquals(expectedCount, femaleInIt.cardinality());
+        assertEquals(expectedCount, employeeTable.summarizeBy(EmployeeColumn.CITY, EmployeeColumn.AGE, femaleInIt)
+                .values().stream().mapToLong(IntSummaryStatistics::getCount).sum());
+
+        assertTrue(employeeTable.whereEquals(EmployeeColumn.DEPARTMENT, "Unknown").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> employeeTable.whereEquals(EmployeeColumn.AGE, "40"));
+    }
+
+    @Test
+    @DisplayName(value = "fill the table straight from excel workbook")
+    void testFillFromWorkbook() throws IOException {
+        File excelFile = tempDir.resolve("employee.xlsx").toFile();
+        EmployeeDataGenerator.writeExcelFile(excelFile, ExcelType.xlsx, 1_000);
+
+        EmployeeTable employeeTable = new EmployeeTable();
+        try (EmployeeWorkbook employeeWorkbook = new EmployeeWorkbook(excelFile, ReadMode.STREAMING)) {
+            employeeWorkbook.readDataInSheet(0, employeeTable::add);
+        }
+
+        assertEquals(1_000, employeeTable.size());
+        Employee firstEmployee = EmployeeDataGenerator.employee(1);
+        assertEquals(firstEmployee.getId(), employeeTable.getString(EmployeeColumn.ID, 0));
+        assertEquals(firstEmployee.getHireDate(), employeeTable.getHireDate(0).toString());
+        assertEquals(firstEmployee.getAnnualSalary(), employeeTable.getAnnualSalary(0));
+    }
+}
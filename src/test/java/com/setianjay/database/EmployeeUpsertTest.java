@@ -0,0 +1,118 @@
+package com.setianjay.database;
+
+import com.setianjay.database.batch.FingerprintSet;
+import com.setianjay.database.batch.TableMapping;
+import com.setianjay.database.batch.TableMappings;
+import com.setianjay.database.datasource.EmbeddedDataSourceProvider;
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.EmbeddedDatabase;
+import com.setianjay.database.enums.InsertMode;
+import com.setianjay.database.excel.data.EmployeeDataGenerator;
+import com.setianjay.database.importer.EmployeeImporter;
+import com.setianjay.database.importer.ImportConfig;
+import com.setianjay.database.importer.ImportResult;
+import com.setianjay.database.repository.EmployeeRepository;
+import com.setianjay.database.util.ConnectionUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.lang.reflect.Proxy;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Implement Employee Upsert test to make sure importing the same employees again only write the new and changed
+ * employees.
+ */
+class EmployeeUpsertTest {
+    @RegisterExtension
+    final DataSourceProviderExtension dataSourceProvider = DataSourceProviderExtension.perTest();
+
+    @Test
+    @DisplayName(value = "fingerprint set contains only the rows with exactly the same values")
+    void testFingerprintSet() {
+        FingerprintSet fingerprintSet = FingerprintSet.of(TableMappings.EMPLOYEE,
+                EmployeeDataGenerator.employees(100));
+
+        assertEquals(100, fingerprintSet.size());
+        assertTrue(fingerprintSet.contains(TableMappings.EMPLOYEE.mapToParameters(EmployeeDataGenerator.employee(1))));
+
+        Employee changedEmployee = EmployeeDataGenerator.employee(1);
+        changedEmployee.setCity("Jakarta");
+        assertFalse(fingerprintSet.contains(TableMappings.EMPLOYEE.mapToParameters(changedEmployee)));
+        assertFalse(fingerprintSet.contains(TableMappings.EMPLOYEE.mapToParameters(
+                EmployeeDataGenerator.employee(101))));
+        // the same values in other columns give other fingerprint
+        assertNotEquals(FingerprintSet.fingerprint(new Object[]{"a", null}),
+                FingerprintSet.fingerprint(new Object[]{null, "a"}));
+    }
+
+    @ParameterizedTest
+    @EnumSource(InsertMode.class)
+    @DisplayName(value = "upsert the same employees again only write the new and changed employees")
+    void testUpsertEmployees(InsertMode insertMode) throws SQLException {
+        dataSourceProvider.use(new EmbeddedDataSourceProvider(EmbeddedDatabase.H2,
+                "upsert_test_" + insertMode));
+        EmployeeImporter employeeImporter = new EmployeeImporter(ConnectionUtil.getHikariDataSource(),
+                new ImportConfig(100, 2, 4, insertMode));
+        int totalRow = 1_000;
+
+        ImportResult firstImport = employeeImporter.upsertEmployees(EmployeeDataGenerator.employees(totalRow));
+        assertEquals(totalRow, firstImport.totalRow());
+        assertEquals(0, firstImport.skippedRow());
+
+        ImportResult secondImport = employeeImporter.upsertEmployees(EmployeeDataGenerator.employees(totalRow));
+        assertEquals(0, secondImport.totalRow());
+        assertEquals(totalRow, secondImport.skippedRow());
+
+        // change 10 employees and add 5 new employees
+        List<Employee> employees = new ArrayList<>(EmployeeDataGenerator.employees(totalRow + 5).toList());
+        for (int i = 0; i < 10; i++) {
+            employees.get(i * 50).setAnnualSalary(1_000_000);
+        }
+
+        ImportResult thirdImport = employeeImporter.upsertEmployees(employees.stream());
+        assertEquals(15, thirdImport.totalRow());
+        assertEquals(totalRow - 10, thirdImport.skippedRow());
+
+        EmployeeRepository employeeRepository = new EmployeeRepository();
+        assertEquals(1_000_000, employeeRepository.findById(employees.get(50).getId())
+                .map(Employee::getAnnualSalary).orElseThrow());
+        assertEquals(totalRow + 5, employeeRepository.findAll().size());
+    }
+
+    @Test
+    @DisplayName(value = "update with row alias on MySQL 8.0.19 or newer, otherwise with VALUES(column)")
+    void testOnDuplicateKeyUpdate() throws SQLException {
+        assertEquals(" AS new ON DUPLICATE KEY UPDATE committed_row = new.committed_row, " +
+                        "quarantined_row = new.quarantined_row",
+                TableMappings.IMPORT_CHECKPOINT.onDuplicateKeyUpdate(true, "source_key"));
+        assertEquals(" ON DUPLICATE KEY UPDATE committed_row = VALUES(committed_row), " +
+                        "quarantined_row = VALUES(quarantined_row)",
+                TableMappings.IMPORT_CHECKPOINT.onDuplicateKeyUpdate(false, "source_key"));
+
+        assertTrue(TableMapping.supportsRowAlias(metaData("MySQL", "8.0.19")));
+        assertTrue(TableMapping.supportsRowAlias(metaData("MySQL", "8.0.35-0ubuntu0.22.04.1")));
+        assertTrue(TableMapping.supportsRowAlias(metaData("MySQL", "8.4.0")));
+        assertFalse(TableMapping.supportsRowAlias(metaData("MySQL", "8.0.18")));
+        assertFalse(TableMapping.supportsRowAlias(metaData("MySQL", "5.7.44-log")));
+        assertFalse(TableMapping.supportsRowAlias(metaData("MySQL", "5.5.5-10.11.6-MariaDB")));
+        assertFalse(TableMapping.supportsRowAlias(metaData("H2", "2.2.224 (2023-09-17)")));
+    }
+
+    private static DatabaseMetaData metaData(String productName, String productVersion) {
+        return (DatabaseMetaData) Proxy.newProxyInstance(DatabaseMetaData.class.getClassLoader(),
+                new Class<?>[]{DatabaseMetaData.class}, (proxy, method, arguments) -> switch (method.getName()) {
+                    case "getDatabaseProductName" -> productName;
+                    case "getDatabaseProductVersion" -> productVersion;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,216 @@
+package com.setianjay.database;
+
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.ExcelType;
+import com.setianjay.database.enums.Gender;
+import com.setianjay.database.enums.ReadMode;
+import com.setianjay.database.excel.data.EmployeeWorkbook;
+import com.setianjay.database.excel.mapping.ColumnMappings;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Implement EmployeeWorkbook test to make sure every {@link ReadMode} map the same cell value to {@link Employee}.
+ */
+class EmployeeWorkbookTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName(value = "streaming read mode map the same employee data like whole workbook read mode")
+    void testStreamingReadModeMapSameDataAsWorkbookReadMode() throws IOException {
+        File excelFile = createEmployeeExcelFile(5);
+
+        List<Employee> workbookEmployees = readEmployees(excelFile, ReadMode.WORKBOOK);
+        List<Employee> streamingEmployees = readEmployees(excelFile, ReadMode.STREAMING);
+
+        assertEquals(5, workbookEmployees.size());
+        assertEquals(workbookEmployees.stream().map(Employee::toString).toList(),
+                streamingEmployees.stream().map(Employee::toString).toList());
+
+        Employee employee = streamingEmployees.get(0);
+        assertEquals("E00001", employee.getId());
+        assertEquals(Gender.FEMALE, employee.getGender());
+        assertEquals(31, employee.getAge());
+        assertEquals("2020-01-01", employee.getHireDate());
+        assertEquals(100_001, employee.getAnnualSalary());
+    }
+
+    @Test
+    @DisplayName(value = "stream employee data lazily give the same data as read data in single sheet")
+    void testStreamDataInSingleSheet() throws IOException {
+        File excelFile = createEmployeeExcelFile(200);
+
+        for (ReadMode readMode : ReadMode.values()) {
+            List<Employee> employees = readEmployees(excelFile, readMode);
+
+            try (FileInputStream inputStream = new FileInputStream(excelFile);
+                 Stream<Employee> employeeStream = new EmployeeWorkbook(ExcelType.xlsx, inputStream, readMode)
+                         .streamDataInSingleSheet()) {
+                List<String> streamedEmployees = employeeStream.map(Employee::toString).toList();
+                assertEquals(employees.stream().map(Employee::toString).toList(), streamedEmployees);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName(value = "stream every row of the sheet in every read mode")
+    void testStreamEveryRowInEveryReadMode() throws IOException {
+        File excelFile = createEmployeeExcelFile(25);
+
+        for (ReadMode readMode : ReadMode.values()) {
+            try (FileInputStream inputStream = new FileInputStream(excelFile);
+                 Stream<Employee> employeeStream = new EmployeeWorkbook(ExcelType.xlsx, inputStream, readMode)
+                         .streamDataInSingleSheet()) {
+                List<Employee> employees = employeeStream.toList();
+                assertEquals(25, employees.size());
+                assertEquals("E00025", employees.get(24).getId());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName(value = "close the stream before the whole sheet is read")
+    void testCloseStreamBeforeTheWholeSheetIsRead() throws IOException {
+        File excelFile = createEmployeeExcelFile(1_000);
+
+        for (ReadMode readMode : ReadMode.values()) {
+            try (FileInputStream inputStream = new FileInputStream(excelFile);
+                 Stream<Employee> employeeStream = new EmployeeWorkbook(ExcelType.xlsx, inputStream, readMode)
+                         .streamDataInSingleSheet()) {
+                List<Employee> firstEmployees = employeeStream.limit(3).toList();
+                assertEquals(3, firstEmployees.size());
+                assertEquals("E00003", firstEmployees.get(2).getId());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName(value = "bind the columns by the header name when the columns order of the sheet is different")
+    void testReadReorderedColumns() throws IOException {
+        List<Employee> expected = readEmployees(createEmployeeExcelFile(20), ReadMode.WORKBOOK);
+        List<String> reversedHeaderNames = new ArrayList<>(ColumnMappings.EMPLOYEE.getHeaderNames());
+        Collections.reverse(reversedHeaderNames);
+        File excelFile = createEmployeeExcelFile(20, reversedHeaderNames);
+
+        for (ReadMode readMode : ReadMode.values()) {
+            assertEquals(expected.stream().map(Employee::toString).toList(),
+                    readEmployees(excelFile, readMode).stream().map(Employee::toString).toList());
+        }
+        assertEquals("IT", expected.get(0).getDepartment());
+        assertEquals(100_001, expected.get(0).getAnnualSalary());
+    }
+
+    @Test
+    @DisplayName(value = "fail instead of mapping the wrong columns when the sheet doesn't have employee header")
+    void testRejectSheetWithoutEmployeeHeader() throws IOException {
+        List<String> headerNames = new ArrayList<>(ColumnMappings.EMPLOYEE.getHeaderNames());
+        headerNames.set(headerNames.indexOf("Department"), "Column 3");
+        File excelFile = createEmployeeExcelFile(5, headerNames);
+
+        for (ReadMode readMode : ReadMode.values()) {
+            assertThrows(IllegalArgumentException.class, () -> readEmployees(excelFile, readMode));
+        }
+    }
+
+    @Test
+    @DisplayName(value = "streaming read mode read input stream from temporary file that is deleted on close")
+    void testStreamingReadModeSpoolInputStream() throws IOException {
+        File excelFile = createEmployeeExcelFile(50);
+        long spooledFileCount = countSpooledFiles();
+
+        try (FileInputStream inputStream = new FileInputStream(excelFile);
+             EmployeeWorkbook employeeWorkbook = new EmployeeWorkbook(ExcelType.xlsx, inputStream,
+                     ReadMode.STREAMING)) {
+            assertEquals(spooledFileCount + 1, countSpooledFiles());
+            assertEquals(50, employeeWorkbook.readDataInSingleSheet().size());
+        }
+        assertEquals(spooledFileCount, countSpooledFiles());
+    }
+
+    @Test
+    void testStreamingReadModeRejectXlsExtension() {
+        assertThrows(IllegalArgumentException.class, () -> new EmployeeWorkbook(
+                ExcelType.xls, InputStream.nullInputStream(), ReadMode.STREAMING));
+    }
+
+    private static long countSpooledFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("excel-workbook")).count();
+        }
+    }
+
+    private List<Employee> readEmployees(File excelFile, ReadMode readMode) throws IOException {
+        try (FileInputStream inputStream = new FileInputStream(excelFile);
+             EmployeeWorkbook employeeWorkbook = new EmployeeWorkbook(ExcelType.xlsx, inputStream, readMode)) {
+            return employeeWorkbook.readDataInSingleSheet();
+        }
+    }
+
+    private File createEmployeeExcelFile(int totalRow) throws IOException {
+        return createEmployeeExcelFile(totalRow, ColumnMappings.EMPLOYEE.getHeaderNames());
+    }
+
+    /**
+     * write the employee columns in the order of the header names, header that isn't employee column is left empty.
+     * */
+    private File createEmployeeExcelFile(int totalRow, List<String> headerNames) throws IOException {
+        File excelFile = tempDir.resolve("employee.xlsx").toFile();
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook();
+             FileOutputStream outputStream = new FileOutputStream(excelFile)) {
+            Sheet sheet = workbook.createSheet();
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("m/d/yyyy"));
+
+            Row header = sheet.createRow(0);
+            for (int cellIndex = 0; cellIndex < headerNames.size(); cellIndex++) {
+                header.createCell(cellIndex).setCellValue(headerNames.get(cellIndex));
+            }
+
+            for (int rowIndex = 1; rowIndex <= totalRow; rowIndex++) {
+                Row row = sheet.createRow(rowIndex);
+                Function<String, Cell> cell = headerName -> row.createCell(headerNames.contains(headerName)
+                        ? headerNames.indexOf(headerName) : headerNames.size());
+                cell.apply("EEID").setCellValue(String.format("E%05d", rowIndex));
+                cell.apply("Full Name").setCellValue("Employee " + rowIndex);
+                cell.apply("Job Title").setCellValue("Sr. Manager");
+                cell.apply("Department").setCellValue("IT");
+                cell.apply("Business Unit").setCellValue("Research & Development");
+                cell.apply("Gender").setCellValue(rowIndex % 2 == 0 ? "Male" : "Female");
+                cell.apply("Ethnicity").setCellValue("Asian");
+                cell.apply("Age").setCellValue(30 + rowIndex);
+                Cell hireDate = cell.apply("Hire Date");
+                hireDate.setCellValue(new GregorianCalendar(2020, 0, rowIndex).getTime());
+                hireDate.setCellStyle(dateStyle);
+                cell.apply("Annual Salary").setCellValue(100_000 + rowIndex);
+                cell.apply("Bonus %").setCellValue(0.15);
+                cell.apply("Country").setCellValue("United States");
+                cell.apply("City").setCellValue("Seattle");
+            }
+
+            workbook.write(outputStream);
+        }
+
+        return excelFile;
+    }
+}
@@ -0,0 +1,119 @@
+package com.setianjay.database;
+
+import com.setianjay.database.entity.Customer;
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.Gender;
+import com.setianjay.database.enums.ReadMode;
+import com.setianjay.database.excel.mapping.ColumnMappings;
+import com.setianjay.database.excel.mapping.MappedWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Implement MappedWorkbook test to make sure the columns are bound by the header name, not by the position.
+ */
+class MappedWorkbookTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName(value = "map employee from the sheet with reordered columns")
+    void testMapEmployeeWithReorderedColumns() throws IOException {
+        File excelFile = createExcelFile("employee.xlsx",
+                new Object[]{"Age", "Gender", "Full Name", "Annual Salary", "EEID", "Job Title", "Department",
+                        "Business Unit", "Ethnicity", "Hire Date", "Bonus %", "Country", "City", "Exit Date"},
+                new Object[]{41, "Female", "Emily Davis", 141_604, "E02387", "Sr. Manager", "IT",
+                        "Research & Development", "Black", "4/8/2016", "15%", "United States", "Seattle", "10/16/2021"},
+                new Object[]{55, "Male", "Theodore Dinh", 99_975, "E04105", "Technical Architect", "IT",
+                        "Manufacturing", "Asian", "11/29/1997", "0%", "China", "Chongqing", null});
+
+        for (ReadMode readMode : ReadMode.values()) {
+            try (MappedWorkbook<Employee> workbook = new MappedWorkbook<>(excelFile, readMode,
+                    ColumnMappings.EMPLOYEE);
+                 Stream<Employee> employees = workbook.streamDataInSingleSheet()) {
+                Employee employee = employees.findFirst().orElseThrow();
+
+                assertEquals("E02387", employee.getId());
+                assertEquals("Emily Davis", employee.getFullName());
+                assertEquals(Gender.FEMALE, employee.getGender());
+                assertEquals(41, employee.getAge());
+                assertEquals(141_604, employee.getAnnualSalary());
+                assertEquals("10/16/2021", employee.getExitDate());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName(value = "map customer record and skip unknown column")
+    void testMapCustomerRecord() throws IOException {
+        File excelFile = createExcelFile("customer.xlsx",
+                new Object[]{"email", "Note", " NAME ", "id"},
+                new Object[]{"budi@mail.com", "first", "Budi", "C001"},
+                new Object[]{"joko@mail.com", "second", "Joko", "C002"},
+                new Object[]{"eko@mail.com", "third", "Eko", "C003"});
+
+        try (MappedWorkbook<Customer> workbook = new MappedWorkbook<>(excelFile, ReadMode.STREAMING,
+                ColumnMappings.CUSTOMER)) {
+            List<Customer> customers = workbook.readDataInSingleSheet();
+
+            assertEquals(List.of(new Customer("C001", "Budi", "budi@mail.com"),
+                    new Customer("C002", "Joko", "joko@mail.com"),
+                    new Customer("C003", "Eko", "eko@mail.com")), customers);
+        }
+    }
+
+    @Test
+    @DisplayName(value = "sheet without required header is rejected")
+    void testMissingHeaderIsRejected() throws IOException {
+        File excelFile = createExcelFile("user.xlsx",
+                new Object[]{"Username"},
+                new Object[]{"budi"},
+                new Object[]{"joko"});
+
+        try (MappedWorkbook<?> workbook = new MappedWorkbook<>(excelFile, ReadMode.STREAMING,
+                ColumnMappings.USER)) {
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    workbook::readDataInSingleSheet);
+            assertTrue(exception.getMessage().contains("Password"));
+        }
+    }
+
+    private File createExcelFile(String fileName, Object[]... rows) throws IOException {
+        File excelFile = tempDir.resolve(fileName).toFile();
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook();
+             FileOutputStream outputStream = new FileOutputStream(excelFile)) {
+            Sheet sheet = workbook.createSheet();
+
+            for (int rowIndex = 0; rowIndex < rows.length; rowIndex++) {
+                Row row = sheet.createRow(rowIndex);
+                for (int cellIndex = 0; cellIndex < rows[rowIndex].length; cellIndex++) {
+                    Object value = rows[rowIndex][cellIndex];
+                    if (value instanceof Number number) {
+                        row.createCell(cellIndex).setCellValue(number.doubleValue());
+                    } else if (value != null) {
+                        row.createCell(cellIndex).setCellValue(value.toString());
+                    }
+                }
+            }
+
+            workbook.write(outputStream);
+        }
+
+        return excelFile;
+    }
+}
@@ -0,0 +1,95 @@
+package com.setianjay.database;
+
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.ReadOrder;
+import com.setianjay.database.excel.data.EmployeeWorkbook;
+import com.setianjay.database.excel.mapping.ColumnMappings;
+import com.setianjay.database.excel.reader.ParallelWorkbookReader;
+import com.setianjay.database.excel.reader.SheetProgress;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Implement ParallelWorkbookReader test to read several sheets in several files at once.
+ */
+class ParallelWorkbookReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReadInSourceOrder() throws IOException {
+        List<File> excelFiles = List.of(
+                createEmployeeExcelFile(new XSSFWorkbook(), "first.xlsx", "A", 3, 50),
+                createEmployeeExcelFile(new HSSFWorkbook(), "second.xls", "B", 2, 30)
+        );
+        Queue<SheetProgress> progresses = new ConcurrentLinkedQueue<>();
+
+        List<String> employeeIds = new ArrayList<>();
+        new ParallelWorkbookReader<>(EmployeeWorkbook::new, 4, ReadOrder.SOURCE_ORDER, progresses::add)
+                .read(excelFiles, employee -> employeeIds.add(employee.getId()));
+
+        assertEquals(3 * 50 + 2 * 30, employeeIds.size());
+        assertEquals("A-0-1", employeeIds.get(0));
+        assertEquals("A-1-1", employeeIds.get(50));
+        assertEquals("B-0-1", employeeIds.get(150));
+        assertEquals(5, progresses.stream().filter(SheetProgress::isFinished).count());
+    }
+
+    @Test
+    void testReadUnordered() throws IOException {
+        List<File> excelFiles = List.of(
+                createEmployeeExcelFile(new XSSFWorkbook(), "first.xlsx", "A", 4, 100),
+                createEmployeeExcelFile(new XSSFWorkbook(), "second.xlsx", "B", 4, 100)
+        );
+
+        List<Employee> employees = new ArrayList<>();
+        new ParallelWorkbookReader<>(EmployeeWorkbook::new, 3, ReadOrder.UNORDERED)
+                .read(excelFiles, employees::add);
+
+        assertEquals(800, employees.size());
+        assertEquals(800, employees.stream().map(Employee::getId).distinct().count());
+    }
+
+    private File createEmployeeExcelFile(Workbook workbook, String fileName, String prefix, int totalSheet,
+                                         int totalRow) throws IOException {
+        File excelFile = tempDir.resolve(fileName).toFile();
+
+        try (workbook; FileOutputStream outputStream = new FileOutputStream(excelFile)) {
+            for (int sheetIndex = 0; sheetIndex < totalSheet; sheetIndex++) {
+                Sheet sheet = workbook.createSheet("Sheet " + sheetIndex);
+                Row header = sheet.createRow(0);
+                List<String> headerNames = ColumnMappings.EMPLOYEE.getHeaderNames();
+                for (int cellIndex = 0; cellIndex < headerNames.size(); cellIndex++) {
+                    header.createCell(cellIndex).setCellValue(headerNames.get(cellIndex));
+                }
+
+                for (int rowIndex = 1; rowIndex <= totalRow; rowIndex++) {
+                    Row row = sheet.createRow(rowIndex);
+                    row.createCell(0).setCellValue(prefix + "-" + sheetIndex + "-" + rowIndex);
+                    row.createCell(5).setCellValue("Male");
+                }
+            }
+
+            workbook.write(outputStream);
+        }
+
+        return excelFile;
+    }
+}
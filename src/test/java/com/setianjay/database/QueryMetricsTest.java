@@ -0,0 +1,143 @@
+package com.setianjay.database;
+
+import com.setianjay.database.datasource.EmbeddedDataSourceProvider;
+import com.setianjay.database.entity.Customer;
+import com.setianjay.database.enums.EmbeddedDatabase;
+import com.setianjay.database.instrument.ConcurrentHistogram;
+import com.setianjay.database.instrument.HistogramSnapshot;
+import com.setianjay.database.instrument.InstrumentConfig;
+import com.setianjay.database.instrument.QueryMetrics;
+import com.setianjay.database.instrument.QueryMetricsSnapshot;
+import com.setianjay.database.instrument.QuerySnapshot;
+import com.setianjay.database.instrument.SlowQuery;
+import com.setianjay.database.instrument.SlowQueryListener;
+import com.setianjay.database.repository.CustomerRepository;
+import com.setianjay.database.util.ConnectionUtil;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Implement Query Metrics test to make sure the queries, batches and connection waits are measured by their shape, and
+ * the slow queries are reported.
+ */
+class QueryMetricsTest {
+    @RegisterExtension
+    final DataSourceProviderExtension dataSourceProvider = DataSourceProviderExtension.perTest();
+
+    @AfterEach
+    void tearDown() {
+        ConnectionUtil.setQueryMetrics(null);
+    }
+
+    @Test
+    @DisplayName(value = "histogram percentiles are within the bucket precision")
+    void testHistogramPercentiles() {
+        ConcurrentHistogram histogram = new ConcurrentHistogram();
+        IntStream.rangeClosed(1, 100_000).parallel().forEach(histogram::record);
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(100_000, snapshot.count());
+        assertEquals(1, snapshot.min());
+        assertEquals(100_000, snapshot.max());
+        assertEquals(50_000.5, snapshot.mean(), 0.001);
+        assertEquals(50_000, snapshot.p50(), 50_000 / 16.0);
+        assertEquals(99_000, snapshot.p99(), 99_000 / 16.0);
+        assertTrue(snapshot.p50() <= snapshot.p90() && snapshot.p90() <= snapshot.p99() &&
+                snapshot.p99() <= snapshot.p999() && snapshot.p999() <= snapshot.max());
+
+        assertEquals(new HistogramSnapshot(0, 0, 0, 0, 0, 0, 0, 0), new ConcurrentHistogram().snapshot());
+    }
+
+    @Test
+    @DisplayName(value = "measure repository queries by their shape and the connection wait of the pool")
+    void testRepositoryQueries() throws SQLException {
+        dataSourceProvider.use(new EmbeddedDataSourceProvider(EmbeddedDatabase.H2, "metrics_test"));
+        List<SlowQuery> reportedSlowQueries = new CopyOnWriteArrayList<>();
+        QueryMetrics queryMetrics = new QueryMetrics(new InstrumentConfig(Duration.ZERO, 100, 3,
+                reportedSlowQueries::add));
+        ConnectionUtil.setQueryMetrics(queryMetrics);
+
+        DataSource dataSource = ConnectionUtil.getDataSource();
+        assertSame(ConnectionUtil.getHikariDataSource(), dataSource.unwrap(HikariDataSource.class));
+
+        CustomerRepository customerRepository = new CustomerRepository();
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            customers.add(new Customer("CST-M0" + i, "Customer " + i, "customer" + i + "@gmail.com"));
+        }
+        assertEquals(3, customerRepository.saveAll(customers));
+        assertEquals(2, customerRepository.findAllById(List.of("CST-M01", "CST-M02")).size());
+        assertEquals(3, customerRepository.findAllById(List.of("CST-M01", "CST-M02", "CST-M03")).size());
+        for (Customer customer : customers) {
+            assertEquals(1, customerRepository.deleteById(customer.id()));
+        }
+
+        QueryMetricsSnapshot snapshot = queryMetrics.snapshot();
+        QuerySnapshot insert = findQuery(snapshot, "INSERT INTO customer");
+        assertEquals(1, insert.latency().count());
+        assertEquals(1, insert.batchSizes().count());
+        assertEquals(3, insert.batchSizes().max());
+        assertEquals(3, insert.rowsAffected());
+        assertTrue(insert.shape().endsWith("VALUES (?)"));
+
+        // "IN (?, ?)" and "IN (?, ?, ?, ?)" have the same shape
+        QuerySnapshot select = findQuery(snapshot, "SELECT");
+        assertEquals(2, select.latency().count());
+        assertEquals(0, select.rowsAffected());
+
+        QuerySnapshot delete = findQuery(snapshot, "DELETE FROM customer");
+        assertEquals(3, delete.latency().count());
+        assertEquals(3, delete.rowsAffected());
+        assertEquals(0, delete.errorCount());
+
+        assertTrue(snapshot.connectionWaits().get("default").count() >= 6);
+        // every query is slow with zero threshold, only the latest 3 are kept
+        assertEquals(6, reportedSlowQueries.size());
+        assertEquals(reportedSlowQueries.subList(3, 6), snapshot.slowQueries());
+    }
+
+    @Test
+    @DisplayName(value = "normalize the literals of plain statement and count the failed query")
+    void testPlainStatement() throws SQLException {
+        dataSourceProvider.use(new EmbeddedDataSourceProvider(EmbeddedDatabase.H2, "metrics_test"));
+        QueryMetrics queryMetrics = new QueryMetrics(new InstrumentConfig(Duration.ofMinutes(1), 100, 10,
+                SlowQueryListener.NONE));
+        DataSource dataSource = queryMetrics.instrument(ConnectionUtil.getHikariDataSource(), "default");
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            assertSame(connection, statement.getConnection());
+            statement.executeQuery("SELECT * FROM customer WHERE id = 'CST-1'").close();
+            statement.executeQuery("SELECT   *  FROM customer WHERE id = 'CST-2'").close();
+            assertThrows(SQLException.class, () -> statement.executeQuery("SELECT * FROM unknown_table WHERE id = 1"));
+        }
+
+        QueryMetricsSnapshot snapshot = queryMetrics.snapshot();
+        assertEquals("SELECT * FROM customer WHERE id = ?", findQuery(snapshot, "SELECT * FROM customer").shape());
+        assertEquals(2, findQuery(snapshot, "SELECT * FROM customer").latency().count());
+        assertEquals(1, findQuery(snapshot, "SELECT * FROM unknown_table").errorCount());
+        assertTrue(snapshot.slowQueries().isEmpty());
+    }
+
+    private static QuerySnapshot findQuery(QueryMetricsSnapshot snapshot, String prefix) {
+        return snapshot.queries().stream()
+                .filter(query -> query.shape().startsWith(prefix))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No query " + prefix + " in " + snapshot.queries()));
+    }
+}
@@ -0,0 +1,134 @@
+package com.setianjay.database;
+
+import com.setianjay.database.cache.CacheConfig;
+import com.setianjay.database.cache.CacheStats;
+import com.setianjay.database.cache.ReadThroughCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Implement ReadThroughCache test to make sure the value is only loaded when it isn't in the cache.
+ */
+class ReadThroughCacheTest {
+
+    private static final Map<String, String> CUSTOMER_NAMES = Map.of(
+            "CST-001", "Hari Setiaji",
+            "CST-002", "Gurindo Sekti",
+            "CST-003", "Setyarto");
+
+    @Test
+    @DisplayName(value = "cached value and missing value are loaded once until they are invalidated")
+    void testLoadOnceUntilInvalidated() throws SQLException {
+        AtomicInteger totalLoad = new AtomicInteger();
+        ReadThroughCache<String, String> cache = new ReadThroughCache<>(id -> {
+            totalLoad.incrementAndGet();
+            return CUSTOMER_NAMES.get(id);
+        }, CacheConfig.defaultConfig());
+
+        assertEquals("Hari Setiaji", cache.get("CST-001"));
+        assertEquals("Hari Setiaji", cache.get("CST-001"));
+        assertNull(cache.get("CST-999"));
+        assertNull(cache.get("CST-999"));
+        assertEquals(2, totalLoad.get());
+
+        cache.invalidate("CST-001");
+        assertEquals("Hari Setiaji", cache.get("CST-001"));
+        assertEquals(3, totalLoad.get());
+
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.hitCount());
+        assertEquals(3, stats.missCount());
+        assertEquals(2, stats.size());
+    }
+
+    @Test
+    @DisplayName(value = "oldest entry is evicted when the cache is full and expired entry is loaded again")
+    void testEvictByMaximumSizeAndTimeToLive() throws SQLException, InterruptedException {
+        AtomicInteger totalLoad = new AtomicInteger();
+        ReadThroughCache<String, String> cache = new ReadThroughCache<>(id -> {
+            totalLoad.incrementAndGet();
+            return CUSTOMER_NAMES.get(id);
+        }, new CacheConfig(2, Duration.ofMillis(200), Duration.ofMillis(200)));
+
+        cache.get("CST-001");
+        cache.get("CST-002");
+        cache.get("CST-003");
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.stats().evictionCount());
+
+        cache.get("CST-003");
+        assertEquals(3, totalLoad.get());
+
+        Thread.sleep(300);
+        cache.get("CST-003");
+        assertEquals(4, totalLoad.get());
+    }
+
+    @Test
+    @DisplayName(value = "failed load isn't cached")
+    void testFailedLoadIsNotCached() throws SQLException {
+        AtomicInteger totalLoad = new AtomicInteger();
+        ReadThroughCache<String, String> cache = new ReadThroughCache<>(id -> {
+            if (totalLoad.incrementAndGet() == 1) {
+                throw new SQLException("Connection is closed");
+            }
+            return CUSTOMER_NAMES.get(id);
+        }, CacheConfig.defaultConfig());
+
+        assertThrows(SQLException.class, () -> cache.get("CST-002"));
+        assertEquals("Gurindo Sekti", cache.get("CST-002"));
+        assertEquals(2, totalLoad.get());
+    }
+
+    @Test
+    @DisplayName(value = "oldest entries are still evicted in insertion order after concurrent invalidate and reload")
+    void testEvictAfterConcurrentInvalidateAndReload() throws Exception {
+        ReadThroughCache<Integer, String> cache = new ReadThroughCache<>(id -> "Customer " + id,
+                new CacheConfig(100, Duration.ofMinutes(1), Duration.ofMinutes(1)));
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                int firstKey = thread * 50;
+                futures.add(executorService.submit(() -> {
+                    for (int round = 0; round < 2_000; round++) {
+                        int key = firstKey + round % 150;
+                        cache.get(key);
+                        cache.invalidate(key);
+                        cache.get(key);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        assertTrue(cache.size() <= 100);
+
+        for (int key = 1_000; key < 1_100; key++) {
+            cache.get(key);
+        }
+        long missCount = cache.stats().missCount();
+        for (int key = 1_000; key < 1_100; key++) {
+            assertEquals("Customer " + key, cache.get(key));
+        }
+        assertEquals(100, cache.size());
+        assertEquals(missCount, cache.stats().missCount());
+    }
+}
@@ -0,0 +1,86 @@
+package com.setianjay.database;
+
+import com.setianjay.database.entity.Customer;
+import com.setianjay.database.entity.User;
+import com.setianjay.database.enums.FetchMode;
+import com.setianjay.database.repository.CustomerRepository;
+import com.setianjay.database.repository.JdbcSession;
+import com.setianjay.database.repository.UserRepository;
+import com.setianjay.database.util.ConnectionUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Implement Repository test to make sure the repositories run the same queries as {@link StatementTest} do.
+ */
+class RepositoryTest {
+
+    @AfterEach
+    void tearDown() {
+        ConnectionUtil.close();
+    }
+
+    @Test
+    @DisplayName(value = "save, find, update and delete customers with one session")
+    void testCustomerRepository() throws SQLException {
+        CustomerRepository customerRepository = new CustomerRepository();
+        List<Customer> customers = List.of(
+                new Customer("CST-R01", "Hari Setiaji", "hari.setiaji@gmail.com"),
+                new Customer("CST-R02", "Gurindo Sekti", "gurindo.sekti@gmail.com"),
+                new Customer("CST-R03", "Setyarto", "setyarto@gmail.com"));
+
+        try (JdbcSession session = customerRepository.openSession()) {
+            int rowAffected = session.inTransaction(transaction -> customerRepository.saveAll(transaction, customers));
+            assertEquals(3, rowAffected);
+
+            List<Customer> foundCustomers = customerRepository.findAllById(session,
+                    List.of("CST-R01", "CST-R02", "CST-R03", "CST-R99"));
+            assertEquals(3, foundCustomers.size());
+            assertTrue(foundCustomers.containsAll(customers));
+
+            assertEquals(1, customerRepository.updateName(session, "CST-R01", "Hari Setiaji S. Kom."));
+            assertEquals("Hari Setiaji S. Kom.",
+                    customerRepository.findById(session, "CST-R01").map(Customer::name).orElseThrow());
+        } finally {
+            for (Customer customer : customers) {
+                customerRepository.deleteById(customer.id());
+            }
+        }
+
+        assertTrue(customerRepository.findById("CST-R01").isEmpty());
+    }
+
+    @Test
+    @DisplayName(value = "login with user repository is safe from sql injection")
+    void testUserRepositoryPreventSqlInjection() throws SQLException {
+        UserRepository userRepository = new UserRepository();
+
+        Optional<User> user = userRepository.findByUsernameAndPassword("admin'; #", "wrong password");
+        assertTrue(user.isEmpty());
+    }
+
+    @Test
+    @DisplayName(value = "stream customers with row streaming and server side cursor give the same rows as find all")
+    void testStreamAllCustomers() throws SQLException {
+        CustomerRepository customerRepository = new CustomerRepository();
+        CustomerRepository cursorCustomerRepository = new CustomerRepository(
+                ConnectionUtil.getHikariDataSource("stream"));
+        List<Customer> customers = customerRepository.findAll();
+
+        try (Stream<Customer> streamingCustomers = customerRepository.streamAll()) {
+            assertEquals(customers, streamingCustomers.toList());
+        }
+
+        try (Stream<Customer> cursorCustomers = cursorCustomerRepository.streamAll(FetchMode.CURSOR, 1)) {
+            assertEquals(customers, cursorCustomers.toList());
+        }
+    }
+}
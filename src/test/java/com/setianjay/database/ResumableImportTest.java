@@ -0,0 +1,209 @@
+package com.setianjay.database;
+
+import com.setianjay.database.batch.TableMappings;
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.entity.QuarantinedRow;
+import com.setianjay.database.enums.EmbeddedDatabase;
+import com.setianjay.database.enums.ExcelType;
+import com.setianjay.database.excel.data.EmployeeDataGenerator;
+import com.setianjay.database.excel.mapping.ColumnMappings;
+import com.setianjay.database.importer.ImportResult;
+import com.setianjay.database.importer.ResumableImportConfig;
+import com.setianjay.database.importer.ResumableImporter;
+import com.setianjay.database.repository.EmployeeRepository;
+import com.setianjay.database.repository.ImportCheckpointRepository;
+import com.setianjay.database.util.ConnectionUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Implement Resumable Import test to make sure the import continue from its checkpoint after failure, and only the bad
+ * rows are quarantined.
+ */
+class ResumableImportTest {
+    private static final int TOTAL_ROW = 1_000;
+
+    @RegisterExtension
+    final DataSourceProviderExtension dataSourceProvider = DataSourceProviderExtension.embedded(EmbeddedDatabase.H2,
+            "resumable_test");
+
+    @TempDir
+    Path tempDir;
+
+    private DataSource dataSource;
+    private ResumableImporter resumableImporter;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = ConnectionUtil.getHikariDataSource();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM employee");
+            statement.executeUpdate("DELETE FROM import_checkpoint");
+            statement.executeUpdate("DELETE FROM import_quarantine");
+        }
+        resumableImporter = new ResumableImporter(dataSource, new ResumableImportConfig(50, 200, 2));
+    }
+
+    @Test
+    @DisplayName(value = "resume the import from the last committed chunk after failure")
+    void testResumeImport() throws SQLException {
+        AtomicInteger readRow = new AtomicInteger();
+        Stream<Employee> failingEmployees = EmployeeDataGenerator.employees(TOTAL_ROW).peek(employee -> {
+            if (readRow.incrementAndGet() > 550) {
+                throw new IllegalStateException("Source is broken");
+            }
+        });
+        assertThrows(IllegalStateException.class, () -> resumableImporter.importEmployees("source", failingEmployees));
+        // only the chunks before the failure are committed, the rows of the chunk in progress aren't left behind
+        assertEquals(400, countEmployees());
+
+        ImportResult resumedImport = resumableImporter.importEmployees("source",
+                EmployeeDataGenerator.employees(TOTAL_ROW));
+        assertEquals(600, resumedImport.totalRow());
+        assertEquals(400, resumedImport.skippedRow());
+        assertEquals(TOTAL_ROW, countEmployees());
+
+        ImportResult completedImport = resumableImporter.importEmployees("source",
+                EmployeeDataGenerator.employees(TOTAL_ROW));
+        assertEquals(0, completedImport.totalRow());
+        assertEquals(TOTAL_ROW, completedImport.skippedRow());
+
+        resumableImporter.resetCheckpoint("source");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM employee");
+        }
+        assertEquals(TOTAL_ROW, resumableImporter.importEmployees("source",
+                EmployeeDataGenerator.employees(TOTAL_ROW)).totalRow());
+    }
+
+    @Test
+    @DisplayName(value = "quarantine only the bad rows of the failed batch")
+    void testQuarantineBadRows() throws SQLException {
+        List<Employee> employees = EmployeeDataGenerator.employees(TOTAL_ROW).toList();
+        // id is VARCHAR(10), and duplicate id violate the primary key
+        employees.get(123).setId("E-TOO-LONG-ID");
+        employees.get(777).setId(employees.get(776).getId());
+
+        ImportResult importResult = resumableImporter.importEmployees("bad-source", employees.stream());
+        assertEquals(TOTAL_ROW - 2, importResult.totalRow());
+        assertEquals(2, importResult.quarantinedRow());
+        assertEquals(TOTAL_ROW - 2, countEmployees());
+
+        List<QuarantinedRow> quarantinedRows = resumableImporter.findQuarantinedRows("bad-source");
+        assertEquals(List.of(123L, 777L), quarantinedRows.stream().map(QuarantinedRow::rowIndex).toList());
+        assertEquals("E-TOO-LONG-ID", quarantinedRows.get(0).employeeId());
+        assertNotNull(quarantinedRows.get(1).errorMessage());
+
+        // the quarantined rows are committed, they aren't tried again
+        ImportResult nextImport = resumableImporter.importEmployees("bad-source", employees.stream());
+        assertEquals(0, nextImport.totalRow());
+        assertEquals(0, nextImport.quarantinedRow());
+    }
+
+    @Test
+    @DisplayName(value = "import the excel file only once by its hash")
+    void testImportFile() throws SQLException, IOException {
+        File excelFile = tempDir.resolve("employee.xlsx").toFile();
+        EmployeeDataGenerator.writeExcelFile(excelFile, ExcelType.xlsx, TOTAL_ROW);
+
+        assertEquals(TOTAL_ROW, resumableImporter.importFile(excelFile).totalRow());
+        assertEquals(TOTAL_ROW, countEmployees());
+
+        ImportResult secondImport = resumableImporter.importFile(excelFile);
+        assertEquals(0, secondImport.totalRow());
+        assertEquals(TOTAL_ROW, secondImport.skippedRow());
+    }
+
+    @Test
+    @DisplayName(value = "import the file by the header name when the columns order of the sheet is different")
+    void testImportReorderedColumns() throws SQLException, IOException {
+        List<Employee> employees = EmployeeDataGenerator.employees(50).toList();
+        List<String> headerNames = new ArrayList<>(ColumnMappings.EMPLOYEE.getHeaderNames());
+        Collections.reverse(headerNames);
+        File excelFile = tempDir.resolve("reordered.xlsx").toFile();
+
+        // the header names and the parameters of the employee have the same order
+        List<String> columnOrder = ColumnMappings.EMPLOYEE.getHeaderNames();
+        try (XSSFWorkbook workbook = new XSSFWorkbook();
+             FileOutputStream outputStream = new FileOutputStream(excelFile)) {
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            for (int cellIndex = 0; cellIndex < headerNames.size(); cellIndex++) {
+                header.createCell(cellIndex).setCellValue(headerNames.get(cellIndex));
+            }
+            for (int rowIndex = 0; rowIndex < employees.size(); rowIndex++) {
+                Row row = sheet.createRow(rowIndex + 1);
+                Object[] parameters = TableMappings.EMPLOYEE.mapToParameters(employees.get(rowIndex));
+                for (int cellIndex = 0; cellIndex < headerNames.size(); cellIndex++) {
+                    Object value = parameters[columnOrder.indexOf(headerNames.get(cellIndex))];
+                    if (value != null) {
+                        row.createCell(cellIndex).setCellValue(value.toString());
+                    }
+                }
+            }
+            workbook.write(outputStream);
+        }
+
+        assertEquals(employees.size(), resumableImporter.importFile(excelFile).totalRow());
+        Map<String, Employee> importedEmployees = new EmployeeRepository(dataSource).findAll().stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+        for (Employee employee : employees) {
+            assertArrayEquals(TableMappings.EMPLOYEE.mapToParameters(employee),
+                    TableMappings.EMPLOYEE.mapToParameters(importedEmployees.get(employee.getId())));
+        }
+    }
+
+    @Test
+    @DisplayName(value = "ship the tables of checkpoint and quarantine for MySQL server")
+    void testMySqlSchema() throws IOException {
+        String schema;
+        try (InputStream inputStream = ImportCheckpointRepository.class.getClassLoader()
+                .getResourceAsStream(ImportCheckpointRepository.MYSQL_SCHEMA_RESOURCE_NAME)) {
+            assertNotNull(inputStream);
+            schema = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        assertTrue(schema.contains("CREATE TABLE IF NOT EXISTS import_checkpoint"));
+        assertTrue(schema.contains("CREATE TABLE IF NOT EXISTS import_quarantine"));
+        assertTrue(schema.contains("error_message VARCHAR(500)"));
+    }
+
+    private long countEmployees() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM employee")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -18,6 +18,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
  * Implement Statement test to know what different between {@link Statement} and {@link PreparedStatement}.
@@ -28,7 +29,12 @@ import static org.junit.jupiter.api.Assertions.*;
  * <br />
  * {@link PreparedStatement} is an instance of Statement where it comes with sql injection prevention. so use
  * PreparedStatement for queries that require user parameters.
+ * <br />
+ * <br />
+ * The queries are written for MySQL (for example the # comment), so it only runs with profile "mysql"
+ * (mvn test -Pmysql).
  */
+@Tag(value = "mysql")
 @TestMethodOrder(value = MethodOrderer.OrderAnnotation.class)
 class StatementTest {
 
@@ -240,13 +246,14 @@ class StatementTest {
      * This test will read exel file and store the data to database.
      * */
     @Test
-    @DisplayName(value = "batch process to insert 999 data from excel to database")
+    @DisplayName(value = "batch process to insert 1000 data from excel to database")
     @Order(value = 8)
     void testBatchProcess() {
         String queryInsertEmployee = "INSERT INTO employee VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?);";
 
         String excelFilePath = "D:\\Budel\\Employee Sample Data.xlsx";
         File excelFile = new File(excelFilePath);
+        assumeTrue(excelFile.exists(), "Employee sample data isn't found: " + excelFilePath);
         String excelFileExtension = FileUtil.getExtensionFile(excelFile.getName());
 
         try (Connection connection = ConnectionUtil.getHikariDataSource().getConnection();
@@ -260,7 +267,7 @@ class StatementTest {
             ).readDataInSingleSheet();
 
             System.out.println(employeeListFromExcel.size());
-            assertEquals(999, employeeListFromExcel.size());
+            assertEquals(1000, employeeListFromExcel.size());
 
             if (!employeeListFromExcel.isEmpty()) {
                 for (int i = 0; i < employeeListFromExcel.size(); i++) {
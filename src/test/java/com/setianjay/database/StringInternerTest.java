@@ -0,0 +1,164 @@
+package com.setianjay.database;
+
+import com.setianjay.database.entity.Employee;
+import com.setianjay.database.enums.ExcelType;
+import com.setianjay.database.enums.Gender;
+import com.setianjay.database.enums.ReadMode;
+import com.setianjay.database.excel.base.ExcelWorkbook;
+import com.setianjay.database.excel.base.RowMapper;
+import com.setianjay.database.excel.data.EmployeeDataGenerator;
+import com.setianjay.database.excel.data.EmployeeWorkbook;
+import com.setianjay.database.excel.mapping.ColumnMappings;
+import com.setianjay.database.excel.mapping.MappedWorkbook;
+import com.setianjay.database.util.StringInterner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Implement String Interner test to make sure equal strings share one instance, the dictionary stays bounded, and the
+ * employees read from the workbook share the strings of low cardinality columns.
+ */
+class StringInternerTest {
+    private static final int TOTAL_ROW = 500;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName(value = "return the same instance for equal strings")
+    void testIntern() {
+        StringInterner stringInterner = new StringInterner();
+
+        String first = stringInterner.intern(new String("Engineering"));
+        String second = stringInterner.intern(new String("Engineering"));
+        assertSame(first, second);
+        assertEquals("Engineering", second);
+        assertNull(stringInterner.intern(null));
+        assertEquals(1, stringInterner.size());
+    }
+
+    @Test
+    @DisplayName(value = "keep the dictionary bounded when the column has too many distinct values")
+    void testBoundedSize() {
+        StringInterner stringInterner = new StringInterner(2);
+        stringInterner.intern("Seattle");
+        stringInterner.intern("Chicago");
+
+        String newValue = new String("Miami");
+        assertSame(newValue, stringInterner.intern(newValue));
+        assertEquals(2, stringInterner.size());
+        // the strings that are already in the dictionary are still interned
+        assertSame(stringInterner.intern("Seattle"), stringInterner.intern(new String("Seattle")));
+        assertThrows(IllegalArgumentException.class, () -> new StringInterner(0));
+    }
+
+    @Test
+    @DisplayName(value = "intern the same string from several threads to one instance")
+    void testConcurrentIntern() throws Exception {
+        StringInterner stringInterner = new StringInterner();
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executorService.submit(() -> IntStream.range(0, 10_000)
+                        .mapToObj(index -> stringInterner.intern("City " + index % 50))
+                        .toList()));
+            }
+
+            Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Future<List<String>> future : futures) {
+                instances.addAll(future.get());
+            }
+            assertEquals(50, instances.size());
+            assertEquals(50, stringInterner.size());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName(value = "map the gender value with the precomputed lookup")
+    void testMapStringToGender() {
+        assertEquals(Gender.MALE, Gender.mapStringToGender(new String("Male")));
+        assertEquals(Gender.FEMALE, Gender.mapStringToGender(new String("Female")));
+        assertEquals(Gender.FEMALE, Gender.mapStringToGender("Unknown"));
+    }
+
+    @Test
+    @DisplayName(value = "share the strings of low cardinality columns between the employees of the workbook")
+    void testWorkbookInternColumns() throws IOException {
+        File excelFile = tempDir.resolve("employee.xlsx").toFile();
+        EmployeeDataGenerator.writeExcelFile(excelFile, ExcelType.xlsx, TOTAL_ROW);
+
+        try (EmployeeWorkbook employeeWorkbook = new EmployeeWorkbook(excelFile, ReadMode.STREAMING)) {
+            assertInternedColumns(employeeWorkbook);
+        }
+        try (MappedWorkbook<Employee> mappedWorkbook = new MappedWorkbook<>(excelFile, ReadMode.STREAMING,
+                ColumnMappings.EMPLOYEE)) {
+            assertInternedColumns(mappedWorkbook);
+        }
+    }
+
+    @Test
+    @DisplayName(value = "every read has its own dictionary, so high cardinality sheet doesn't stop the next reads")
+    void testInternDictionaryPerRead() {
+        int jobTitleIndex = ColumnMappings.EMPLOYEE.getHeaderNames().indexOf("Job Title");
+        RowMapper<Employee> firstRead = newEmployeeRowMapper();
+        for (int i = 0; i <= StringInterner.DEFAULT_MAX_SIZE; i++) {
+            firstRead.onString(firstRead.newRow(), jobTitleIndex, "Job Title " + i);
+        }
+
+        RowMapper<Employee> nextRead = newEmployeeRowMapper();
+        Employee firstEmployee = nextRead.newRow();
+        nextRead.onString(firstEmployee, jobTitleIndex, new String("Other Job"));
+        Employee secondEmployee = nextRead.newRow();
+        nextRead.onString(secondEmployee, jobTitleIndex, new String("Other Job"));
+        assertSame(firstEmployee.getJobTitle(), secondEmployee.getJobTitle());
+    }
+
+    private static RowMapper<Employee> newEmployeeRowMapper() {
+        RowMapper<Employee> rowMapper = ColumnMappings.EMPLOYEE.newRowMapper();
+        List<String> headerNames = ColumnMappings.EMPLOYEE.getHeaderNames();
+        for (int cellIndex = 0; cellIndex < headerNames.size(); cellIndex++) {
+            rowMapper.onHeader(cellIndex, headerNames.get(cellIndex));
+        }
+
+        return rowMapper;
+    }
+
+    private void assertInternedColumns(ExcelWorkbook<Employee> excelWorkbook) {
+        List<Employee> employees = excelWorkbook.readDataInSingleSheet();
+        assertEquals(TOTAL_ROW, employees.size());
+
+        List<Function<Employee, String>> columns = List.of(Employee::getJobTitle, Employee::getDepartment,
+                Employee::getBusinessUnit, Employee::getEthnicity, Employee::getCountry, Employee::getCity);
+        for (Function<Employee, String> column : columns) {
+            Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+            Set<String> values = new HashSet<>();
+            for (Employee employee : employees) {
+                instances.add(column.apply(employee));
+                values.add(column.apply(employee));
+            }
+            // one instance per distinct value
+            assertEquals(values.size(), instances.size());
+        }
+    }
+}
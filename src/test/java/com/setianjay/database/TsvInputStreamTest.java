@@ -0,0 +1,48 @@
+package com.setianjay.database;
+
+import com.setianjay.database.batch.TableMappings;
+import com.setianjay.database.batch.TsvInputStream;
+import com.setianjay.database.entity.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Implement TsvInputStream test to make sure the rows are encoded in the default format of MySQL "LOAD DATA".
+ */
+class TsvInputStreamTest {
+
+    @Test
+    void testEncodeRowsToTabSeparatedValues() throws IOException {
+        List<Customer> customers = List.of(
+                new Customer("CST-001", "Hari Setiaji", "hari.setiaji@gmail.com"),
+                new Customer("CST-002", "Gurindo\tSekti\\", null)
+        );
+
+        try (TsvInputStream<Customer> inputStream = new TsvInputStream<>(customers.iterator(), TableMappings.CUSTOMER)) {
+            String tsv = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+
+            assertEquals("CST-001\tHari Setiaji\thari.setiaji@gmail.com\n" +
+                    "CST-002\tGurindo\\tSekti\\\\\t\\N\n", tsv);
+            assertEquals(2, inputStream.getTotalRow());
+        }
+    }
+
+    @Test
+    void testReadByteByByte() throws IOException {
+        List<Customer> customers = List.of(new Customer("CST-003", "Setyarto", "setyarto@gmail.com"));
+
+        try (TsvInputStream<Customer> inputStream = new TsvInputStream<>(customers.iterator(), TableMappings.CUSTOMER)) {
+            StringBuilder tsv = new StringBuilder();
+            for (int b = inputStream.read(); b != -1; b = inputStream.read()) {
+                tsv.append((char) b);
+            }
+
+            assertEquals("CST-003\tSetyarto\tsetyarto@gmail.com\n", tsv.toString());
+        }
+    }
+}